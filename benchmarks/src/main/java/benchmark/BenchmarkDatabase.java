@@ -0,0 +1,132 @@
+package benchmark;
+
+import database.ConnectionPool;
+import database.DB;
+import database.DbException;
+import model.dao.Impl.DepartmentDaoJDBC;
+import model.dao.Impl.SellerDaoJDBC;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Banco de dados usado pelos benchmarks: cria o esquema e popula as tabelas com a quantidade
+ * de linhas pedida.
+ *
+ * Por padrão usa um H2 em memória no modo MySQL. Para medir contra um MySQL real (por exemplo o
+ * contêiner do Dockerfile), informe {@code -Dbench.url}, {@code -Dbench.user} e {@code -Dbench.password};
+ * as tabelas seller e department desse banco são recriadas.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  private final ConnectionPool pool;
+  private final int sellerRows;
+  private final int departmentRows;
+
+  private BenchmarkDatabase(ConnectionPool pool, int sellerRows, int departmentRows) {
+    this.pool = pool;
+    this.sellerRows = sellerRows;
+    this.departmentRows = departmentRows;
+  }
+
+  /**
+   * Cria o esquema e insere os departamentos e vendedores usando os próprios DAOs em lote.
+   *
+   * @param sellerRows     O número de vendedores a inserir.
+   * @param departmentRows O número de departamentos a inserir.
+   * @return O banco populado.
+   */
+  public static BenchmarkDatabase seed(int sellerRows, int departmentRows) {
+    Properties props = new Properties();
+    props.setProperty("dburl", System.getProperty("bench.url",
+        "jdbc:h2:mem:bench" + COUNTER.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+    props.setProperty("user", System.getProperty("bench.user", "sa"));
+    props.setProperty("password", System.getProperty("bench.password", ""));
+    props.setProperty("rewriteBatchedStatements", "true");
+    props.setProperty("pool.minSize", "1");
+    props.setProperty("pool.maxSize", String.valueOf(Math.max(10, Runtime.getRuntime().availableProcessors() * 2)));
+    props.setProperty("pool.validateOnBorrow", "false");
+    ConnectionPool pool = ConnectionPool.fromProperties(props);
+
+    createSchema(pool);
+
+    List<Department> departments = new ArrayList<>(departmentRows);
+    for (int i = 1; i <= departmentRows; i++) {
+      departments.add(new Department(null, "Department " + i));
+    }
+    new DepartmentDaoJDBC(pool).insertAll(departments);
+
+    List<Seller> sellers = new ArrayList<>(sellerRows);
+    long day = 24L * 60 * 60 * 1000;
+    for (int i = 1; i <= sellerRows; i++) {
+      sellers.add(new Seller(null, "Seller " + i, "seller" + i + "@example.com",
+          new Date(i % 15_000 * day), 1000.0 + i % 5000, departments.get(i % departmentRows)));
+    }
+    new SellerDaoJDBC(pool).insertAll(sellers, 1000);
+
+    return new BenchmarkDatabase(pool, sellerRows, departmentRows);
+  }
+
+  private static void createSchema(ConnectionPool pool) {
+    Connection conn = null;
+    Statement st = null;
+    try {
+      conn = pool.getConnection();
+      st = conn.createStatement();
+      st.executeUpdate("DROP TABLE IF EXISTS seller");
+      st.executeUpdate("DROP TABLE IF EXISTS department");
+      st.executeUpdate("CREATE TABLE department ("
+          + "Id int NOT NULL AUTO_INCREMENT, "
+          + "Name varchar(60) DEFAULT NULL, "
+          + "Version int NOT NULL DEFAULT 0, "
+          + "PRIMARY KEY (Id))");
+      st.executeUpdate("CREATE TABLE seller ("
+          + "Id int NOT NULL AUTO_INCREMENT, "
+          + "Name varchar(60) NOT NULL, "
+          + "Email varchar(100) NOT NULL, "
+          + "BirthDate datetime NOT NULL, "
+          + "BaseSalary double NOT NULL, "
+          + "DepartmentId int NOT NULL, "
+          + "Version int NOT NULL DEFAULT 0, "
+          + "PRIMARY KEY (Id), "
+          + "CONSTRAINT uk_seller_email UNIQUE (Email), "
+          + "FOREIGN KEY (DepartmentId) REFERENCES department (Id))");
+      st.executeUpdate("CREATE INDEX idx_department_name_id ON department (Name, Id)");
+      st.executeUpdate("CREATE INDEX idx_seller_name_id ON seller (Name, Id)");
+      st.executeUpdate("CREATE INDEX idx_seller_department_name_id ON seller (DepartmentId, Name, Id)");
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+    }
+  }
+
+  public ConnectionPool getPool() {
+    return pool;
+  }
+
+  public int getSellerRows() {
+    return sellerRows;
+  }
+
+  public int getDepartmentRows() {
+    return departmentRows;
+  }
+
+  @Override
+  public void close() {
+    pool.close();
+  }
+}
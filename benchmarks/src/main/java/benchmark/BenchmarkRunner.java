@@ -0,0 +1,34 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Ponto de entrada de benchmarks.jar.
+ *
+ * Sem argumentos, executa todos os benchmarks com uma thread e depois com uma thread por núcleo,
+ * sempre com o profiler de GC (taxa de alocação). Com argumentos, repassa-os ao JMH
+ * (por exemplo {@code -t 8 -prof gc SellerDaoBenchmark.findById}).
+ */
+public class BenchmarkRunner {
+  public static void main(String[] args) throws RunnerException, IOException {
+    if (args.length > 0) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int threads : new int[] {1, cores}) {
+      Options options = new OptionsBuilder()
+          .include("benchmark\\..*Benchmark")
+          .threads(threads)
+          .addProfiler(GCProfiler.class)
+          .build();
+      new Runner(options).run();
+    }
+  }
+}
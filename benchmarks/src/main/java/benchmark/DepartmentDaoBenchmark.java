@@ -0,0 +1,92 @@
+package benchmark;
+
+import model.dao.DepartmentDao;
+import model.dao.Impl.DepartmentDaoJDBC;
+import model.entities.Department;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks das operações de DepartmentDaoJDBC sobre uma tabela com {@code departments} departamentos.
+ * Mede vazão e distribuição de latência (percentis do modo SampleTime); use
+ * {@code -prof gc} para a taxa de alocação e {@code -t} para várias threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DepartmentDaoBenchmark {
+  @Param({"10", "1000"})
+  public int departments;
+
+  private BenchmarkDatabase db;
+  private DepartmentDao dao;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    db = BenchmarkDatabase.seed(0, departments);
+    dao = new DepartmentDaoJDBC(db.getPool());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    db.close();
+  }
+
+  @Benchmark
+  public Department findById() {
+    return dao.findById(randomDepartmentId());
+  }
+
+  @Benchmark
+  public List<Department> findAll() {
+    return dao.findAll();
+  }
+
+  /**
+   * Insere um novo departamento a cada chamada; a tabela cresce durante a medição.
+   */
+  @Benchmark
+  public Integer insert() {
+    Department obj = new Department(null, "Bench " + ThreadLocalRandom.current().nextInt(1_000_000));
+    dao.insert(obj);
+    return obj.getId();
+  }
+
+  @Benchmark
+  public void update() {
+    dao.update(new Department(randomDepartmentId(), "Bench " + ThreadLocalRandom.current().nextInt(1_000_000)));
+  }
+
+  /**
+   * Remove um departamento inserido pelo {@link Victim} antes de cada chamada, fora da medição.
+   */
+  @Benchmark
+  public void deleteById(Victim victim) {
+    dao.deleteById(victim.id);
+  }
+
+  /**
+   * Departamento inserido antes de cada chamada de deleteById.
+   */
+  @State(Scope.Thread)
+  public static class Victim {
+    private Integer id;
+
+    @Setup(Level.Invocation)
+    public void insert(DepartmentDaoBenchmark benchmark) {
+      Department obj = new Department(null, "Victim");
+      benchmark.dao.insert(obj);
+      id = obj.getId();
+    }
+  }
+
+  private int randomDepartmentId() {
+    return ThreadLocalRandom.current().nextInt(1, departments + 1);
+  }
+}
@@ -0,0 +1,114 @@
+package benchmark;
+
+import model.dao.Impl.SellerDaoJDBC;
+import model.dao.SellerDao;
+import model.entities.Department;
+import model.entities.Seller;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks das operações de SellerDaoJDBC sobre uma tabela populada com {@code rows} vendedores.
+ * Mede vazão e distribuição de latência (percentis do modo SampleTime); use
+ * {@code -prof gc} para a taxa de alocação e {@code -t} para várias threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SellerDaoBenchmark {
+  @Param({"1000", "100000"})
+  public int rows;
+
+  @Param({"10"})
+  public int departments;
+
+  private BenchmarkDatabase db;
+  private SellerDao dao;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    db = BenchmarkDatabase.seed(rows, departments);
+    dao = new SellerDaoJDBC(db.getPool());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    db.close();
+  }
+
+  @Benchmark
+  public Seller findById() {
+    return dao.findById(randomSellerId());
+  }
+
+  @Benchmark
+  public List<Seller> findAll() {
+    return dao.findAll();
+  }
+
+  @Benchmark
+  public List<Seller> findByDepartment() {
+    return dao.findByDepartment(new Department(randomDepartmentId(), null));
+  }
+
+  /**
+   * Insere um novo vendedor a cada chamada; a tabela cresce durante a medição.
+   */
+  @Benchmark
+  public Integer insert() {
+    Seller obj = newSeller();
+    dao.insert(obj);
+    return obj.getId();
+  }
+
+  @Benchmark
+  public void update() {
+    Seller obj = newSeller();
+    obj.setId(randomSellerId());
+    dao.update(obj);
+  }
+
+  /**
+   * Remove um vendedor inserido pelo {@link Victim} antes de cada chamada, fora da medição.
+   */
+  @Benchmark
+  public void deleteById(Victim victim) {
+    dao.deleteById(victim.id);
+  }
+
+  /**
+   * Vendedor inserido antes de cada chamada de deleteById.
+   */
+  @State(Scope.Thread)
+  public static class Victim {
+    private Integer id;
+
+    @Setup(Level.Invocation)
+    public void insert(SellerDaoBenchmark benchmark) {
+      Seller obj = benchmark.newSeller();
+      benchmark.dao.insert(obj);
+      id = obj.getId();
+    }
+  }
+
+  private Seller newSeller() {
+    int n = ThreadLocalRandom.current().nextInt(1_000_000);
+    return new Seller(null, "Bench " + n, "bench" + n + "@example.com", new Date(),
+        2000.0 + n % 1000, new Department(randomDepartmentId(), null));
+  }
+
+  private int randomSellerId() {
+    return ThreadLocalRandom.current().nextInt(1, rows + 1);
+  }
+
+  private int randomDepartmentId() {
+    return ThreadLocalRandom.current().nextInt(1, departments + 1);
+  }
+}
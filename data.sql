@@ -5,7 +5,9 @@ USE coursejdbc;
 CREATE TABLE department (
   Id int(11) NOT NULL AUTO_INCREMENT,
   Name varchar(60) DEFAULT NULL,
-  PRIMARY KEY (Id)
+  Version int(11) NOT NULL DEFAULT 0,
+  PRIMARY KEY (Id),
+  KEY idx_department_name_id (Name, Id)
 );
 
 CREATE TABLE seller (
@@ -15,7 +17,11 @@ CREATE TABLE seller (
   BirthDate datetime NOT NULL,
   BaseSalary double NOT NULL,
   DepartmentId int(11) NOT NULL,
+  Version int(11) NOT NULL DEFAULT 0,
   PRIMARY KEY (Id),
+  UNIQUE KEY uk_seller_email (Email),
+  KEY idx_seller_name_id (Name, Id),
+  KEY idx_seller_department_name_id (DepartmentId, Name, Id),
   FOREIGN KEY (DepartmentId) REFERENCES department (id)
 );
 
@@ -31,4 +37,4 @@ INSERT INTO seller (Name, Email, BirthDate, BaseSalary, DepartmentId) VALUES
   ('Alex Grey','alex@gmail.com','1988-01-15 00:00:00',2200,1),
   ('Martha Red','martha@gmail.com','1993-11-30 00:00:00',3000,4),
   ('Donald Blue','donald@gmail.com','2000-01-09 00:00:00',4000,3),
-  ('Alex Pink','bob@gmail.com','1997-03-04 00:00:00',3000,2);
+  ('Alex Pink','alexpink@gmail.com','1997-03-04 00:00:00',3000,2);
@@ -0,0 +1,13 @@
+-- Atualiza um banco criado com uma versão anterior de data.sql.
+-- Adiciona a coluna Version, usada por dao.optimisticLocking e incrementada por todo UPDATE,
+-- e a chave única de e-mail, usada por upsert e upsertAll. Antes de aplicar, remova ou corrija
+-- vendedores com e-mails repetidos, ou a criação da chave falhará.
+
+USE coursejdbc;
+
+ALTER TABLE department
+  ADD COLUMN Version int(11) NOT NULL DEFAULT 0;
+
+ALTER TABLE seller
+  ADD COLUMN Version int(11) NOT NULL DEFAULT 0,
+  ADD UNIQUE KEY uk_seller_email (Email);
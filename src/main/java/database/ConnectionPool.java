@@ -0,0 +1,441 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexões limitado e thread-safe.
+ *
+ * As conexões entregues por {@link #getConnection()} são proxies das conexões físicas: chamar
+ * {@code close()} devolve a conexão ao pool em vez de fechá-la. O pool limita o número de conexões
+ * emprestadas a {@code maxSize}, espera no máximo {@code acquireTimeout} por uma conexão livre,
+ * valida conexões ao emprestá-las, remove conexões ociosas acima de {@code minSize} e registra
+ * conexões emprestadas por tempo demais (vazamentos).
+ *
+ * Propriedades lidas de db.properties (todas opcionais):
+ * <ul>
+ *   <li>{@code pool.minSize} - conexões mantidas abertas mesmo ociosas (padrão 2)</li>
+ *   <li>{@code pool.maxSize} - máximo de conexões simultâneas (padrão 10)</li>
+ *   <li>{@code pool.acquireTimeoutMs} - espera máxima por uma conexão (padrão 30000)</li>
+ *   <li>{@code pool.idleTimeoutMs} - tempo ocioso até a remoção da conexão (padrão 600000)</li>
+ *   <li>{@code pool.validateOnBorrow} - valida a conexão antes de emprestá-la (padrão true)</li>
+ *   <li>{@code pool.validationTimeoutSec} - timeout de {@link Connection#isValid(int)} (padrão 2)</li>
+ *   <li>{@code pool.leakDetectionThresholdMs} - tempo emprestado até avisar vazamento; 0 desliga (padrão 0)</li>
+ *   <li>{@code pool.statementCacheSize} - PreparedStatements em cache por conexão; 0 desliga (padrão 64)</li>
+ * </ul>
+ * As chaves "slowlog.*" ativam o {@link SlowQueryLog} nas conexões do pool.
+ */
+public class ConnectionPool implements ConnectionProvider, AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(ConnectionPool.class.getName());
+  private static final String PREFIX = "pool.";
+
+  private final String url;
+  private final Properties driverProps;
+  private final int minSize;
+  private final int maxSize;
+  private final long acquireTimeoutMillis;
+  private final long idleTimeoutNanos;
+  private final boolean validateOnBorrow;
+  private final int validationTimeoutSeconds;
+  private final long leakDetectionThresholdNanos;
+  private final int statementCacheSize;
+  private final StatementCache.Stats statementCacheStats = new StatementCache.Stats();
+  private final SlowQueryLog slowQueryLog;
+
+  private final Semaphore permits;
+  private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+  private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger totalConnections = new AtomicInteger();
+  private final ScheduledExecutorService housekeeper;
+  private volatile boolean closed;
+
+  private ConnectionPool(String url, Properties props) {
+    this.url = url;
+    this.driverProps = new Properties();
+    for (String key : props.stringPropertyNames()) {
+      if (key.indexOf('.') < 0) {
+        driverProps.setProperty(key, props.getProperty(key));
+      }
+    }
+    this.maxSize = Math.max(1, intProperty(props, "maxSize", 10));
+    this.minSize = Math.min(maxSize, Math.max(0, intProperty(props, "minSize", 2)));
+    this.acquireTimeoutMillis = longProperty(props, "acquireTimeoutMs", 30_000L);
+    this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(longProperty(props, "idleTimeoutMs", 600_000L));
+    this.validateOnBorrow = Boolean.parseBoolean(props.getProperty(PREFIX + "validateOnBorrow", "true"));
+    this.validationTimeoutSeconds = intProperty(props, "validationTimeoutSec", 2);
+    this.leakDetectionThresholdNanos =
+        TimeUnit.MILLISECONDS.toNanos(longProperty(props, "leakDetectionThresholdMs", 0L));
+    this.statementCacheSize = Math.max(0, intProperty(props, "statementCacheSize", 64));
+    this.slowQueryLog = SlowQueryLog.fromProperties(props);
+    this.permits = new Semaphore(maxSize, true);
+
+    this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "db-pool-housekeeper");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Cria o pool e agenda a manutenção periódica das conexões.
+   *
+   * @param url   A URL JDBC do banco de dados.
+   * @param props As propriedades de configuração; chaves com prefixo "pool." configuram o pool,
+   *              as demais chaves com ponto pertencem à aplicação e as chaves simples são
+   *              repassadas ao driver.
+   * @return Um novo ConnectionPool, já mantendo as conexões em segundo plano.
+   */
+  public static ConnectionPool start(String url, Properties props) {
+    ConnectionPool pool = new ConnectionPool(url, props);
+    long period = Math.max(1_000L, Math.min(30_000L, TimeUnit.NANOSECONDS.toMillis(pool.idleTimeoutNanos) / 2));
+    pool.housekeeper.scheduleWithFixedDelay(pool::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    return pool;
+  }
+
+  /**
+   * Cria um pool a partir das propriedades de db.properties.
+   *
+   * @param props As propriedades contendo "dburl" e, opcionalmente, as chaves "pool.*".
+   * @return Um novo ConnectionPool.
+   */
+  public static ConnectionPool fromProperties(Properties props) {
+    return start(props.getProperty("dburl"), props);
+  }
+
+  /**
+   * Empresta uma conexão do pool, esperando até {@code pool.acquireTimeoutMs} por uma conexão livre.
+   *
+   * @return Uma conexão que volta ao pool quando fechada.
+   * @throws DbException Lançada se o pool estiver fechado, se o tempo de espera expirar
+   *                     ou se não for possível abrir uma nova conexão.
+   */
+  @Override
+  public Connection getConnection() {
+    Connection conn = tryGetConnection(acquireTimeoutMillis);
+    if (conn == null) {
+      throw new DbException("Timeout after " + acquireTimeoutMillis
+          + "ms waiting for a connection (active=" + borrowed.size() + ", max=" + maxSize + ")");
+    }
+    return conn;
+  }
+
+  /**
+   * Empresta uma conexão do pool, esperando no máximo {@code timeoutMillis} por uma conexão livre.
+   * Diferente de {@link #getConnection()}, um pool esgotado não é um erro: o chamador pode procurar
+   * a conexão em outro lugar.
+   *
+   * @param timeoutMillis A espera máxima por uma conexão livre; 0 não espera.
+   * @return Uma conexão que volta ao pool quando fechada, ou null se todas estiverem emprestadas.
+   * @throws DbException Lançada se o pool estiver fechado ou se não for possível abrir uma nova conexão.
+   */
+  public Connection tryGetConnection(long timeoutMillis) {
+    if (closed) {
+      throw new DbException("Connection pool is closed");
+    }
+    try {
+      if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        return null;
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DbException("Interrupted while waiting for a connection");
+    }
+
+    try {
+      PooledConnection pc;
+      while ((pc = idle.pollFirst()) != null) {
+        if (isUsable(pc)) {
+          break;
+        }
+        discard(pc);
+      }
+      if (pc == null) {
+        pc = newConnection();
+      }
+      return pc.lease();
+    }
+    catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Fecha o pool e todas as conexões ociosas. Conexões emprestadas são fechadas quando devolvidas.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    housekeeper.shutdownNow();
+    PooledConnection pc;
+    while ((pc = idle.pollFirst()) != null) {
+      discard(pc);
+    }
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int getTotalConnections() {
+    return totalConnections.get();
+  }
+
+  public int getActiveConnections() {
+    return borrowed.size();
+  }
+
+  public int getIdleConnections() {
+    return idle.size();
+  }
+
+  public int getPendingThreads() {
+    return permits.getQueueLength();
+  }
+
+  /**
+   * Retorna os contadores agregados dos caches de PreparedStatement de todas as conexões.
+   *
+   * @return Os contadores de acertos, falhas e remoções do cache de statements.
+   */
+  public StatementCache.Stats getStatementCacheStats() {
+    return statementCacheStats;
+  }
+
+  /**
+   * Retorna o registro de consultas lentas das conexões do pool.
+   *
+   * @return O SlowQueryLog, ou null se "slowlog.thresholdMs" não estiver configurado.
+   */
+  public SlowQueryLog getSlowQueryLog() {
+    return slowQueryLog;
+  }
+
+  private boolean isUsable(PooledConnection pc) {
+    if (!validateOnBorrow) {
+      return true;
+    }
+    try {
+      return pc.physical.isValid(validationTimeoutSeconds);
+    }
+    catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private PooledConnection newConnection() {
+    totalConnections.incrementAndGet();
+    try {
+      Connection conn = DriverManager.getConnection(url, driverProps);
+      return new PooledConnection(slowQueryLog != null ? slowQueryLog.wrap(conn) : conn);
+    }
+    catch (SQLException e) {
+      totalConnections.decrementAndGet();
+      throw new DbException(e.getMessage());
+    }
+  }
+
+  private void discard(PooledConnection pc) {
+    totalConnections.decrementAndGet();
+    if (pc.statements != null) {
+      pc.statements.close();
+    }
+    try {
+      pc.physical.close();
+    }
+    catch (SQLException e) {
+      LOG.log(Level.FINE, "Error closing pooled connection", e);
+    }
+  }
+
+  /**
+   * Devolve uma conexão ao pool, restaurando o auto-commit e descartando conexões quebradas.
+   */
+  private void release(PooledConnection pc) {
+    borrowed.remove(pc);
+    try {
+      boolean reusable = !closed && !pc.broken && totalConnections.get() <= maxSize && !pc.physical.isClosed();
+      if (reusable && !pc.physical.getAutoCommit()) {
+        pc.physical.rollback();
+        pc.physical.setAutoCommit(true);
+      }
+      if (reusable) {
+        pc.lastUsedNanos = System.nanoTime();
+        idle.offerFirst(pc);
+      }
+      else {
+        discard(pc);
+      }
+    }
+    catch (SQLException e) {
+      discard(pc);
+    }
+    finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Remove conexões ociosas expiradas, completa o mínimo de conexões e avisa sobre vazamentos.
+   */
+  private void housekeep() {
+    try {
+      long now = System.nanoTime();
+      Iterator<PooledConnection> it = idle.descendingIterator();
+      while (it.hasNext() && totalConnections.get() > minSize) {
+        PooledConnection pc = it.next();
+        if (now - pc.lastUsedNanos > idleTimeoutNanos && idle.remove(pc)) {
+          discard(pc);
+        }
+      }
+
+      while (!closed && totalConnections.get() < minSize) {
+        PooledConnection pc = newConnection();
+        pc.lastUsedNanos = System.nanoTime();
+        idle.offerLast(pc);
+      }
+
+      if (leakDetectionThresholdNanos > 0) {
+        for (PooledConnection pc : borrowed) {
+          if (!pc.leakReported && now - pc.borrowedAtNanos > leakDetectionThresholdNanos) {
+            pc.leakReported = true;
+            LOG.log(Level.WARNING, "Possible connection leak: connection borrowed for more than "
+                + TimeUnit.NANOSECONDS.toMillis(leakDetectionThresholdNanos) + "ms", pc.borrowTrace);
+          }
+        }
+      }
+    }
+    catch (RuntimeException e) {
+      LOG.log(Level.WARNING, "Connection pool housekeeping failed", e);
+    }
+  }
+
+  private static int intProperty(Properties props, String key, int defaultValue) {
+    String value = props.getProperty(PREFIX + key);
+    return value == null ? defaultValue : Integer.parseInt(value.trim());
+  }
+
+  private static long longProperty(Properties props, String key, long defaultValue) {
+    String value = props.getProperty(PREFIX + key);
+    return value == null ? defaultValue : Long.parseLong(value.trim());
+  }
+
+  /**
+   * Uma conexão física gerenciada pelo pool.
+   */
+  private final class PooledConnection {
+    private final Connection physical;
+    private final StatementCache statements;
+    private volatile long lastUsedNanos = System.nanoTime();
+    private volatile long borrowedAtNanos;
+    private volatile Throwable borrowTrace;
+    private volatile boolean leakReported;
+    private volatile boolean broken;
+
+    private PooledConnection(Connection physical) {
+      this.physical = physical;
+      this.statements = statementCacheSize > 0 ? new StatementCache(statementCacheSize, statementCacheStats) : null;
+    }
+
+    private Connection lease() {
+      borrowedAtNanos = System.nanoTime();
+      leakReported = false;
+      borrowTrace = leakDetectionThresholdNanos > 0 ? new Throwable("Connection borrowed here") : null;
+      borrowed.add(this);
+      return (Connection) Proxy.newProxyInstance(
+          Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, new Lease(this));
+    }
+  }
+
+  /**
+   * Proxy de um empréstimo: {@code close()} devolve a conexão ao pool e invalida o proxy.
+   */
+  private final class Lease implements InvocationHandler {
+    private final PooledConnection owner;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Lease(PooledConnection owner) {
+      this.owner = owner;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (closed.compareAndSet(false, true)) {
+            release(owner);
+          }
+          return null;
+        case "isClosed":
+          return closed.get() || owner.physical.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "PooledConnection[" + owner.physical + "]";
+        default:
+          break;
+      }
+      if (closed.get()) {
+        throw new SQLException("Connection is closed");
+      }
+      try {
+        if (owner.statements != null && isCacheablePrepare(method)) {
+          int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+          return owner.statements.prepare(owner.physical, (Connection) proxy, (String) args[0], autoGeneratedKeys);
+        }
+        return method.invoke(owner.physical, args);
+      }
+      catch (InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof SQLException sqlException) {
+          markIfBroken(sqlException);
+        }
+        throw cause;
+      }
+      catch (SQLException e) {
+        markIfBroken(e);
+        throw e;
+      }
+    }
+
+    /**
+     * Erros de conexão (SQLState 08xxx) impedem que a conexão física volte ao pool.
+     */
+    private void markIfBroken(SQLException e) {
+      String state = e.getSQLState();
+      if (state != null && state.startsWith("08")) {
+        owner.broken = true;
+      }
+    }
+
+    private boolean isCacheablePrepare(Method method) {
+      if (!method.getName().equals("prepareStatement")) {
+        return false;
+      }
+      Class<?>[] types = method.getParameterTypes();
+      return types.length == 1 || (types.length == 2 && types[1] == int.class);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package database;
+
+import java.sql.Connection;
+
+/**
+ * Fonte de conexões usada pelos DAOs.
+ * Cada operação obtém uma conexão, executa o SQL e a devolve chamando {@link Connection#close()}
+ * (ou {@link DB#closeConnection(Connection)}), o que permite trocar a origem das conexões
+ * (pool, transação, réplica) sem alterar os DAOs.
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+  /**
+   * Obtém uma conexão para uma única operação.
+   *
+   * @return Uma conexão pronta para uso; deve ser fechada ao final da operação.
+   * @throws DbException Lançada se não for possível obter uma conexão.
+   */
+  Connection getConnection();
+
+  /**
+   * Obtém uma conexão para uma operação somente de leitura. Fontes com réplicas podem atendê-la
+   * a partir de uma réplica; por padrão é o mesmo que {@link #getConnection()}.
+   *
+   * @return Uma conexão pronta para leitura; deve ser fechada ao final da operação.
+   * @throws DbException Lançada se não for possível obter uma conexão.
+   */
+  default Connection getReadConnection() {
+    return getConnection();
+  }
+}
@@ -11,25 +11,91 @@ import java.util.Properties;
  * carregamento de propriedades de configuração do banco de dados.
  */
 public class DB {
-  private static Connection conn = null;
+  private static volatile ConnectionPool pool = null;
+  private static volatile ConnectionProvider provider = null;
+  private static volatile Properties properties = null;
 
   /**
-   * Obtém uma conexão de banco de dados.
+   * Obtém o pool de conexões, criando-o na primeira chamada a partir de db.properties.
    *
-   * @return Uma instância de Connection representando a conexão com o banco de dados.
+   * @return O ConnectionPool compartilhado pela aplicação.
    */
-  public static  Connection getConnection() {
-    if (conn == null) {
-      try {
-        Properties props = loadProperties();
-        String url = props.getProperty("dburl");
-        conn = DriverManager.getConnection(url, props);
+  public static ConnectionPool getConnectionPool() {
+    ConnectionPool p = pool;
+    if (p == null) {
+      synchronized (DB.class) {
+        p = pool;
+        if (p == null) {
+          p = ConnectionPool.fromProperties(getProperties());
+          pool = p;
+        }
       }
-      catch (SQLException e) {
-        throw new DbException(e.getMessage());
+    }
+    return p;
+  }
+
+  /**
+   * Obtém a fonte de conexões dos DAOs: o pool primário ou, se {@code replica.urls} estiver
+   * configurado em db.properties, um {@link ReplicaRouter} que envia as leituras às réplicas.
+   *
+   * @return A ConnectionProvider compartilhada pela aplicação.
+   */
+  public static ConnectionProvider getConnectionProvider() {
+    ConnectionProvider p = provider;
+    if (p == null) {
+      synchronized (DB.class) {
+        p = provider;
+        if (p == null) {
+          Properties props = getProperties();
+          p = props.getProperty("replica.urls", "").isBlank()
+              ? getConnectionPool()
+              : ReplicaRouter.fromProperties(getConnectionPool(), props);
+          provider = p;
+        }
       }
     }
-    return conn;
+    return p;
+  }
+
+  /**
+   * Obtém uma conexão de banco de dados emprestada do pool.
+   * A conexão deve ser devolvida com {@link #closeConnection(Connection)} ao final da operação.
+   *
+   * @return Uma instância de Connection representando a conexão com o banco de dados.
+   */
+  public static Connection getConnection() {
+    return getConnectionPool().getConnection();
+  }
+
+  /**
+   * Obtém as propriedades de configuração de db.properties, carregando o arquivo na primeira chamada.
+   *
+   * @return Um objeto Properties contendo as propriedades de configuração do banco de dados.
+   */
+  public static Properties getProperties() {
+    Properties props = properties;
+    if (props == null) {
+      synchronized (DB.class) {
+        props = properties;
+        if (props == null) {
+          props = loadProperties();
+          properties = props;
+        }
+      }
+    }
+    return props;
+  }
+
+  /**
+   * Obtém uma propriedade inteira de db.properties.
+   *
+   * @param key          O nome da propriedade.
+   * @param defaultValue O valor usado quando a propriedade não está definida.
+   * @return O valor da propriedade, ou defaultValue.
+   */
+  public static int getIntProperty(String key, int defaultValue) {
+    String value = getProperties().getProperty(key);
+    return value == null ? defaultValue : Integer.parseInt(value.trim());
   }
 
   /**
@@ -50,9 +116,11 @@ public class DB {
   }
 
   /**
-   * Fecha a conexão com o banco de dados, se estiver aberta.
+   * Devolve uma conexão ao pool (ou a fecha, se não vier do pool).
+   *
+   * @param conn A conexão a ser devolvida.
    */
-  public static void closeConnection() {
+  public static void closeConnection(Connection conn) {
     if (conn != null) {
       try {
         conn.close();
@@ -63,6 +131,22 @@ public class DB {
     }
   }
 
+  /**
+   * Fecha o pool de conexões e todas as conexões ociosas, se estiver aberto, além dos pools das réplicas.
+   */
+  public static void closeConnection() {
+    synchronized (DB.class) {
+      if (provider instanceof ReplicaRouter router) {
+        router.close();
+      }
+      provider = null;
+      if (pool != null) {
+        pool.close();
+        pool = null;
+      }
+    }
+  }
+
   /**
    * Fecha um Statement, liberando os recursos associados a ele.
    *
@@ -0,0 +1,36 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Uma exceção personalizada que representa um conflito de concorrência otimista.
+ * Esta exceção é lançada quando um registro foi alterado ou removido por outra operação
+ * entre a leitura e a gravação, ou seja, quando a versão lida não é mais a versão do banco.
+ */
+public class DbConcurrencyException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  private final ArrayList<Integer> ids;
+
+  /**
+   * Construtor da classe DbConcurrencyException.
+   *
+   * @param msg A mensagem de erro explicando a causa da exceção.
+   * @param ids Os IDs dos registros em conflito.
+   */
+  public DbConcurrencyException(String msg, List<Integer> ids) {
+    super(msg);
+    this.ids = new ArrayList<>(ids);
+  }
+
+  /**
+   * Retorna os IDs dos registros que não foram gravados por causa do conflito.
+   *
+   * @return Os IDs em conflito.
+   */
+  public List<Integer> getIds() {
+    return Collections.unmodifiableList(ids);
+  }
+}
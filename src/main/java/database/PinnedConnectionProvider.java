@@ -0,0 +1,78 @@
+package database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fonte de conexões que entrega sempre a mesma conexão, usada para que vários DAOs participem de
+ * uma transação.
+ *
+ * A conexão é entregue por um proxy em que {@code close()} não faz nada, então os DAOs podem
+ * "devolvê-la" ao fim de cada operação como de costume; quem criou o provider é responsável por
+ * confirmar, desfazer e fechar a conexão real. Leituras e escritas usam a mesma conexão, e as
+ * escritas são contadas para que o chamador saiba se a transação alterou algo.
+ */
+public class PinnedConnectionProvider implements ConnectionProvider {
+  private final Connection conn;
+  private final Connection handle;
+  private final AtomicInteger writes = new AtomicInteger();
+
+  /**
+   * Construtor da classe PinnedConnectionProvider.
+   *
+   * @param conn A conexão a ser compartilhada pelas operações.
+   */
+  public PinnedConnectionProvider(Connection conn) {
+    this.conn = conn;
+    this.handle = (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "close":
+              return null;
+            case "equals":
+              return proxy == args[0];
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            default:
+              break;
+          }
+          try {
+            return method.invoke(conn, args);
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+
+  @Override
+  public Connection getConnection() {
+    writes.incrementAndGet();
+    return handle;
+  }
+
+  @Override
+  public Connection getReadConnection() {
+    return handle;
+  }
+
+  /**
+   * Indica se alguma operação de escrita obteve a conexão.
+   *
+   * @return true se {@link #getConnection()} foi chamado ao menos uma vez.
+   */
+  public boolean hasWrites() {
+    return writes.get() > 0;
+  }
+
+  /**
+   * Retorna a conexão real, para confirmar ou desfazer a transação.
+   *
+   * @return A conexão compartilhada.
+   */
+  public Connection getPinnedConnection() {
+    return conn;
+  }
+}
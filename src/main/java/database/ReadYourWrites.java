@@ -0,0 +1,141 @@
+package database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Marca de tempo da última escrita de cada thread, usada por {@link ReplicaRouter} para que uma
+ * thread leia do primário logo depois de escrever.
+ *
+ * A marca é um valor de {@link System#nanoTime()} (ou {@link #NONE}) e pode ser passada a outras
+ * threads: {@link #propagate(Supplier)} e {@link #callWith(long, Supplier)} fazem a thread que
+ * executa a tarefa ler como se tivesse feito a escrita de quem a pediu. É assim que leituras feitas
+ * em threads de lote ou em threads virtuais enxergam as escritas da thread que as originou.
+ * {@link #propagateAndReport(Supplier)} faz também o caminho inverso: as escritas da tarefa voltam
+ * para a thread que a enviou.
+ */
+public final class ReadYourWrites {
+  /**
+   * Marca de uma thread que não escreveu.
+   */
+  public static final long NONE = Long.MIN_VALUE;
+
+  private static final ThreadLocal<AtomicLong> LAST_WRITE = ThreadLocal.withInitial(() -> new AtomicLong(NONE));
+
+  private ReadYourWrites() {
+  }
+
+  /**
+   * Registra que a thread atual acabou de escrever.
+   */
+  public static void recordWrite() {
+    LAST_WRITE.get().set(System.nanoTime());
+  }
+
+  /**
+   * Retorna a marca da última escrita da thread atual, para ser passada a outra thread.
+   *
+   * @return A marca, ou {@link #NONE} se a thread não escreveu.
+   */
+  public static long currentToken() {
+    return LAST_WRITE.get().get();
+  }
+
+  /**
+   * Retorna a mais recente de duas marcas.
+   *
+   * @param a Uma marca, ou {@link #NONE}.
+   * @param b Outra marca, ou {@link #NONE}.
+   * @return A marca mais recente.
+   */
+  public static long latest(long a, long b) {
+    if (a == NONE) {
+      return b;
+    }
+    if (b == NONE) {
+      return a;
+    }
+    return b - a > 0 ? b : a;
+  }
+
+  /**
+   * Executa a tarefa na thread atual considerando também a escrita indicada pela marca. No fim, a
+   * marca anterior da thread é restaurada, a menos que a própria tarefa tenha escrito.
+   *
+   * @param token A marca recebida de outra thread.
+   * @param work  A tarefa.
+   * @param <T>   O tipo do resultado.
+   * @return O resultado da tarefa.
+   */
+  public static <T> T callWith(long token, Supplier<T> work) {
+    return call(token, work, null);
+  }
+
+  /**
+   * Envolve a tarefa para que, executada em outra thread, leve a marca da thread atual.
+   *
+   * @param work A tarefa.
+   * @param <T>  O tipo do resultado.
+   * @return A tarefa envolvida.
+   */
+  public static <T> Supplier<T> propagate(Supplier<T> work) {
+    long token = currentToken();
+    return token == NONE ? work : () -> callWith(token, work);
+  }
+
+  /**
+   * Envolve a função para que, executada em outra thread, leve a marca da thread atual.
+   *
+   * @param work A função.
+   * @param <T>  O tipo do argumento.
+   * @param <R>  O tipo do resultado.
+   * @return A função envolvida.
+   */
+  public static <T, R> Function<T, R> propagate(Function<T, R> work) {
+    long token = currentToken();
+    return token == NONE ? work : arg -> callWith(token, () -> work.apply(arg));
+  }
+
+  /**
+   * Envolve a tarefa para que, executada em outra thread, leve a marca da thread atual e, se a
+   * tarefa escrever, devolva a marca dessa escrita à thread atual. A marca é devolvida antes de a
+   * tarefa terminar, então quem espera o resultado já lê do primário.
+   *
+   * @param work A tarefa.
+   * @param <T>  O tipo do resultado.
+   * @return A tarefa envolvida.
+   */
+  public static <T> Supplier<T> propagateAndReport(Supplier<T> work) {
+    AtomicLong caller = LAST_WRITE.get();
+    long token = caller.get();
+    return () -> call(token, work, caller);
+  }
+
+  /**
+   * Indica se a thread atual escreveu há menos de {@code nanos}.
+   */
+  static boolean wroteWithin(long nanos) {
+    long last = currentToken();
+    return last != NONE && System.nanoTime() - last < nanos;
+  }
+
+  private static <T> T call(long token, Supplier<T> work, AtomicLong caller) {
+    AtomicLong holder = LAST_WRITE.get();
+    long previous = holder.get();
+    long borrowed = latest(previous, token);
+    holder.set(borrowed);
+    try {
+      return work.get();
+    }
+    finally {
+      long last = holder.get();
+      if (last == borrowed) {
+        holder.set(previous);
+      }
+      else if (caller != null && caller != holder) {
+        caller.accumulateAndGet(last, ReadYourWrites::latest);
+      }
+    }
+  }
+}
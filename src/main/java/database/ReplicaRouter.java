@@ -0,0 +1,239 @@
+package database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fonte de conexões que separa leituras e escritas entre o banco primário e réplicas de leitura.
+ *
+ * {@link #getConnection()} sempre usa o primário. {@link #getReadConnection()} distribui as leituras
+ * entre as réplicas saudáveis em rodízio e volta ao primário quando nenhuma está disponível. Uma
+ * tarefa em segundo plano valida cada réplica periodicamente; uma réplica que falha ao abrir uma
+ * conexão é marcada como indisponível até a próxima validação bem-sucedida. Uma réplica com o pool
+ * esgotado continua saudável: a leitura apenas espera {@code replica.acquireTimeoutMs} e segue para
+ * a próxima réplica ou para o primário.
+ *
+ * Com {@code replica.readYourWritesMs} maior que zero, uma thread que acabou de confirmar ou
+ * devolver uma conexão de escrita lê do primário durante esse intervalo, para enxergar as próprias
+ * escritas mesmo com atraso de replicação. A escrita é marcada no commit e no close, quando já está
+ * no primário, e não ao obter a conexão. A marca fica em {@link ReadYourWrites} e acompanha as
+ * leituras que a thread delega a outras threads (lotes de findById, DAOs assíncronos, leituras
+ * paralelas); as escritas dos DAOs assíncronos voltam para a thread que os chamou.
+ * Leituras dentro de uma transação usam a conexão da transação, e portanto o primário.
+ *
+ * Propriedades lidas de db.properties:
+ * <ul>
+ *   <li>{@code replica.urls} - URLs JDBC das réplicas, separadas por vírgula</li>
+ *   <li>{@code replica.healthCheckIntervalMs} - intervalo entre validações das réplicas (padrão 5000)</li>
+ *   <li>{@code replica.readYourWritesMs} - tempo de leitura no primário após uma escrita; 0 desliga (padrão 1000)</li>
+ *   <li>{@code replica.acquireTimeoutMs} - espera máxima por uma conexão livre de uma réplica (padrão 0)</li>
+ * </ul>
+ * As réplicas usam as mesmas credenciais e as mesmas chaves "pool.*" do primário.
+ */
+public class ReplicaRouter implements ConnectionProvider, AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(ReplicaRouter.class.getName());
+
+  private final ConnectionPool primary;
+  private final List<Replica> replicas;
+  private final long readYourWritesNanos;
+  private final long acquireTimeoutMillis;
+  private final AtomicInteger next = new AtomicInteger();
+  private final ScheduledExecutorService healthChecker;
+
+  /**
+   * Construtor da classe ReplicaRouter.
+   *
+   * @param primary  O pool do banco primário.
+   * @param replicas Os pools das réplicas de leitura.
+   * @param props    As propriedades com as chaves "replica.*".
+   */
+  public ReplicaRouter(ConnectionPool primary, List<ConnectionPool> replicas, Properties props) {
+    this.primary = primary;
+    List<Replica> list = new ArrayList<>();
+    for (int i = 0; i < replicas.size(); i++) {
+      list.add(new Replica("replica-" + i, replicas.get(i)));
+    }
+    this.replicas = Collections.unmodifiableList(list);
+    this.readYourWritesNanos =
+        TimeUnit.MILLISECONDS.toNanos(Long.parseLong(props.getProperty("replica.readYourWritesMs", "1000").trim()));
+    this.acquireTimeoutMillis = Long.parseLong(props.getProperty("replica.acquireTimeoutMs", "0").trim());
+    long interval = Long.parseLong(props.getProperty("replica.healthCheckIntervalMs", "5000").trim());
+
+    this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "db-replica-health");
+      t.setDaemon(true);
+      return t;
+    });
+    healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Cria o roteador a partir de db.properties, abrindo um pool para cada URL de {@code replica.urls}.
+   *
+   * @param primary O pool do banco primário.
+   * @param props   As propriedades de db.properties.
+   * @return Um novo ReplicaRouter.
+   */
+  public static ReplicaRouter fromProperties(ConnectionPool primary, Properties props) {
+    List<ConnectionPool> pools = new ArrayList<>();
+    for (String url : props.getProperty("replica.urls", "").split(",")) {
+      if (!url.isBlank()) {
+        pools.add(ConnectionPool.start(url.trim(), props));
+      }
+    }
+    return new ReplicaRouter(primary, pools, props);
+  }
+
+  /**
+   * Obtém uma conexão do primário, para escritas. O commit e a devolução da conexão marcam a
+   * escrita da thread que os chama.
+   *
+   * @return Uma conexão do pool primário.
+   * @throws DbException Lançada se não for possível obter uma conexão.
+   */
+  @Override
+  public Connection getConnection() {
+    Connection conn = primary.getConnection();
+    return readYourWritesNanos > 0 ? recordingWrites(conn) : conn;
+  }
+
+  /**
+   * Obtém uma conexão de uma réplica saudável, em rodízio, ou do primário se a thread escreveu há
+   * menos de {@code replica.readYourWritesMs} ou se nenhuma réplica tiver conexão livre.
+   *
+   * @return Uma conexão para leitura.
+   * @throws DbException Lançada se não for possível obter uma conexão do primário.
+   */
+  @Override
+  public Connection getReadConnection() {
+    if (replicas.isEmpty() || wroteRecently()) {
+      return primary.getConnection();
+    }
+    int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (!replica.healthy) {
+        continue;
+      }
+      try {
+        Connection conn = replica.pool.tryGetConnection(acquireTimeoutMillis);
+        if (conn != null) {
+          return conn;
+        }
+      }
+      catch (DbException e) {
+        replica.healthy = false;
+        LOG.log(Level.WARNING, replica.name + " marked unavailable: " + e.getMessage());
+      }
+    }
+    return primary.getConnection();
+  }
+
+  /**
+   * Fecha os pools das réplicas e a validação periódica. O pool primário não é fechado.
+   */
+  @Override
+  public void close() {
+    healthChecker.shutdownNow();
+    for (Replica replica : replicas) {
+      replica.pool.close();
+    }
+  }
+
+  public ConnectionPool getPrimary() {
+    return primary;
+  }
+
+  public int getReplicaCount() {
+    return replicas.size();
+  }
+
+  public int getHealthyReplicaCount() {
+    int count = 0;
+    for (Replica replica : replicas) {
+      if (replica.healthy) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Envolve uma conexão de escrita para marcar a escrita em {@link ReadYourWrites} depois de cada
+   * commit e quando a conexão é devolvida.
+   */
+  private static Connection recordingWrites(Connection conn) {
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "equals":
+              return proxy == args[0];
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            default:
+              break;
+          }
+          Object result;
+          try {
+            result = method.invoke(conn, args);
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+          if (method.getName().equals("commit") || method.getName().equals("close")) {
+            ReadYourWrites.recordWrite();
+          }
+          return result;
+        });
+  }
+
+  private boolean wroteRecently() {
+    return readYourWritesNanos > 0 && ReadYourWrites.wroteWithin(readYourWritesNanos);
+  }
+
+  private void checkReplicas() {
+    for (Replica replica : replicas) {
+      boolean healthy;
+      try (Connection conn = replica.pool.tryGetConnection(0)) {
+        if (conn == null) {
+          // Todas as conexões estão emprestadas: a réplica está atendendo, o estado não muda.
+          continue;
+        }
+        healthy = conn.isValid(2);
+      }
+      catch (SQLException | RuntimeException e) {
+        healthy = false;
+      }
+      if (healthy != replica.healthy) {
+        LOG.info(replica.name + (healthy ? " is available" : " is unavailable"));
+      }
+      replica.healthy = healthy;
+    }
+  }
+
+  /**
+   * Uma réplica e o seu estado na última validação.
+   */
+  private static final class Replica {
+    private final String name;
+    private final ConnectionPool pool;
+    private volatile boolean healthy = true;
+
+    private Replica(String name, ConnectionPool pool) {
+      this.name = name;
+      this.pool = pool;
+    }
+  }
+}
@@ -0,0 +1,321 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Registro de consultas lentas.
+ *
+ * O pool envolve cada conexão física com {@link #wrap(Connection)}; os PreparedStatement criados
+ * a partir dela guardam os parâmetros informados e medem cada execução. Quando uma execução passa
+ * do limite, é registrado um aviso com o SQL, os parâmetros (mascarados por padrão), as linhas
+ * retornadas ou afetadas e o tempo gasto. Em consultas, o tempo vai da execução até o fechamento
+ * do ResultSet, incluindo a leitura das linhas.
+ *
+ * Propriedades lidas de db.properties:
+ * <ul>
+ *   <li>{@code slowlog.thresholdMs} - limite para registrar a consulta; ausente ou negativo desliga</li>
+ *   <li>{@code slowlog.sampleRate} - fração das consultas lentas registradas, de 0 a 1 (padrão 1)</li>
+ *   <li>{@code slowlog.maxPerSecond} - máximo de registros por segundo; o excedente é contado e resumido (padrão 10)</li>
+ *   <li>{@code slowlog.maskBinds} - mostra apenas o tipo e o tamanho dos parâmetros (padrão true)</li>
+ * </ul>
+ */
+public class SlowQueryLog {
+  private static final Logger LOG = Logger.getLogger(SlowQueryLog.class.getName());
+  private static final int MAX_VALUE_LENGTH = 64;
+
+  private final long thresholdNanos;
+  private final double sampleRate;
+  private final int maxPerSecond;
+  private final boolean maskBinds;
+
+  private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+  private final AtomicInteger windowCount = new AtomicInteger();
+  private final LongAdder suppressed = new LongAdder();
+  private final LongAdder suppressedSinceSummary = new LongAdder();
+  private final LongAdder logged = new LongAdder();
+
+  /**
+   * Construtor da classe SlowQueryLog.
+   *
+   * @param thresholdMs  O tempo a partir do qual uma execução é considerada lenta.
+   * @param sampleRate   A fração das execuções lentas que são registradas.
+   * @param maxPerSecond O máximo de registros por segundo.
+   * @param maskBinds    Se os valores dos parâmetros devem ser mascarados.
+   */
+  public SlowQueryLog(long thresholdMs, double sampleRate, int maxPerSecond, boolean maskBinds) {
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    this.sampleRate = sampleRate;
+    this.maxPerSecond = maxPerSecond;
+    this.maskBinds = maskBinds;
+  }
+
+  /**
+   * Cria o registro de consultas lentas a partir de db.properties.
+   *
+   * @param props As propriedades com as chaves "slowlog.*".
+   * @return Um SlowQueryLog, ou null se {@code slowlog.thresholdMs} não estiver definido ou for negativo.
+   */
+  public static SlowQueryLog fromProperties(Properties props) {
+    String threshold = props.getProperty("slowlog.thresholdMs");
+    if (threshold == null || Long.parseLong(threshold.trim()) < 0) {
+      return null;
+    }
+    return new SlowQueryLog(
+        Long.parseLong(threshold.trim()),
+        Double.parseDouble(props.getProperty("slowlog.sampleRate", "1.0").trim()),
+        Integer.parseInt(props.getProperty("slowlog.maxPerSecond", "10").trim()),
+        Boolean.parseBoolean(props.getProperty("slowlog.maskBinds", "true").trim()));
+  }
+
+  /**
+   * Envolve uma conexão física para que os PreparedStatement criados por ela sejam medidos.
+   *
+   * @param conn A conexão física.
+   * @return Um proxy da conexão.
+   */
+  public Connection wrap(Connection conn) {
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+          Object result = invoke(conn, method, args);
+          if (result instanceof PreparedStatement ps && method.getName().equals("prepareStatement")) {
+            return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, new TimedStatement(ps, (String) args[0]));
+          }
+          return result;
+        });
+  }
+
+  public long getLogged() {
+    return logged.sum();
+  }
+
+  /**
+   * Retorna o total de consultas lentas não registradas por causa de {@code slowlog.maxPerSecond}.
+   *
+   * @return O número de consultas suprimidas desde a criação do registro.
+   */
+  public long getSuppressed() {
+    return suppressed.sum();
+  }
+
+  /**
+   * Avalia uma execução terminada e a registra se for lenta, respeitando amostragem e limite por segundo.
+   */
+  private void report(String sql, Object[] binds, int bindCount, String rowsLabel, long rows, long elapsedNanos) {
+    if (elapsedNanos < thresholdNanos) {
+      return;
+    }
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return;
+    }
+    if (!tryAcquireLogSlot()) {
+      suppressed.increment();
+      suppressedSinceSummary.increment();
+      return;
+    }
+    logged.increment();
+    LOG.warning("Slow query (" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms, "
+        + rowsLabel + "=" + rows + "): " + sql + " | binds=" + formatBinds(binds, bindCount));
+  }
+
+  private boolean tryAcquireLogSlot() {
+    long now = System.nanoTime();
+    long start = windowStart.get();
+    if (now - start >= TimeUnit.SECONDS.toNanos(1) && windowStart.compareAndSet(start, now)) {
+      windowCount.set(0);
+      long dropped = suppressedSinceSummary.sumThenReset();
+      if (dropped > 0) {
+        LOG.warning(dropped + " slow queries were not logged because of slowlog.maxPerSecond=" + maxPerSecond);
+      }
+    }
+    return windowCount.incrementAndGet() <= maxPerSecond;
+  }
+
+  private String formatBinds(Object[] binds, int bindCount) {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 1; i <= bindCount; i++) {
+      if (i > 1) {
+        sb.append(", ");
+      }
+      sb.append(i).append('=').append(formatValue(binds[i]));
+    }
+    return sb.append(']').toString();
+  }
+
+  private String formatValue(Object value) {
+    if (value == null) {
+      return "NULL";
+    }
+    if (maskBinds) {
+      if (value instanceof CharSequence text) {
+        return "'***'(" + text.length() + ")";
+      }
+      if (value instanceof Number) {
+        return "<number>";
+      }
+      if (value instanceof Date) {
+        return "<date>";
+      }
+      return "<" + value.getClass().getSimpleName() + ">";
+    }
+    String text = String.valueOf(value);
+    if (text.length() > MAX_VALUE_LENGTH) {
+      text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+    }
+    return value instanceof CharSequence ? "'" + text + "'" : text;
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    }
+    catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Proxy de um PreparedStatement que guarda os parâmetros e mede as execuções. O StatementCache
+   * chama clearParameters e clearBatch ao devolver o statement, o que também limpa os parâmetros
+   * guardados: o próximo empréstimo nunca registra os valores do anterior.
+   */
+  private final class TimedStatement implements InvocationHandler {
+    private final PreparedStatement target;
+    private final String sql;
+    private Object[] binds = new Object[8];
+    private int bindCount;
+    private int batchCount;
+
+    private TimedStatement(PreparedStatement target, String sql) {
+      this.target = target;
+      this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+        bind(index, name.equals("setNull") ? null : args[1]);
+      }
+      else if (name.equals("clearParameters")) {
+        Arrays.fill(binds, null);
+        bindCount = 0;
+      }
+      else if (name.equals("addBatch") && args == null) {
+        batchCount++;
+      }
+      else if (args == null && name.startsWith("execute")) {
+        return execute(method, name);
+      }
+      else if (name.equals("clearBatch")) {
+        batchCount = 0;
+      }
+      return SlowQueryLog.invoke(target, method, args);
+    }
+
+    private Object execute(Method method, String name) throws Throwable {
+      long start = System.nanoTime();
+      Object result = SlowQueryLog.invoke(target, method, null);
+      long elapsed = System.nanoTime() - start;
+      switch (name) {
+        case "executeQuery":
+          return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+              new TimedResultSet((ResultSet) result, sql, binds.clone(), bindCount, start));
+        case "executeUpdate":
+        case "executeLargeUpdate":
+          report(sql, binds, bindCount, "rowsAffected", ((Number) result).longValue(), elapsed);
+          break;
+        case "executeBatch":
+        case "executeLargeBatch":
+          report(sql + " [batch of " + batchCount + "]", binds, bindCount, "rowsAffected",
+              sumCounts(result), elapsed);
+          batchCount = 0;
+          break;
+        default:
+          report(sql, binds, bindCount, "rows", -1, elapsed);
+          break;
+      }
+      return result;
+    }
+
+    private void bind(int index, Object value) {
+      if (index >= binds.length) {
+        binds = Arrays.copyOf(binds, Math.max(index + 1, binds.length * 2));
+      }
+      binds[index] = value;
+      bindCount = Math.max(bindCount, index);
+    }
+
+    private long sumCounts(Object counts) {
+      long total = 0;
+      if (counts instanceof int[] ints) {
+        for (int c : ints) {
+          total += Math.max(c, 0);
+        }
+      }
+      else if (counts instanceof long[] longs) {
+        for (long c : longs) {
+          total += Math.max(c, 0);
+        }
+      }
+      return total;
+    }
+  }
+
+  /**
+   * Proxy de um ResultSet que conta as linhas lidas e avalia a consulta quando é fechado.
+   */
+  private final class TimedResultSet implements InvocationHandler {
+    private final ResultSet target;
+    private final String sql;
+    private final Object[] binds;
+    private final int bindCount;
+    private final long start;
+    private long rows;
+    private boolean reported;
+
+    private TimedResultSet(ResultSet target, String sql, Object[] binds, int bindCount, long start) {
+      this.target = target;
+      this.sql = sql;
+      this.binds = binds;
+      this.bindCount = bindCount;
+      this.start = start;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "next": {
+          Object result = SlowQueryLog.invoke(target, method, args);
+          if (Boolean.TRUE.equals(result)) {
+            rows++;
+          }
+          return result;
+        }
+        case "close":
+          if (!reported) {
+            reported = true;
+            report(sql, binds, bindCount, "rowsReturned", rows, System.nanoTime() - start);
+          }
+          return SlowQueryLog.invoke(target, method, args);
+        default:
+          return SlowQueryLog.invoke(target, method, args);
+      }
+    }
+  }
+}
@@ -0,0 +1,259 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU de PreparedStatement de uma conexão física do pool.
+ *
+ * A chave é o texto SQL mais o modo de chaves geradas ({@code autoGeneratedKeys}). O statement
+ * devolvido é um proxy: {@code close()} limpa os parâmetros, restaura fetchSize, maxRows e
+ * queryTimeout aos valores do driver e o devolve ao cache em vez de fechá-lo, de modo que consultas
+ * repetidas reutilizam o statement já preparado no cliente e no servidor.
+ * O cache vive e morre com a conexão física à qual pertence.
+ */
+public class StatementCache {
+  private final int maxSize;
+  private final Stats stats;
+  private final LinkedHashMap<Key, CachedStatement> statements;
+
+  /**
+   * Construtor da classe StatementCache.
+   *
+   * @param maxSize O número máximo de statements mantidos abertos na conexão.
+   * @param stats   Os contadores compartilhados onde acertos, falhas e remoções são registrados.
+   */
+  public StatementCache(int maxSize, Stats stats) {
+    this.maxSize = maxSize;
+    this.stats = stats;
+    this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, CachedStatement> eldest) {
+        if (size() > StatementCache.this.maxSize) {
+          stats.evictions.increment();
+          eldest.getValue().evict();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Obtém um PreparedStatement do cache ou o prepara na conexão física.
+   *
+   * @param physical          A conexão física onde o statement é preparado.
+   * @param owner             A conexão (proxy) do empréstimo atual, devolvida por
+   *                          {@link PreparedStatement#getConnection()} até o statement ser fechado.
+   * @param sql               O texto SQL.
+   * @param autoGeneratedKeys O modo de chaves geradas, como em {@link Connection#prepareStatement(String, int)}.
+   * @return Um PreparedStatement que volta ao cache quando fechado.
+   * @throws SQLException Lançada se o driver não conseguir preparar o statement.
+   */
+  public synchronized PreparedStatement prepare(Connection physical, Connection owner, String sql,
+                                                int autoGeneratedKeys) throws SQLException {
+    Key key = new Key(sql, autoGeneratedKeys);
+    CachedStatement cached = statements.get(key);
+    if (cached != null && !cached.inUse) {
+      stats.hits.increment();
+      cached.inUse = true;
+      cached.owner = owner;
+      return cached.proxy;
+    }
+    stats.misses.increment();
+    PreparedStatement ps = physical.prepareStatement(sql, autoGeneratedKeys);
+    if (cached != null) {
+      // O mesmo SQL já está em uso nesta conexão (ResultSets aninhados): usa um statement avulso.
+      return ps;
+    }
+    try {
+      cached = new CachedStatement(ps, owner);
+    }
+    catch (SQLException e) {
+      ps.close();
+      throw e;
+    }
+    cached.inUse = true;
+    statements.put(key, cached);
+    return cached.proxy;
+  }
+
+  /**
+   * Fecha todos os statements do cache. Chamado quando a conexão física é descartada.
+   */
+  public synchronized void close() {
+    List<CachedStatement> all = new ArrayList<>(statements.values());
+    statements.clear();
+    for (CachedStatement cached : all) {
+      cached.evict();
+    }
+  }
+
+  public synchronized int size() {
+    return statements.size();
+  }
+
+  /**
+   * Chave do cache: texto SQL e modo de chaves geradas.
+   */
+  private record Key(String sql, int autoGeneratedKeys) {
+  }
+
+  /**
+   * Contadores de acertos, falhas e remoções, compartilhados por todos os caches de um pool.
+   */
+  public static class Stats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public long getHits() {
+      return hits.sum();
+    }
+
+    public long getMisses() {
+      return misses.sum();
+    }
+
+    public long getEvictions() {
+      return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+      return "StatementCache.Stats{" +
+          "hits=" + getHits() +
+          ", misses=" + getMisses() +
+          ", evictions=" + getEvictions() +
+          '}';
+    }
+  }
+
+  /**
+   * Um statement físico do cache e o proxy entregue aos DAOs.
+   */
+  private final class CachedStatement implements InvocationHandler {
+    private final PreparedStatement physical;
+    private Connection owner;
+    private final PreparedStatement proxy;
+    private final int defaultFetchSize;
+    private final int defaultMaxRows;
+    private final int defaultQueryTimeout;
+    private boolean inUse;
+    private boolean evicted;
+
+    private CachedStatement(PreparedStatement physical, Connection owner) throws SQLException {
+      this.physical = physical;
+      this.owner = owner;
+      this.defaultFetchSize = physical.getFetchSize();
+      this.defaultMaxRows = physical.getMaxRows();
+      this.defaultQueryTimeout = physical.getQueryTimeout();
+      this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+          PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class}, this);
+    }
+
+    /**
+     * Remove o statement do cache: fecha agora se estiver livre ou quando for devolvido.
+     */
+    private void evict() {
+      evicted = true;
+      if (!inUse) {
+        closePhysical();
+      }
+    }
+
+    /**
+     * Devolve o statement ao cache, desfazendo o que o último usuário configurou nele. A limpeza é
+     * feita antes de liberá-lo, para que outro usuário nunca receba parâmetros ou limites antigos.
+     */
+    private void giveBack() throws SQLException {
+      synchronized (StatementCache.this) {
+        if (!inUse) {
+          return;
+        }
+        if (evicted) {
+          inUse = false;
+          owner = null;
+          closePhysical();
+          return;
+        }
+      }
+      try {
+        physical.clearParameters();
+        physical.clearBatch();
+        if (physical.getFetchSize() != defaultFetchSize) {
+          physical.setFetchSize(defaultFetchSize);
+        }
+        if (physical.getMaxRows() != defaultMaxRows) {
+          physical.setMaxRows(defaultMaxRows);
+        }
+        if (physical.getQueryTimeout() != defaultQueryTimeout) {
+          physical.setQueryTimeout(defaultQueryTimeout);
+        }
+      }
+      finally {
+        synchronized (StatementCache.this) {
+          inUse = false;
+          owner = null;
+          if (evicted) {
+            closePhysical();
+          }
+        }
+      }
+    }
+
+    private void closePhysical() {
+      try {
+        physical.close();
+      }
+      catch (SQLException e) {
+        // O statement já não é utilizável; nada a fazer.
+      }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          giveBack();
+          return null;
+        case "isClosed":
+          return !inUse || physical.isClosed();
+        case "getConnection":
+          synchronized (StatementCache.this) {
+            if (owner == null) {
+              throw new SQLException("Statement is closed");
+            }
+            return owner;
+          }
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "CachedStatement[" + physical + "]";
+        default:
+          break;
+      }
+      if (!inUse) {
+        throw new SQLException("Statement is closed");
+      }
+      try {
+        return method.invoke(physical, args);
+      }
+      catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+}
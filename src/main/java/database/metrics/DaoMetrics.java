@@ -0,0 +1,76 @@
+package database.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registro das métricas de todas as operações de DAO.
+ *
+ * Cada operação é registrada uma vez (normalmente em um campo estático do DAO) e publicada como
+ * MBean em {@code demo.dao:type=DaoMetrics,name=<operação>}; {@link #snapshot()} devolve as mesmas
+ * informações para uso programático.
+ */
+public final class DaoMetrics {
+  private static final Logger LOG = Logger.getLogger(DaoMetrics.class.getName());
+  private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+  private DaoMetrics() {
+  }
+
+  /**
+   * Obtém (ou cria e publica via JMX) as métricas de uma operação.
+   *
+   * @param name O nome da operação, no formato "Dao.metodo".
+   * @return As métricas da operação.
+   */
+  public static OperationMetrics operation(String name) {
+    return OPERATIONS.computeIfAbsent(name, key -> {
+      OperationMetrics metrics = new OperationMetrics(key);
+      register(metrics);
+      return metrics;
+    });
+  }
+
+  /**
+   * Gera um snapshot das métricas de todas as operações, ordenado por nome.
+   *
+   * @return A lista de snapshots das operações registradas.
+   */
+  public static List<OperationMetrics.Snapshot> snapshot() {
+    List<OperationMetrics.Snapshot> list = new ArrayList<>();
+    for (OperationMetrics metrics : OPERATIONS.values()) {
+      list.add(metrics.snapshot());
+    }
+    list.sort(Comparator.comparing(OperationMetrics.Snapshot::name));
+    return list;
+  }
+
+  /**
+   * Zera as métricas de todas as operações.
+   */
+  public static void reset() {
+    OPERATIONS.values().forEach(OperationMetrics::reset);
+  }
+
+  private static void register(OperationMetrics metrics) {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName objectName = new ObjectName("demo.dao:type=DaoMetrics,name=" + ObjectName.quote(metrics.getName()));
+      if (!server.isRegistered(objectName)) {
+        server.registerMBean(metrics, objectName);
+      }
+    }
+    catch (JMException e) {
+      LOG.log(Level.WARNING, "Could not register JMX metrics for " + metrics.getName(), e);
+    }
+  }
+}
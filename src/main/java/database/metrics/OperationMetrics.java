@@ -0,0 +1,159 @@
+package database.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de uma operação de DAO (por exemplo "SellerDao.findById"): chamadas, erros, linhas
+ * retornadas ou afetadas e histogramas de latência das fases de obtenção da conexão (acquire),
+ * execução do SQL (execute) e montagem dos objetos (map).
+ *
+ * Os DAOs guardam a instância em um campo e medem cada chamada com variáveis locais e
+ * {@link System#nanoTime()}, chamando {@link #record(long, long, long, int)} no bloco finally;
+ * nenhuma gravação aloca memória ou usa locks.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+  /**
+   * Valor de {@code rows} que indica que a chamada terminou com erro.
+   */
+  public static final int FAILED = -1;
+
+  private final String name;
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LatencyHistogram acquire = new LatencyHistogram();
+  private final LatencyHistogram execute = new LatencyHistogram();
+  private final LatencyHistogram map = new LatencyHistogram();
+
+  /**
+   * Construtor da classe OperationMetrics.
+   *
+   * @param name O nome da operação, no formato "Dao.metodo".
+   */
+  public OperationMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Registra uma chamada. As marcações de tempo que ficaram em zero indicam que a fase não foi
+   * alcançada (por exemplo, a conexão não pôde ser obtida) e não entram nos histogramas.
+   *
+   * @param start    {@code System.nanoTime()} no início da chamada.
+   * @param acquired {@code System.nanoTime()} após obter a conexão, ou 0.
+   * @param executed {@code System.nanoTime()} após executar o SQL, ou 0.
+   * @param rowCount As linhas retornadas ou afetadas, ou {@link #FAILED} se a chamada falhou.
+   */
+  public void record(long start, long acquired, long executed, int rowCount) {
+    long end = System.nanoTime();
+    calls.increment();
+    if (rowCount == FAILED) {
+      errors.increment();
+    }
+    else {
+      rows.add(rowCount);
+    }
+    if (acquired != 0) {
+      acquire.record(acquired - start);
+      if (executed != 0) {
+        execute.record(executed - acquired);
+        if (rowCount != FAILED) {
+          map.record(end - executed);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gera um snapshot das métricas da operação.
+   *
+   * @return Os contadores e os histogramas das três fases neste instante.
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(name, calls.sum(), errors.sum(), rows.sum(),
+        acquire.snapshot(), execute.snapshot(), map.snapshot());
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public long getCalls() {
+    return calls.sum();
+  }
+
+  @Override
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  @Override
+  public long getRows() {
+    return rows.sum();
+  }
+
+  @Override
+  public long getAcquireP50Micros() {
+    return acquire.snapshot().p50Nanos() / 1000;
+  }
+
+  @Override
+  public long getAcquireP99Micros() {
+    return acquire.snapshot().p99Nanos() / 1000;
+  }
+
+  @Override
+  public long getAcquireMaxMicros() {
+    return acquire.snapshot().maxNanos() / 1000;
+  }
+
+  @Override
+  public long getExecuteP50Micros() {
+    return execute.snapshot().p50Nanos() / 1000;
+  }
+
+  @Override
+  public long getExecuteP99Micros() {
+    return execute.snapshot().p99Nanos() / 1000;
+  }
+
+  @Override
+  public long getExecuteMaxMicros() {
+    return execute.snapshot().maxNanos() / 1000;
+  }
+
+  @Override
+  public long getMapP50Micros() {
+    return map.snapshot().p50Nanos() / 1000;
+  }
+
+  @Override
+  public long getMapP99Micros() {
+    return map.snapshot().p99Nanos() / 1000;
+  }
+
+  @Override
+  public long getMapMaxMicros() {
+    return map.snapshot().maxNanos() / 1000;
+  }
+
+  @Override
+  public void reset() {
+    calls.reset();
+    errors.reset();
+    rows.reset();
+    acquire.reset();
+    execute.reset();
+    map.reset();
+  }
+
+  /**
+   * Métricas de uma operação em um instante.
+   */
+  public record Snapshot(String name, long calls, long errors, long rows,
+                         LatencyHistogram.Snapshot acquire,
+                         LatencyHistogram.Snapshot execute,
+                         LatencyHistogram.Snapshot map) {
+  }
+}
@@ -0,0 +1,37 @@
+package database.metrics;
+
+/**
+ * Interface JMX das métricas de uma operação de DAO. As latências são expostas em microssegundos.
+ */
+public interface OperationMetricsMXBean {
+  String getName();
+
+  long getCalls();
+
+  long getErrors();
+
+  long getRows();
+
+  long getAcquireP50Micros();
+
+  long getAcquireP99Micros();
+
+  long getAcquireMaxMicros();
+
+  long getExecuteP50Micros();
+
+  long getExecuteP99Micros();
+
+  long getExecuteMaxMicros();
+
+  long getMapP50Micros();
+
+  long getMapP99Micros();
+
+  long getMapMaxMicros();
+
+  /**
+   * Zera os contadores e histogramas da operação.
+   */
+  void reset();
+}
@@ -0,0 +1,96 @@
+package model.dao;
+
+import model.entities.Department;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versão assíncrona de {@link DepartmentDao}: cada método executa a operação correspondente em
+ * segundo plano e retorna um CompletableFuture. Erros de banco de dados concluem o futuro com a
+ * {@link database.DbException} lançada pela operação.
+ */
+public interface AsyncDepartmentDao {
+  /**
+   * Insere um departamento no banco de dados.
+   *
+   * @param obj O objeto Department a ser inserido; recebe o ID gerado.
+   * @return Um futuro concluído quando a inserção terminar.
+   */
+  CompletableFuture<Void> insert(Department obj);
+
+  /**
+   * Atualiza as informações de um departamento no banco de dados.
+   *
+   * @param obj O objeto Department com as informações atualizadas.
+   * @return Um futuro concluído quando a atualização terminar.
+   */
+  CompletableFuture<Void> update(Department obj);
+
+  /**
+   * Remove um departamento do banco de dados com base em seu ID.
+   *
+   * @param id O ID do departamento a ser removido.
+   * @return Um futuro concluído quando a remoção terminar.
+   */
+  CompletableFuture<Void> deleteById(Integer id);
+
+  /**
+   * Insere vários departamentos usando JDBC batch.
+   *
+   * @param list Os objetos Department a serem inseridos.
+   * @return Um futuro com o resultado da operação em lote.
+   */
+  CompletableFuture<BatchResult> insertAll(Collection<Department> list);
+
+  /**
+   * Atualiza vários departamentos usando JDBC batch.
+   *
+   * @param list Os objetos Department com as informações atualizadas.
+   * @return Um futuro com o resultado da operação em lote.
+   */
+  CompletableFuture<BatchResult> updateAll(Collection<Department> list);
+
+  /**
+   * Remove vários departamentos com base em seus IDs.
+   *
+   * @param ids Os IDs dos departamentos a serem removidos.
+   * @return Um futuro com o resultado da operação em lote.
+   */
+  CompletableFuture<BatchResult> deleteByIds(Collection<Integer> ids);
+
+  /**
+   * Busca um departamento com base em seu ID.
+   *
+   * @param id O ID do departamento.
+   * @return Um futuro com o departamento encontrado, ou com null se ele não existir.
+   */
+  CompletableFuture<Department> findById(Integer id);
+
+  /**
+   * Busca vários departamentos com base em seus IDs.
+   *
+   * @param ids Os IDs dos departamentos.
+   * @return Um futuro com o mapa do ID para o departamento; IDs não encontrados ficam de fora do mapa.
+   */
+  CompletableFuture<Map<Integer, Department>> findByIds(Collection<Integer> ids);
+
+  /**
+   * Recupera todos os departamentos.
+   *
+   * @return Um futuro com a lista de todos os departamentos.
+   */
+  CompletableFuture<List<Department>> findAll();
+
+  /**
+   * Busca uma página de departamentos a partir de um cursor (keyset).
+   *
+   * @param afterName O nome do último departamento da página anterior, que pode ser null.
+   * @param afterId   O ID do último departamento da página anterior, ou null para a primeira página.
+   * @param limit     O número máximo de departamentos na página.
+   * @return Um futuro com a página de departamentos.
+   */
+  CompletableFuture<List<Department>> findPage(String afterName, Integer afterId, int limit);
+}
@@ -0,0 +1,105 @@
+package model.dao;
+
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versão assíncrona de {@link SellerDao}: cada método executa a operação correspondente em segundo
+ * plano e retorna um CompletableFuture. Erros de banco de dados concluem o futuro com a
+ * {@link database.DbException} lançada pela operação.
+ */
+public interface AsyncSellerDao {
+  /**
+   * Insere um vendedor no banco de dados.
+   *
+   * @param obj O objeto Seller a ser inserido; recebe o ID gerado.
+   * @return Um futuro concluído quando a inserção terminar.
+   */
+  CompletableFuture<Void> insert(Seller obj);
+
+  /**
+   * Atualiza as informações de um vendedor no banco de dados.
+   *
+   * @param obj O objeto Seller com as informações atualizadas.
+   * @return Um futuro concluído quando a atualização terminar.
+   */
+  CompletableFuture<Void> update(Seller obj);
+
+  /**
+   * Remove um vendedor do banco de dados com base em seu ID.
+   *
+   * @param id O ID do vendedor a ser removido.
+   * @return Um futuro concluído quando a remoção terminar.
+   */
+  CompletableFuture<Void> deleteById(Integer id);
+
+  /**
+   * Insere vários vendedores usando JDBC batch.
+   *
+   * @param list Os objetos Seller a serem inseridos.
+   * @return Um futuro com o resultado da operação em lote.
+   */
+  CompletableFuture<BatchResult> insertAll(Collection<Seller> list);
+
+  /**
+   * Atualiza vários vendedores usando JDBC batch.
+   *
+   * @param list Os objetos Seller com as informações atualizadas.
+   * @return Um futuro com o resultado da operação em lote.
+   */
+  CompletableFuture<BatchResult> updateAll(Collection<Seller> list);
+
+  /**
+   * Remove vários vendedores com base em seus IDs.
+   *
+   * @param ids Os IDs dos vendedores a serem removidos.
+   * @return Um futuro com o resultado da operação em lote.
+   */
+  CompletableFuture<BatchResult> deleteByIds(Collection<Integer> ids);
+
+  /**
+   * Busca um vendedor com base em seu ID.
+   *
+   * @param id O ID do vendedor.
+   * @return Um futuro com o vendedor encontrado, ou com null se ele não existir.
+   */
+  CompletableFuture<Seller> findById(Integer id);
+
+  /**
+   * Busca vários vendedors com base em seus IDs.
+   *
+   * @param ids Os IDs dos vendedors.
+   * @return Um futuro com o mapa do ID para o vendedor; IDs não encontrados ficam de fora do mapa.
+   */
+  CompletableFuture<Map<Integer, Seller>> findByIds(Collection<Integer> ids);
+
+  /**
+   * Recupera todos os vendedores.
+   *
+   * @return Um futuro com a lista de todos os vendedores.
+   */
+  CompletableFuture<List<Seller>> findAll();
+
+  /**
+   * Busca os vendedores de um departamento.
+   *
+   * @param department O departamento pelo qual deseja-se buscar vendedores.
+   * @return Um futuro com a lista de vendedores do departamento.
+   */
+  CompletableFuture<List<Seller>> findByDepartment(Department department);
+
+  /**
+   * Busca uma página de vendedores a partir de um cursor (keyset).
+   *
+   * @param afterName O nome do último vendedor da página anterior, que pode ser null.
+   * @param afterId   O ID do último vendedor da página anterior, ou null para a primeira página.
+   * @param limit     O número máximo de vendedores na página.
+   * @return Um futuro com a página de vendedores.
+   */
+  CompletableFuture<List<Seller>> findPage(String afterName, Integer afterId, int limit);
+}
@@ -0,0 +1,144 @@
+package model.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de uma operação em lote (insertAll, updateAll, deleteByIds).
+ * Os registros são enviados ao banco em blocos (chunks); cada bloco é confirmado ou desfeito
+ * por inteiro, e os blocos que falharam são descritos individualmente em {@link #getFailures()}.
+ */
+public class BatchResult {
+  private final int totalRows;
+  private int rowsAffected;
+  private int chunks;
+  private final List<ChunkFailure> failures = new ArrayList<>();
+
+  /**
+   * Construtor da classe BatchResult.
+   *
+   * @param totalRows O número de registros enviados na operação.
+   */
+  public BatchResult(int totalRows) {
+    this.totalRows = totalRows;
+  }
+
+  /**
+   * Registra um bloco executado com sucesso.
+   *
+   * @param counts As contagens retornadas por {@link Statement#executeBatch()}.
+   */
+  public void chunkSucceeded(int[] counts) {
+    chunks++;
+    for (int count : counts) {
+      // Com rewriteBatchedStatements o driver informa SUCCESS_NO_INFO: conta uma linha por comando.
+      rowsAffected += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+    }
+  }
+
+  /**
+   * Registra um bloco executado com sucesso.
+   *
+   * @param count O número de linhas afetadas pelo bloco.
+   */
+  public void chunkSucceeded(int count) {
+    chunks++;
+    rowsAffected += count;
+  }
+
+  /**
+   * Registra um bloco que falhou e foi desfeito.
+   *
+   * @param chunkIndex O índice do bloco (a partir de 0).
+   * @param fromIndex  O índice do primeiro registro do bloco (inclusivo).
+   * @param toIndex    O índice do último registro do bloco (exclusivo).
+   * @param e          O erro retornado pelo banco de dados.
+   */
+  public void chunkFailed(int chunkIndex, int fromIndex, int toIndex, SQLException e) {
+    chunks++;
+    failures.add(new ChunkFailure(chunkIndex, fromIndex, toIndex, e.getMessage(), e.getSQLState()));
+  }
+
+  public int getTotalRows() {
+    return totalRows;
+  }
+
+  public int getRowsAffected() {
+    return rowsAffected;
+  }
+
+  public int getChunks() {
+    return chunks;
+  }
+
+  public List<ChunkFailure> getFailures() {
+    return Collections.unmodifiableList(failures);
+  }
+
+  public boolean isSuccessful() {
+    return failures.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "BatchResult{" +
+        "totalRows=" + totalRows +
+        ", rowsAffected=" + rowsAffected +
+        ", chunks=" + chunks +
+        ", failures=" + failures +
+        '}';
+  }
+
+  /**
+   * Descreve um bloco que falhou: quais registros ele continha e o erro retornado pelo banco.
+   */
+  public static class ChunkFailure {
+    private final int chunkIndex;
+    private final int fromIndex;
+    private final int toIndex;
+    private final String message;
+    private final String sqlState;
+
+    public ChunkFailure(int chunkIndex, int fromIndex, int toIndex, String message, String sqlState) {
+      this.chunkIndex = chunkIndex;
+      this.fromIndex = fromIndex;
+      this.toIndex = toIndex;
+      this.message = message;
+      this.sqlState = sqlState;
+    }
+
+    public int getChunkIndex() {
+      return chunkIndex;
+    }
+
+    public int getFromIndex() {
+      return fromIndex;
+    }
+
+    public int getToIndex() {
+      return toIndex;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    public String getSqlState() {
+      return sqlState;
+    }
+
+    @Override
+    public String toString() {
+      return "ChunkFailure{" +
+          "chunkIndex=" + chunkIndex +
+          ", fromIndex=" + fromIndex +
+          ", toIndex=" + toIndex +
+          ", message='" + message + '\'' +
+          ", sqlState='" + sqlState + '\'' +
+          '}';
+    }
+  }
+}
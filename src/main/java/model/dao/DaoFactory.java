@@ -1,30 +1,382 @@
 package model.dao;
 
 import database.DB;
+import database.DbException;
+import database.PinnedConnectionProvider;
+import database.ReadYourWrites;
+import model.dao.Impl.AsyncDepartmentDaoImpl;
+import model.dao.Impl.AsyncSellerDaoImpl;
 import model.dao.Impl.DepartmentDaoJDBC;
 import model.dao.Impl.SellerDaoJDBC;
+import model.dao.Impl.VirtualThreadExecutor;
+import model.dao.buffer.WriteBehindSellerDao;
+import model.dao.bulk.BulkExportOptions;
+import model.dao.bulk.BulkExporter;
+import model.dao.bulk.BulkLoadOptions;
+import model.dao.bulk.BulkLoader;
+import model.dao.cache.CachingDepartmentDao;
+import model.dao.cache.CachingSellerDao;
+import model.dao.cache.EntityCache;
+import model.dao.cache.QueryCache;
+import model.dao.loader.BatchLoader;
+import model.dao.loader.CoalescingDepartmentDao;
+import model.dao.loader.CoalescingSellerDao;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Classe de fábrica para criar instâncias de objetos SellerDao.
- * Esta classe fornece um método estático para criar uma implementação concreta
- * de SellerDao, que é instanciada com uma conexão de banco de dados.
+ * Esta classe fornece métodos estáticos para criar implementações concretas
+ * dos DAOs, que são instanciadas com a fonte de conexões de {@link DB#getConnectionProvider()}
+ * (o pool primário ou, com {@code replica.urls}, o roteador de réplicas).
+ * Os recursos abaixo vêm desligados em db.properties e são ligados mudando a chave para true.
+ *
+ * Os decoradores envolvem o DAO JDBC de dentro para fora: o buffer de write-behind (só vendedores,
+ * {@code writeBehind.enabled}), o agrupamento de findById ({@code loader.enabled}) e, por fora de
+ * todos, os caches ({@code cache.enabled}).
+ *
+ * Quando {@code cache.enabled=true}, os DAOs compartilham um cache de entidades e um cache de
+ * resultados de consultas ({@code cache.query.maxBytes}; 0 desliga). Escritas feitas fora dos
+ * DAOs, direto no banco, só aparecem depois do TTL ({@code cache.seller.ttlMs},
+ * {@code cache.query.ttlMs}).
+ *
+ * Quando {@code loader.enabled=true}, as chamadas simultâneas de findById são agrupadas em
+ * consultas findByIds. Como o cache fica por fora, só as falhas do cache entram nos lotes. Cada
+ * findById pode esperar até {@code loader.windowMicros} pelo lote, o que só compensa com muitas
+ * leituras concorrentes.
+ *
+ * Quando {@code writeBehind.enabled=true}, os updates de vendedores passam por um buffer
+ * compartilhado e são gravados em lote em segundo plano.
+ *
+ * Quando {@code dao.optimisticLocking=true}, update e updateAll exigem a versão lida de cada
+ * entidade e a conferem: update lança DbConcurrencyException e updateAll registra como falha o
+ * bloco em conflito, em vez de sobrescrever alterações concorrentes. Com write-behind, os
+ * vendedores continuam "a última vence", já que o buffer grava cópias sem a versão lida.
  */
 public class DaoFactory {
   /**
-   * Cria e retorna uma instância de SellerDao com uma conexão de banco de dados.
+   * Cria e retorna uma instância de SellerDao com o pool de conexões de banco de dados.
    *
-   * @return Uma instância de SellerDao configurada com uma conexão de banco de dados.
+   * @return Uma instância de SellerDao configurada com o pool de conexões de banco de dados.
    */
   public static SellerDao createSellerDao() {
-    return new SellerDaoJDBC(DB.getConnection());
+    SellerDao dao = baseSellerDao();
+    if (loaderEnabled()) {
+      dao = new CoalescingSellerDao(dao, Loaders.SELLERS);
+    }
+    return cacheEnabled() ? new CachingSellerDao(dao, Caches.SELLERS, Caches.QUERIES) : dao;
   }
 
   /**
-   * Cria e retorna uma instância de DepartmentDao com uma conexão de banco de dados.
+   * Cria e retorna uma instância de DepartmentDao com o pool de conexões de banco de dados.
    *
-   * @return Uma instância de DepartmentDao configurada com uma conexão de banco de dados.
+   * @return Uma instância de DepartmentDao configurada com o pool de conexões de banco de dados.
    */
   public static DepartmentDao createDepartmentDao() {
-    return new DepartmentDaoJDBC(DB.getConnection());
+    DepartmentDao dao = departmentDaoJdbc();
+    if (loaderEnabled()) {
+      dao = new CoalescingDepartmentDao(dao, Loaders.DEPARTMENTS);
+    }
+    return cacheEnabled() ? new CachingDepartmentDao(dao, Caches.DEPARTMENTS, Caches.SELLERS, Caches.QUERIES) : dao;
+  }
+
+  /**
+   * Cria e retorna uma instância de AsyncSellerDao que executa as operações de
+   * {@link #createSellerDao()} em threads virtuais, limitadas ao tamanho máximo do pool.
+   *
+   * @return Uma instância de AsyncSellerDao.
+   */
+  public static AsyncSellerDao createAsyncSellerDao() {
+    return new AsyncSellerDaoImpl(createSellerDao(), AsyncExecutor.INSTANCE);
+  }
+
+  /**
+   * Cria e retorna uma instância de AsyncDepartmentDao que executa as operações de
+   * {@link #createDepartmentDao()} em threads virtuais, limitadas ao tamanho máximo do pool.
+   *
+   * @return Uma instância de AsyncDepartmentDao.
+   */
+  public static AsyncDepartmentDao createAsyncDepartmentDao() {
+    return new AsyncDepartmentDaoImpl(createDepartmentDao(), AsyncExecutor.INSTANCE);
+  }
+
+  /**
+   * Executa um bloco de operações em uma única transação.
+   *
+   * @param work As operações, feitas com os DAOs de {@link Transaction}.
+   * @throws DbException Lançada se não for possível abrir, confirmar ou desfazer a transação;
+   *                     exceções lançadas pelo bloco são repassadas após o rollback.
+   * @see #callInTransaction(Function)
+   */
+  public static void inTransaction(Consumer<Transaction> work) {
+    callInTransaction(tx -> {
+      work.accept(tx);
+      return null;
+    });
+  }
+
+  /**
+   * Executa um bloco de operações em uma única transação e retorna o seu resultado.
+   *
+   * Uma conexão de escrita (do primário) é reservada para o bloco com auto-commit desligado. Se o
+   * bloco terminar normalmente, a transação é confirmada com um único commit; se lançar qualquer
+   * exceção (como DbException ou DbIntegrityException), tudo é desfeito e a exceção é relançada.
+   * Depois de um commit com escritas, os caches de entidades são esvaziados, já que os DAOs da
+   * transação não passam por eles. A conexão registra o commit em {@link ReadYourWrites}, para que
+   * as leituras seguintes da thread não vão a uma réplica que ainda não o recebeu.
+   *
+   * Com write-behind ligado, o buffer de updates é gravado antes de a transação começar, para que
+   * updates antigos não sobrescrevam as escritas da transação.
+   *
+   * @param work As operações, feitas com os DAOs de {@link Transaction}.
+   * @param <T>  O tipo do resultado.
+   * @return O valor retornado pelo bloco.
+   * @throws DbException Lançada se não for possível abrir, confirmar ou desfazer a transação;
+   *                     exceções lançadas pelo bloco são repassadas após o rollback.
+   */
+  public static <T> T callInTransaction(Function<Transaction, T> work) {
+    if (writeBehindEnabled()) {
+      WriteBehind.SELLERS.flush();
+    }
+    Connection conn = DB.getConnectionProvider().getConnection();
+    try {
+      conn.setAutoCommit(false);
+      PinnedConnectionProvider provider = new PinnedConnectionProvider(conn);
+      T result;
+      try {
+        result = work.apply(new Transaction(provider, batchSize(), fetchSize(), optimisticLocking()));
+      }
+      catch (RuntimeException | Error e) {
+        try {
+          conn.rollback();
+        }
+        catch (SQLException rollbackError) {
+          e.addSuppressed(rollbackError);
+        }
+        throw e;
+      }
+      conn.commit();
+      if (provider.hasWrites() && cacheEnabled()) {
+        Caches.SELLERS.invalidateAll();
+        Caches.DEPARTMENTS.invalidateAll();
+        Caches.QUERIES.invalidateAll();
+      }
+      return result;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeConnection(conn);
+    }
+  }
+
+  /**
+   * Retorna o cache de vendedores compartilhado pelos DAOs, para consulta de métricas.
+   *
+   * @return O cache de vendedores.
+   */
+  public static EntityCache<Integer, Seller> getSellerCache() {
+    return Caches.SELLERS;
+  }
+
+  /**
+   * Retorna o cache de departamentos compartilhado pelos DAOs, para consulta de métricas.
+   *
+   * @return O cache de departamentos.
+   */
+  public static EntityCache<Integer, Department> getDepartmentCache() {
+    return Caches.DEPARTMENTS;
+  }
+
+  /**
+   * Retorna o cache de resultados de consultas (findAll e findByDepartment) compartilhado pelos
+   * DAOs, para consulta de métricas.
+   *
+   * @return O cache de consultas.
+   */
+  public static QueryCache getQueryCache() {
+    return Caches.QUERIES;
+  }
+
+  /**
+   * Retorna o loader que agrupa as buscas de vendedores por ID, para consulta de métricas.
+   *
+   * @return O loader de vendedores.
+   */
+  public static BatchLoader<Integer, Seller> getSellerLoader() {
+    return Loaders.SELLERS;
+  }
+
+  /**
+   * Retorna o loader que agrupa as buscas de departamentos por ID, para consulta de métricas.
+   *
+   * @return O loader de departamentos.
+   */
+  public static BatchLoader<Integer, Department> getDepartmentLoader() {
+    return Loaders.DEPARTMENTS;
+  }
+
+  /**
+   * Cria um BulkLoader com as opções {@code bulk.*} de db.properties. O número de threads fica
+   * limitado ao tamanho máximo do pool, pois cada uma ocupa uma conexão enquanto grava.
+   *
+   * @return Um BulkLoader que grava pelos DAOs de {@link #createSellerDao()} e {@link #createDepartmentDao()}.
+   */
+  public static BulkLoader createBulkLoader() {
+    BulkLoadOptions options = BulkLoadOptions.fromProperties(DB.getProperties());
+    return createBulkLoader(options.workers(Math.min(options.getWorkers(), DB.getConnectionPool().getMaxSize())));
+  }
+
+  /**
+   * Cria um BulkLoader com as opções informadas.
+   *
+   * @param options As opções da carga.
+   * @return Um BulkLoader que grava pelos DAOs de {@link #createSellerDao()} e {@link #createDepartmentDao()}.
+   */
+  public static BulkLoader createBulkLoader(BulkLoadOptions options) {
+    return cacheEnabled()
+        ? new BulkLoader(createSellerDao(), createDepartmentDao(), DB.getConnectionProvider(), options, Caches.QUERIES)
+        : new BulkLoader(createSellerDao(), createDepartmentDao(), DB.getConnectionProvider(), options);
+  }
+
+  /**
+   * Cria um BulkExporter com as opções {@code bulk.export.*} de db.properties, limitando as
+   * exportações simultâneas ao tamanho máximo do pool.
+   *
+   * @return Um BulkExporter que lê pela fonte de conexões de {@link DB#getConnectionProvider()}.
+   */
+  public static BulkExporter createBulkExporter() {
+    BulkExportOptions options = BulkExportOptions.fromProperties(DB.getProperties());
+    return new BulkExporter(DB.getConnectionProvider(),
+        options.workers(Math.min(options.getWorkers(), DB.getConnectionPool().getMaxSize())));
+  }
+
+  /**
+   * Retorna o buffer de updates de vendedores compartilhado pelos DAOs, para gravá-lo com
+   * {@link WriteBehindSellerDao#flush()} ou consultar métricas.
+   *
+   * @return O buffer, ou null se {@code writeBehind.enabled} estiver desligado.
+   */
+  public static WriteBehindSellerDao getSellerWriteBuffer() {
+    return writeBehindEnabled() ? WriteBehind.SELLERS : null;
+  }
+
+  /**
+   * Retorna o DAO de vendedores sem cache nem agrupamento: o buffer compartilhado, com write-behind
+   * ligado, ou um novo SellerDaoJDBC.
+   */
+  private static SellerDao baseSellerDao() {
+    return writeBehindEnabled() ? WriteBehind.SELLERS : sellerDaoJdbc();
+  }
+
+  private static SellerDaoJDBC sellerDaoJdbc() {
+    return new SellerDaoJDBC(DB.getConnectionProvider(), batchSize(), fetchSize(), optimisticLocking());
+  }
+
+  /**
+   * O DAO que grava o buffer de write-behind: sem conferência de versão, já que as cópias do buffer
+   * não guardam a versão lida.
+   */
+  private static SellerDaoJDBC lastWriteWinsSellerDao() {
+    return new SellerDaoJDBC(DB.getConnectionProvider(), batchSize(), fetchSize(), false);
+  }
+
+  private static DepartmentDaoJDBC departmentDaoJdbc() {
+    return new DepartmentDaoJDBC(DB.getConnectionProvider(), batchSize(), optimisticLocking());
+  }
+
+  /**
+   * Lê o tamanho dos blocos das operações em lote ({@code dao.batchSize} em db.properties).
+   *
+   * @return O número máximo de registros por bloco.
+   */
+  private static int batchSize() {
+    return DB.getIntProperty("dao.batchSize", SellerDaoJDBC.DEFAULT_BATCH_SIZE);
+  }
+
+  private static int fetchSize() {
+    return DB.getIntProperty("dao.fetchSize", SellerDaoJDBC.DEFAULT_FETCH_SIZE);
+  }
+
+  private static boolean cacheEnabled() {
+    return Boolean.parseBoolean(DB.getProperties().getProperty("cache.enabled", "false"));
+  }
+
+  private static boolean loaderEnabled() {
+    return Boolean.parseBoolean(DB.getProperties().getProperty("loader.enabled", "false"));
+  }
+
+  private static boolean optimisticLocking() {
+    return Boolean.parseBoolean(DB.getProperties().getProperty("dao.optimisticLocking", "false"));
+  }
+
+  private static boolean writeBehindEnabled() {
+    return Boolean.parseBoolean(DB.getProperties().getProperty("writeBehind.enabled", "false"));
+  }
+
+  /**
+   * Executor compartilhado pelos DAOs assíncronos, criado na primeira utilização.
+   */
+  private static class AsyncExecutor {
+    private static final VirtualThreadExecutor INSTANCE =
+        new VirtualThreadExecutor(DB.getConnectionPool().getMaxSize());
+  }
+
+  /**
+   * Loaders de findById, criados na primeira utilização a partir de db.properties.
+   */
+  private static class Loaders {
+    private static final BatchLoader<Integer, Seller> SELLERS = new BatchLoader<>("seller",
+        baseSellerDao()::findByIds,
+        DB.getIntProperty("loader.windowMicros", 2_000),
+        DB.getIntProperty("loader.maxBatchSize", 100));
+
+    private static final BatchLoader<Integer, Department> DEPARTMENTS = new BatchLoader<>("department",
+        departmentDaoJdbc()::findByIds,
+        DB.getIntProperty("loader.windowMicros", 2_000),
+        DB.getIntProperty("loader.maxBatchSize", 100));
+  }
+
+  /**
+   * Buffer de updates de vendedores, criado na primeira utilização a partir de db.properties. Um
+   * shutdown hook grava o que restou no buffer quando a JVM termina.
+   */
+  private static class WriteBehind {
+    private static final WriteBehindSellerDao SELLERS = WriteBehindSellerDao.start(lastWriteWinsSellerDao(),
+        DB.getIntProperty("writeBehind.maxBuffered", 10_000),
+        DB.getIntProperty("writeBehind.flushSize", batchSize()),
+        DB.getIntProperty("writeBehind.flushIntervalMs", 200),
+        DB.getIntProperty("writeBehind.offerTimeoutMs", 5_000));
+
+    static {
+      if (cacheEnabled()) {
+        // Consultas em cache lidas antes da gravação do buffer mostrariam os valores antigos até o TTL.
+        SELLERS.addFlushListener(() -> Caches.QUERIES.invalidateTable(CachingSellerDao.TABLE));
+      }
+      Runtime.getRuntime().addShutdownHook(new Thread(SELLERS::close, "dao-write-behind-drain"));
+    }
+  }
+
+  /**
+   * Caches de entidades, criados na primeira utilização a partir de db.properties.
+   */
+  private static class Caches {
+    private static final EntityCache<Integer, Seller> SELLERS = new EntityCache<>("seller",
+        DB.getIntProperty("cache.seller.maxSize", 10_000),
+        DB.getIntProperty("cache.seller.ttlMs", 60_000));
+
+    private static final EntityCache<Integer, Department> DEPARTMENTS = new EntityCache<>("department",
+        DB.getIntProperty("cache.department.maxSize", 1_000),
+        DB.getIntProperty("cache.department.ttlMs", 600_000));
+
+    private static final QueryCache QUERIES = new QueryCache("queries",
+        DB.getIntProperty("cache.query.maxBytes", 64 << 20),
+        DB.getIntProperty("cache.query.ttlMs", 60_000));
   }
 }
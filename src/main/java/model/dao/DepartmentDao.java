@@ -2,7 +2,9 @@ package model.dao;
 
 import model.entities.Department;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Esta interface define métodos para acessar e manipular dados de departamentos (Department) no banco de dados.
@@ -29,6 +31,67 @@ public interface DepartmentDao {
    */
   void deleteById(Integer id);
 
+  /**
+   * Remove um departamento do banco de dados somente se a sua versão no banco for a informada.
+   *
+   * @param id      O ID do departamento a ser removido do banco de dados.
+   * @param version A versão lida do departamento; com null, a versão não é conferida.
+   * @throws database.DbConcurrencyException Lançada se o departamento foi alterado ou removido depois de lido.
+   */
+  void deleteById(Integer id, Integer version);
+
+  /**
+   * Insere vários departamentos no banco de dados usando JDBC batch, em blocos do tamanho padrão do DAO.
+   * Os IDs gerados são atribuídos a cada objeto, como em insert.
+   *
+   * @param list Os objetos Department a serem inseridos.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult insertAll(Collection<Department> list);
+
+  /**
+   * Insere vários departamentos no banco de dados usando JDBC batch, em blocos do tamanho informado.
+   *
+   * @param list      Os objetos Department a serem inseridos.
+   * @param chunkSize O número máximo de registros por bloco.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult insertAll(Collection<Department> list, int chunkSize);
+
+  /**
+   * Atualiza vários departamentos no banco de dados usando JDBC batch, em blocos do tamanho padrão do DAO.
+   *
+   * @param list Os objetos Department com as informações atualizadas.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult updateAll(Collection<Department> list);
+
+  /**
+   * Atualiza vários departamentos no banco de dados usando JDBC batch, em blocos do tamanho informado.
+   *
+   * @param list      Os objetos Department com as informações atualizadas.
+   * @param chunkSize O número máximo de registros por bloco.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult updateAll(Collection<Department> list, int chunkSize);
+
+  /**
+   * Remove vários departamentos do banco de dados com base em seus IDs, em blocos do tamanho padrão do DAO.
+   *
+   * @param ids Os IDs dos departamentos a serem removidos.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult deleteByIds(Collection<Integer> ids);
+
+  /**
+   * Remove vários departamentos do banco de dados com base em seus IDs, em blocos do tamanho informado.
+   *
+   * @param ids       Os IDs dos departamentos a serem removidos.
+   * @param chunkSize O número máximo de IDs por comando.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult deleteByIds(Collection<Integer> ids, int chunkSize);
+
   /**
    * Busca um departamento no banco de dados com base em seu ID.
    *
@@ -37,11 +100,31 @@ public interface DepartmentDao {
    */
   Department findById(Integer id);
 
+  /**
+   * Busca vários departamentos pelos IDs em poucas consultas, em vez de uma consulta por ID.
+   *
+   * @param ids Os IDs dos departamentos que se deseja buscar.
+   * @return Um mapa do ID para o departamento; IDs não encontrados ficam de fora do mapa.
+   */
+  Map<Integer, Department> findByIds(Collection<Integer> ids);
+
   /**
    * Recupera todos os departamentos existentes no banco de dados.
    *
    * @return Uma lista de objetos Department contendo todos os departamentos no banco de dados.
    */
   List<Department> findAll();
+
+  /**
+   * Busca uma página de departamentos ordenados por nome e ID, a partir de um cursor (keyset).
+   * Para a primeira página, informe afterId nulo; para as seguintes, informe o nome (mesmo que
+   * nulo) e o ID do último departamento da página anterior. Nomes nulos vêm antes dos demais.
+   *
+   * @param afterName O nome do último departamento da página anterior, que pode ser null.
+   * @param afterId   O ID do último departamento da página anterior, ou null para a primeira página.
+   * @param limit     O número máximo de departamentos na página.
+   * @return Uma lista com até limit objetos Department posteriores ao cursor.
+   */
+  List<Department> findPage(String afterName, Integer afterId, int limit);
 }
 
@@ -0,0 +1,81 @@
+package model.dao.Impl;
+
+import model.dao.AsyncDepartmentDao;
+import model.dao.BatchResult;
+import model.dao.DepartmentDao;
+import model.entities.Department;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementação de AsyncDepartmentDao que executa as operações de um DepartmentDao síncrono
+ * em threads virtuais, através de um {@link VirtualThreadExecutor}.
+ */
+public class AsyncDepartmentDaoImpl implements AsyncDepartmentDao {
+  private final DepartmentDao dao;
+  private final VirtualThreadExecutor executor;
+
+  /**
+   * Construtor da classe AsyncDepartmentDaoImpl.
+   *
+   * @param dao      O DAO síncrono que executa as operações.
+   * @param executor O executor que limita e agenda as operações.
+   */
+  public AsyncDepartmentDaoImpl(DepartmentDao dao, VirtualThreadExecutor executor) {
+    this.dao = dao;
+    this.executor = executor;
+  }
+
+  @Override
+  public CompletableFuture<Void> insert(Department obj) {
+    return executor.run(() -> dao.insert(obj));
+  }
+
+  @Override
+  public CompletableFuture<Void> update(Department obj) {
+    return executor.run(() -> dao.update(obj));
+  }
+
+  @Override
+  public CompletableFuture<Void> deleteById(Integer id) {
+    return executor.run(() -> dao.deleteById(id));
+  }
+
+  @Override
+  public CompletableFuture<BatchResult> insertAll(Collection<Department> list) {
+    return executor.submit(() -> dao.insertAll(list));
+  }
+
+  @Override
+  public CompletableFuture<BatchResult> updateAll(Collection<Department> list) {
+    return executor.submit(() -> dao.updateAll(list));
+  }
+
+  @Override
+  public CompletableFuture<BatchResult> deleteByIds(Collection<Integer> ids) {
+    return executor.submit(() -> dao.deleteByIds(ids));
+  }
+
+  @Override
+  public CompletableFuture<Department> findById(Integer id) {
+    return executor.submit(() -> dao.findById(id));
+  }
+
+  @Override
+  public CompletableFuture<Map<Integer, Department>> findByIds(Collection<Integer> ids) {
+    return executor.submit(() -> dao.findByIds(ids));
+  }
+
+  @Override
+  public CompletableFuture<List<Department>> findAll() {
+    return executor.submit(dao::findAll);
+  }
+
+  @Override
+  public CompletableFuture<List<Department>> findPage(String afterName, Integer afterId, int limit) {
+    return executor.submit(() -> dao.findPage(afterName, afterId, limit));
+  }
+}
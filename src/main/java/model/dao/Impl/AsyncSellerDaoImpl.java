@@ -0,0 +1,87 @@
+package model.dao.Impl;
+
+import model.dao.AsyncSellerDao;
+import model.dao.BatchResult;
+import model.dao.SellerDao;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementação de AsyncSellerDao que executa as operações de um SellerDao síncrono
+ * em threads virtuais, através de um {@link VirtualThreadExecutor}.
+ */
+public class AsyncSellerDaoImpl implements AsyncSellerDao {
+  private final SellerDao dao;
+  private final VirtualThreadExecutor executor;
+
+  /**
+   * Construtor da classe AsyncSellerDaoImpl.
+   *
+   * @param dao      O DAO síncrono que executa as operações.
+   * @param executor O executor que limita e agenda as operações.
+   */
+  public AsyncSellerDaoImpl(SellerDao dao, VirtualThreadExecutor executor) {
+    this.dao = dao;
+    this.executor = executor;
+  }
+
+  @Override
+  public CompletableFuture<Void> insert(Seller obj) {
+    return executor.run(() -> dao.insert(obj));
+  }
+
+  @Override
+  public CompletableFuture<Void> update(Seller obj) {
+    return executor.run(() -> dao.update(obj));
+  }
+
+  @Override
+  public CompletableFuture<Void> deleteById(Integer id) {
+    return executor.run(() -> dao.deleteById(id));
+  }
+
+  @Override
+  public CompletableFuture<BatchResult> insertAll(Collection<Seller> list) {
+    return executor.submit(() -> dao.insertAll(list));
+  }
+
+  @Override
+  public CompletableFuture<BatchResult> updateAll(Collection<Seller> list) {
+    return executor.submit(() -> dao.updateAll(list));
+  }
+
+  @Override
+  public CompletableFuture<BatchResult> deleteByIds(Collection<Integer> ids) {
+    return executor.submit(() -> dao.deleteByIds(ids));
+  }
+
+  @Override
+  public CompletableFuture<Seller> findById(Integer id) {
+    return executor.submit(() -> dao.findById(id));
+  }
+
+  @Override
+  public CompletableFuture<Map<Integer, Seller>> findByIds(Collection<Integer> ids) {
+    return executor.submit(() -> dao.findByIds(ids));
+  }
+
+  @Override
+  public CompletableFuture<List<Seller>> findAll() {
+    return executor.submit(dao::findAll);
+  }
+
+  @Override
+  public CompletableFuture<List<Seller>> findByDepartment(Department department) {
+    return executor.submit(() -> dao.findByDepartment(department));
+  }
+
+  @Override
+  public CompletableFuture<List<Seller>> findPage(String afterName, Integer afterId, int limit) {
+    return executor.submit(() -> dao.findPage(afterName, afterId, limit));
+  }
+}
@@ -0,0 +1,34 @@
+package model.dao.Impl;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Resolve a posição das colunas de um ResultSet a partir dos rótulos, uma vez por consulta.
+ *
+ * Os mapeadores de linhas guardam os índices resolvidos e leem cada linha com
+ * {@code rs.getXxx(int)}, evitando a busca por rótulo que o driver faria a cada coluna de cada linha.
+ */
+final class ColumnIndex {
+
+  private ColumnIndex() {
+  }
+
+  /**
+   * Busca a posição de uma coluna pelo rótulo, sem diferenciar maiúsculas de minúsculas.
+   *
+   * @param md    Os metadados do ResultSet.
+   * @param label O rótulo da coluna (nome ou alias do SELECT).
+   * @return A posição da coluna, a partir de 1.
+   * @throws SQLException Lançada se a coluna não fizer parte do resultado.
+   */
+  static int of(ResultSetMetaData md, String label) throws SQLException {
+    int count = md.getColumnCount();
+    for (int i = 1; i <= count; i++) {
+      if (label.equalsIgnoreCase(md.getColumnLabel(i))) {
+        return i;
+      }
+    }
+    throw new SQLException("Column '" + label + "' not found in result set");
+  }
+}
@@ -1,28 +1,86 @@
 package model.dao.Impl;
 
+import database.ConnectionProvider;
 import database.DB;
+import database.DbConcurrencyException;
 import database.DbException;
+import database.metrics.DaoMetrics;
+import database.metrics.OperationMetrics;
+import model.dao.BatchResult;
 import model.dao.DepartmentDao;
 import model.entities.Department;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementação concreta da interface DepartmentDao que interage com o banco de dados usando JDBC.
  * Esta classe é responsável por fornecer métodos para acesso e manipulação de dados de departamentos.
  */
 public class DepartmentDaoJDBC implements DepartmentDao {
-  private Connection conn;
+  /**
+   * Tamanho padrão dos blocos das operações em lote.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 500;
+
+  private static final String INSERT_SQL = "INSERT INTO department (Name) VALUES (?)";
+
+  private static final String UPDATE_SQL = "UPDATE department SET Name = ?, Version = Version + 1 WHERE Id = ?";
+
+  private static final String VERSIONED_UPDATE_SQL = UPDATE_SQL + " AND Version = ?";
+
+  private static final OperationMetrics INSERT_METRICS = DaoMetrics.operation("DepartmentDao.insert");
+  private static final OperationMetrics UPDATE_METRICS = DaoMetrics.operation("DepartmentDao.update");
+  private static final OperationMetrics DELETE_BY_ID_METRICS = DaoMetrics.operation("DepartmentDao.deleteById");
+  private static final OperationMetrics INSERT_ALL_METRICS = DaoMetrics.operation("DepartmentDao.insertAll");
+  private static final OperationMetrics UPDATE_ALL_METRICS = DaoMetrics.operation("DepartmentDao.updateAll");
+  private static final OperationMetrics DELETE_BY_IDS_METRICS = DaoMetrics.operation("DepartmentDao.deleteByIds");
+  private static final OperationMetrics FIND_BY_ID_METRICS = DaoMetrics.operation("DepartmentDao.findById");
+  private static final OperationMetrics FIND_BY_IDS_METRICS = DaoMetrics.operation("DepartmentDao.findByIds");
+  private static final OperationMetrics FIND_ALL_METRICS = DaoMetrics.operation("DepartmentDao.findAll");
+  private static final OperationMetrics FIND_PAGE_METRICS = DaoMetrics.operation("DepartmentDao.findPage");
+
+  private final ConnectionProvider provider;
+  private final int batchSize;
+  private final boolean optimisticLocking;
+
+  /**
+   * Construtor da classe DepartmentDaoJDBC que recebe a fonte de conexões de banco de dados.
+   * Cada operação obtém uma conexão da fonte e a devolve ao terminar.
+   *
+   * @param provider A fonte de conexões a ser usada para as operações de acesso a dados.
+   */
+  public DepartmentDaoJDBC(ConnectionProvider provider) {
+    this(provider, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Construtor da classe DepartmentDaoJDBC que recebe a fonte de conexões e o tamanho padrão dos blocos
+   * das operações em lote.
+   *
+   * @param provider  A fonte de conexões a ser usada para as operações de acesso a dados.
+   * @param batchSize O número máximo de registros por bloco em insertAll, updateAll e deleteByIds.
+   */
+  public DepartmentDaoJDBC(ConnectionProvider provider, int batchSize) {
+    this(provider, batchSize, false);
+  }
 
   /**
-   * Construtor da classe DepartmentDaoJDBC que recebe uma conexão de banco de dados.
+   * Construtor da classe DepartmentDaoJDBC que recebe a fonte de conexões, o tamanho padrão dos blocos
+   * das operações em lote e se as gravações conferem a versão.
    *
-   * @param conn A conexão de banco de dados a ser usada para as operações de acesso a dados.
+   * @param provider          A fonte de conexões a ser usada para as operações de acesso a dados.
+   * @param batchSize         O número máximo de registros por bloco em insertAll, updateAll e deleteByIds.
+   * @param optimisticLocking Se update e updateAll devem falhar quando a versão do departamento mudou no banco;
+   *                          nesse caso, os departamentos gravados precisam ter a versão lida.
    */
-  public DepartmentDaoJDBC(Connection conn) {
-    this.conn = conn;
+  public DepartmentDaoJDBC(ConnectionProvider provider, int batchSize, boolean optimisticLocking) {
+    this.provider = provider;
+    this.batchSize = batchSize;
+    this.optimisticLocking = optimisticLocking;
   }
 
   /**
@@ -33,15 +91,21 @@ public class DepartmentDaoJDBC implements DepartmentDao {
    */
   @Override
   public void insert(Department obj) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     try {
-      st = conn.prepareStatement(
-          "INSERT INTO department (Name) VALUE (?)",
-          Statement.RETURN_GENERATED_KEYS);
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
 
       st.setString(1, obj.getName());
 
       int rowsAffected = st.executeUpdate();
+      executed = System.nanoTime();
 
       if (rowsAffected > 0) {
         ResultSet rs = st.getGeneratedKeys();
@@ -50,43 +114,69 @@ public class DepartmentDaoJDBC implements DepartmentDao {
           obj.setId(id);
         }
         DB.closeResultSet(rs);
+        obj.setVersion(0);
+        obj.markClean();
       }
       else {
         throw new DbException("Unexpected error! No rows affected!");
       }
+      rows = rowsAffected;
     }
     catch (SQLException e) {
       throw new DbException(e.getMessage());
     }
     finally {
       DB.closeStatement(st);
+      DB.closeConnection(conn);
+      INSERT_METRICS.record(start, acquired, executed, rows);
     }
   }
 
   /**
    * update - Atualiza as informações de um departamento no banco de dados.
+   * Se o nome não mudou desde a leitura do departamento, o banco não é acessado. A versão do
+   * departamento é incrementada.
    *
    * @param obj O objeto Department com as informações atualizadas a serem persistidas.
-   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   * @throws DbException               Lançada em caso de erro ao acessar o banco de dados.
+   * @throws DbConcurrencyException    Lançada, com optimisticLocking, se o departamento foi alterado
+   *                                   ou removido depois de lido.
+   * @throws IllegalArgumentException  Lançada, com optimisticLocking, se o departamento não tem versão.
    */
   @Override
   public void update(Department obj) {
+    if (!obj.isDirty()) {
+      return;
+    }
+    requireVersion(obj);
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     try {
-      st = conn.prepareStatement(
-          "UPDATE department SET Name = ? "
-              + "WHERE Id = ?", Statement.RETURN_GENERATED_KEYS
-      );
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement(optimisticLocking ? VERSIONED_UPDATE_SQL : UPDATE_SQL);
 
-      st.setString(1, obj.getName());
-      st.setInt(2, obj.getId());
-      st.executeUpdate();
+      bindUpdate(st, obj);
+      rows = st.executeUpdate();
+      executed = System.nanoTime();
+      if (isConflict(rows)) {
+        rows = OperationMetrics.FAILED;
+        throw new DbConcurrencyException("Department " + obj.getId() + " was modified or deleted by another operation"
+            + " (expected version " + obj.getVersion() + ")", List.of(obj.getId()));
+      }
+      written(obj);
     }
     catch (SQLException e) {
       throw new DbException(e.getMessage());
     }
     finally {
       DB.closeStatement(st);
+      DB.closeConnection(conn);
+      UPDATE_METRICS.record(start, acquired, executed, rows);
     }
   }
 
@@ -98,21 +188,174 @@ public class DepartmentDaoJDBC implements DepartmentDao {
    */
   @Override
   public void deleteById(Integer id) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     try {
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
       st = conn.prepareStatement(
           "DELETE FROM department WHERE Id = ?");
       st.setInt(1, id);
-      st.executeUpdate();
+      rows = st.executeUpdate();
+      executed = System.nanoTime();
     }
     catch (SQLException e) {
       throw new DbException(e.getMessage());
     }
     finally {
       DB.closeStatement(st);
+      DB.closeConnection(conn);
+      DELETE_BY_ID_METRICS.record(start, acquired, executed, rows);
     }
   }
 
+  /**
+   * deleteById - Remove um departamento somente se a versão no banco for a informada.
+   *
+   * @param id      O ID do departamento a ser excluído do banco de dados.
+   * @param version A versão lida do departamento; com null, o departamento é removido sem conferência.
+   * @throws DbException            Lançada em caso de erro ao acessar o banco de dados.
+   * @throws DbConcurrencyException Lançada se o departamento foi alterado ou removido depois de lido.
+   */
+  @Override
+  public void deleteById(Integer id, Integer version) {
+    if (version == null) {
+      deleteById(id);
+      return;
+    }
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    try {
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement("DELETE FROM department WHERE Id = ? AND Version = ?");
+      st.setInt(1, id);
+      st.setInt(2, version);
+      rows = st.executeUpdate();
+      executed = System.nanoTime();
+      if (rows == 0) {
+        rows = OperationMetrics.FAILED;
+        throw new DbConcurrencyException("Department " + id + " was modified or deleted by another operation"
+            + " (expected version " + version + ")", List.of(id));
+      }
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+      DELETE_BY_ID_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * insertAll - Insere vários departamentos usando JDBC batch, em blocos de {@code batchSize} registros.
+   *
+   * @param list Os objetos Department a serem inseridos; recebem os IDs gerados.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão ou preparar o comando.
+   */
+  @Override
+  public BatchResult insertAll(Collection<Department> list) {
+    return insertAll(list, batchSize);
+  }
+
+  /**
+   * insertAll - Insere vários departamentos usando JDBC batch, em blocos do tamanho informado.
+   * Cada bloco é confirmado separadamente; os IDs gerados são atribuídos após a confirmação.
+   *
+   * @param list      Os objetos Department a serem inseridos; recebem os IDs gerados.
+   * @param chunkSize O número máximo de registros por bloco.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão ou preparar o comando.
+   */
+  @Override
+  public BatchResult insertAll(Collection<Department> list, int chunkSize) {
+    return JdbcBatch.executeBatch(provider, INSERT_ALL_METRICS, INSERT_SQL, list, chunkSize,
+        (st, obj) -> st.setString(1, obj.getName()), (obj, id) -> {
+          obj.setId(id);
+          obj.setVersion(0);
+          obj.markClean();
+        });
+  }
+
+  /**
+   * updateAll - Atualiza vários departamentos usando JDBC batch, em blocos de {@code batchSize} registros.
+   *
+   * @param list Os objetos Department com as informações atualizadas.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão ou preparar o comando.
+   */
+  @Override
+  public BatchResult updateAll(Collection<Department> list) {
+    return updateAll(list, batchSize);
+  }
+
+  /**
+   * updateAll - Atualiza vários departamentos usando JDBC batch, em blocos do tamanho informado.
+   * Departamentos sem alterações são ignorados; os índices das falhas no resultado referem-se aos
+   * departamentos restantes, na ordem da coleção.
+   *
+   * Com optimisticLocking, um bloco em que algum departamento teve a versão alterada no banco é
+   * desfeito e registrado como falha, com SQLState 40001 e os IDs em conflito na mensagem; os
+   * departamentos do bloco continuam com as alterações pendentes. Dentro de uma transação, o
+   * conflito é lançado.
+   *
+   * @param list      Os objetos Department com as informações atualizadas.
+   * @param chunkSize O número máximo de registros por bloco.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException               Lançada em caso de erro ao obter a conexão ou preparar o comando.
+   * @throws DbConcurrencyException    Lançada se algum departamento foi alterado ou removido depois de
+   *                                   lido e a conexão está em uma transação do chamador.
+   * @throws IllegalArgumentException  Lançada, com optimisticLocking, se algum departamento alterado
+   *                                   não tem versão; nesse caso nada é gravado.
+   */
+  @Override
+  public BatchResult updateAll(Collection<Department> list, int chunkSize) {
+    List<Department> dirty = list.stream().filter(Department::isDirty).toList();
+    dirty.forEach(this::requireVersion);
+    return JdbcBatch.executeBatch(provider, UPDATE_ALL_METRICS,
+        optimisticLocking ? VERSIONED_UPDATE_SQL : UPDATE_SQL, dirty, chunkSize, this::bindUpdate, null,
+        (obj, count) -> written(obj), (obj, count) -> isConflict(count) ? obj.getId() : null);
+  }
+
+  /**
+   * deleteByIds - Remove vários departamentos com comandos {@code DELETE ... WHERE Id IN (...)},
+   * em blocos de {@code batchSize} IDs.
+   *
+   * @param ids Os IDs dos departamentos a serem removidos.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão.
+   */
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids) {
+    return deleteByIds(ids, batchSize);
+  }
+
+  /**
+   * deleteByIds - Remove vários departamentos com comandos {@code DELETE ... WHERE Id IN (...)},
+   * em blocos do tamanho informado. Blocos com departamentos ainda referenciados por vendedores
+   * falham por integridade e aparecem nas falhas do resultado.
+   *
+   * @param ids       Os IDs dos departamentos a serem removidos.
+   * @param chunkSize O número máximo de IDs por comando.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão.
+   */
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids, int chunkSize) {
+    return JdbcBatch.executeInChunks(provider, DELETE_BY_IDS_METRICS, "DELETE FROM department WHERE Id IN ", ids, chunkSize);
+  }
+
   /**
    * findById - Busca um departamento no banco de dados com base em seu ID.
    *
@@ -122,18 +365,28 @@ public class DepartmentDaoJDBC implements DepartmentDao {
    */
   @Override
   public Department findById(Integer id) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     ResultSet rs = null;
 
     try {
-      st = conn.prepareStatement("SELECT * FROM department WHERE Id = ?");
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement("SELECT " + DepartmentRowMapper.COLUMNS + " FROM department WHERE Id = ?");
       st.setInt(1, id);
       rs = st.executeQuery();
+      executed = System.nanoTime();
 
       if (rs.next()) {
-        Department dep = instantiateDepartment(rs);
+        Department dep = DepartmentRowMapper.of(rs).map(rs);
+        rows = 1;
         return dep;
       }
+      rows = 0;
       return null;
     }
     catch (SQLException e) {
@@ -142,24 +395,24 @@ public class DepartmentDaoJDBC implements DepartmentDao {
     finally {
       DB.closeStatement(st);
       DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      FIND_BY_ID_METRICS.record(start, acquired, executed, rows);
     }
   }
 
   /**
-   * instantiateDepartment - Cria e retorna um objeto Department a partir dos dados obtidos de um ResultSet.
+   * findByIds - Busca vários departamentos com consultas {@code WHERE Id IN (...)} de até
+   * {@code batchSize} IDs cada, em uma única conexão.
    *
-   * Este método é responsável por criar um objeto Department com base nas informações
-   * recuperadas de um ResultSet, incluindo o ID e o nome do departamento.
-   *
-   * @param rs O ResultSet que contém os dados do departamento.
-   * @return Um objeto Department criado a partir dos dados no ResultSet.
-   * @throws SQLException Lançada em caso de erro ao acessar dados no ResultSet.
+   * @param ids Os IDs dos departamentos que se deseja buscar.
+   * @return Um mapa do ID para o departamento; IDs não encontrados ficam de fora do mapa.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
    */
-  private Department instantiateDepartment(ResultSet rs) throws SQLException {
-    return new Department(
-        rs.getInt("Id"),
-        rs.getString("Name")
-    );
+  @Override
+  public Map<Integer, Department> findByIds(Collection<Integer> ids) {
+    return JdbcBatch.selectInChunks(provider, FIND_BY_IDS_METRICS,
+        "SELECT " + DepartmentRowMapper.COLUMNS + " FROM department WHERE Id IN ",
+        ids, batchSize, DepartmentRowMapper::of, Department::getId);
   }
 
   /**
@@ -170,16 +423,99 @@ public class DepartmentDaoJDBC implements DepartmentDao {
    */
   @Override
   public List<Department> findAll() {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    ResultSet rs = null;
+    try {
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement("SELECT " + DepartmentRowMapper.COLUMNS + " FROM department");
+      rs = st.executeQuery();
+      executed = System.nanoTime();
+      List<Department> list = new ArrayList<>();
+      DepartmentRowMapper mapper = DepartmentRowMapper.of(rs);
+
+      while (rs.next()) {
+        list.add(mapper.map(rs));
+      }
+      rows = list.size();
+      return list;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      FIND_ALL_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * findPage - Busca uma página de departamentos ordenados por nome e ID a partir de um cursor.
+   *
+   * Usa um predicado de busca ({@code Name > ? OR (Name = ? AND Id > ?)}) em vez de OFFSET, apoiado
+   * pelo índice (Name, Id), de modo que páginas profundas custam o mesmo que a primeira. Nomes nulos
+   * vêm antes de todos os outros, como no índice; se o cursor tem nome nulo, a página continua pelos
+   * nomes nulos de ID maior e então pelos nomes não nulos.
+   *
+   * @param afterName O nome do último departamento da página anterior, que pode ser null.
+   * @param afterId   O ID do último departamento da página anterior, ou null para a primeira página.
+   * @param limit     O número máximo de departamentos na página.
+   * @return Uma lista com até limit objetos Department posteriores ao cursor.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public List<Department> findPage(String afterName, Integer afterId, int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be positive: " + limit);
+    }
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     ResultSet rs = null;
     try {
-      st = conn.prepareStatement("SELECT * FROM department");
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      if (afterId == null) {
+        st = conn.prepareStatement("SELECT " + DepartmentRowMapper.COLUMNS + " FROM department ORDER BY Name, Id LIMIT ?");
+        st.setInt(1, limit);
+      }
+      else if (afterName == null) {
+        st = conn.prepareStatement(
+            "SELECT " + DepartmentRowMapper.COLUMNS + " FROM department "
+                + "WHERE (Name IS NULL AND Id > ?) OR Name IS NOT NULL "
+                + "ORDER BY Name, Id LIMIT ?");
+        st.setInt(1, afterId);
+        st.setInt(2, limit);
+      }
+      else {
+        st = conn.prepareStatement(
+            "SELECT " + DepartmentRowMapper.COLUMNS + " FROM department "
+                + "WHERE Name > ? OR (Name = ? AND Id > ?) "
+                + "ORDER BY Name, Id LIMIT ?");
+        st.setString(1, afterName);
+        st.setString(2, afterName);
+        st.setInt(3, afterId);
+        st.setInt(4, limit);
+      }
       rs = st.executeQuery();
+      executed = System.nanoTime();
       List<Department> list = new ArrayList<>();
+      DepartmentRowMapper mapper = DepartmentRowMapper.of(rs);
 
       while (rs.next()) {
-        list.add(instantiateDepartment(rs));
+        list.add(mapper.map(rs));
       }
+      rows = list.size();
       return list;
     }
     catch (SQLException e) {
@@ -188,6 +524,44 @@ public class DepartmentDaoJDBC implements DepartmentDao {
     finally {
       DB.closeStatement(st);
       DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      FIND_PAGE_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * Associa o nome, o ID e, com optimisticLocking, a versão esperada aos parâmetros do UPDATE.
+   */
+  private void bindUpdate(PreparedStatement st, Department obj) throws SQLException {
+    st.setString(1, obj.getName());
+    st.setInt(2, obj.getId());
+    if (optimisticLocking) {
+      st.setInt(3, obj.getVersion());
+    }
+  }
+
+  /**
+   * Com optimisticLocking, a versão lida é obrigatória: sem ela, a conferência não teria com o que
+   * comparar e a gravação poderia sobrescrever a de outra operação.
+   */
+  private void requireVersion(Department obj) {
+    if (optimisticLocking && obj.getVersion() == null) {
+      throw new IllegalArgumentException("Department " + obj.getId() + " has no version; read it from the database"
+          + " before updating it with optimistic locking");
+    }
+  }
+
+  private boolean isConflict(int rows) {
+    return optimisticLocking && rows == 0;
+  }
+
+  /**
+   * Atualiza o objeto após uma gravação: avança a versão, acompanhando o banco, e limpa as alterações.
+   */
+  private static void written(Department obj) {
+    if (obj.getVersion() != null) {
+      obj.setVersion(obj.getVersion() + 1);
     }
+    obj.markClean();
   }
 }
@@ -0,0 +1,47 @@
+package model.dao.Impl;
+
+import model.entities.Department;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Converte linhas com as colunas {@code Id, Name, Version} da tabela department em objetos Department.
+ * Os índices das colunas são resolvidos na criação, uma vez por consulta.
+ */
+final class DepartmentRowMapper implements ResultSetStream.RowMapper<Department> {
+  /**
+   * Colunas lidas pelo mapeador, na ordem usada pelos SELECTs de DepartmentDaoJDBC.
+   */
+  static final String COLUMNS = "department.Id, department.Name, department.Version";
+
+  private final int id;
+  private final int name;
+  private final int version;
+
+  private DepartmentRowMapper(ResultSetMetaData md) throws SQLException {
+    this.id = ColumnIndex.of(md, "Id");
+    this.name = ColumnIndex.of(md, "Name");
+    this.version = ColumnIndex.of(md, "Version");
+  }
+
+  /**
+   * Cria um mapeador para o ResultSet informado.
+   *
+   * @param rs O ResultSet da consulta.
+   * @return Um mapeador com os índices das colunas já resolvidos.
+   * @throws SQLException Lançada se alguma coluna esperada não fizer parte do resultado.
+   */
+  static DepartmentRowMapper of(ResultSet rs) throws SQLException {
+    return new DepartmentRowMapper(rs.getMetaData());
+  }
+
+  @Override
+  public Department map(ResultSet rs) throws SQLException {
+    Department obj = new Department(rs.getInt(id), rs.getString(name));
+    obj.setVersion(rs.getInt(version));
+    obj.markClean();
+    return obj;
+  }
+}
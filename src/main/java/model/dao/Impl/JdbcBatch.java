@@ -0,0 +1,546 @@
+package model.dao.Impl;
+
+import database.ConnectionProvider;
+import database.DB;
+import database.DbConcurrencyException;
+import database.DbException;
+import database.metrics.OperationMetrics;
+import model.dao.BatchResult;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Rotinas compartilhadas pelos DAOs JDBC para executar operações em lote divididas em blocos.
+ *
+ * Em auto-commit, cada bloco é executado em sua própria transação: um bloco que falha é desfeito
+ * e registrado no {@link BatchResult}, e os blocos seguintes continuam. Se a conexão já estiver
+ * em uma transação controlada pelo chamador, a primeira falha é lançada como {@link DbException}
+ * para que a transação inteira seja desfeita.
+ *
+ * Um bloco com conflito de versão (comando que não alterou a linha esperada) também é desfeito e
+ * registrado como falha, com SQLState 40001; dentro de uma transação do chamador, o conflito é
+ * lançado como {@link DbConcurrencyException}.
+ */
+final class JdbcBatch {
+
+  /**
+   * Associa os campos de um objeto aos parâmetros de um PreparedStatement.
+   */
+  @FunctionalInterface
+  interface Binder<T> {
+    void bind(PreparedStatement st, T obj) throws SQLException;
+  }
+
+  /**
+   * Recebe a chave gerada pelo banco para um objeto inserido.
+   */
+  @FunctionalInterface
+  interface KeyHandler<T> {
+    void accept(T obj, int id);
+  }
+
+  /**
+   * Recebe o número de linhas afetadas pelo comando de um objeto, ou {@link Statement#SUCCESS_NO_INFO}.
+   */
+  @FunctionalInterface
+  interface CountHandler<T> {
+    void accept(T obj, int count);
+  }
+
+  /**
+   * Confere, antes do commit do bloco, se o comando de um objeto o gravou.
+   */
+  @FunctionalInterface
+  interface ConflictCheck<T> {
+    /**
+     * @return O ID do objeto se ele não foi gravado por conflito de versão, ou null.
+     */
+    Integer conflictId(T obj, int count);
+  }
+
+  /**
+   * Associa os campos de um objeto aos parâmetros de uma linha de um comando de várias linhas.
+   */
+  @FunctionalInterface
+  interface RowBinder<T> {
+    void bind(PreparedStatement st, int firstIndex, T obj) throws SQLException;
+  }
+
+  /**
+   * Recebe os objetos de um bloco confirmado e o número de linhas afetadas pelo comando do bloco.
+   */
+  @FunctionalInterface
+  interface ChunkHandler<T> {
+    void accept(List<T> chunk, int affected);
+  }
+
+  /**
+   * Cria o mapeador de linhas a partir do primeiro ResultSet de uma consulta em blocos.
+   */
+  @FunctionalInterface
+  interface MapperFactory<T> {
+    ResultSetStream.RowMapper<T> create(ResultSet rs) throws SQLException;
+  }
+
+  private JdbcBatch() {
+  }
+
+  /**
+   * Executa o mesmo comando SQL para cada objeto, usando addBatch/executeBatch em blocos.
+   *
+   * @param provider   A fonte de conexões.
+   * @param metrics    As métricas da operação.
+   * @param sql        O comando SQL parametrizado.
+   * @param objs       Os objetos a serem gravados.
+   * @param chunkSize  O número máximo de objetos por bloco.
+   * @param binder     Associa cada objeto aos parâmetros do comando.
+   * @param keyHandler Recebe as chaves geradas, ou null se o comando não gera chaves.
+   * @return O resultado da operação, com as falhas por bloco.
+   * @throws DbException Lançada se não for possível obter a conexão ou preparar o comando,
+   *                     ou na primeira falha quando o chamador controla a transação.
+   */
+  static <T> BatchResult executeBatch(ConnectionProvider provider, OperationMetrics metrics, String sql,
+                                      Collection<T> objs, int chunkSize, Binder<T> binder, KeyHandler<T> keyHandler) {
+    return executeBatch(provider, metrics, sql, objs, chunkSize, binder, keyHandler, null);
+  }
+
+  /**
+   * Executa o mesmo comando SQL para cada objeto, como em
+   * {@link #executeBatch(ConnectionProvider, OperationMetrics, String, Collection, int, Binder, KeyHandler)},
+   * informando ainda o número de linhas afetadas por objeto nos blocos confirmados.
+   *
+   * @param countHandler Recebe as linhas afetadas por objeto, ou null.
+   */
+  static <T> BatchResult executeBatch(ConnectionProvider provider, OperationMetrics metrics, String sql,
+                                      Collection<T> objs, int chunkSize, Binder<T> binder, KeyHandler<T> keyHandler,
+                                      CountHandler<T> countHandler) {
+    return executeBatch(provider, metrics, sql, objs, chunkSize, binder, keyHandler, countHandler, null);
+  }
+
+  /**
+   * Executa o mesmo comando SQL para cada objeto, como em
+   * {@link #executeBatch(ConnectionProvider, OperationMetrics, String, Collection, int, Binder, KeyHandler, CountHandler)},
+   * desfazendo os blocos em que algum objeto não foi gravado por conflito de versão.
+   *
+   * @param conflictCheck Identifica os objetos em conflito, ou null.
+   * @throws DbConcurrencyException Lançada no primeiro conflito quando o chamador controla a transação.
+   */
+  static <T> BatchResult executeBatch(ConnectionProvider provider, OperationMetrics metrics, String sql,
+                                      Collection<T> objs, int chunkSize, Binder<T> binder, KeyHandler<T> keyHandler,
+                                      CountHandler<T> countHandler, ConflictCheck<T> conflictCheck) {
+    return executeGroupedBatch(provider, metrics, obj -> sql, objs, chunkSize, binder, keyHandler, countHandler,
+        conflictCheck);
+  }
+
+  /**
+   * Executa para cada objeto o comando escolhido por {@code sqlOf}, como em
+   * {@link #executeBatch(ConnectionProvider, OperationMetrics, String, Collection, int, Binder, KeyHandler, CountHandler, ConflictCheck)}.
+   * Dentro de um bloco, os objetos de cada comando vão em um JDBC batch próprio; o bloco continua
+   * sendo confirmado ou desfeito por inteiro, e os índices do resultado seguem a ordem da coleção.
+   *
+   * @param sqlOf Escolhe o comando SQL de cada objeto; objetos com o mesmo comando compartilham o batch.
+   */
+  static <T> BatchResult executeGroupedBatch(ConnectionProvider provider, OperationMetrics metrics,
+                                             Function<T, String> sqlOf, Collection<T> objs, int chunkSize,
+                                             Binder<T> binder, KeyHandler<T> keyHandler, CountHandler<T> countHandler,
+                                             ConflictCheck<T> conflictCheck) {
+    List<T> list = new ArrayList<>(objs);
+    BatchResult result = new BatchResult(list.size());
+    if (list.isEmpty()) {
+      return result;
+    }
+    checkChunkSize(chunkSize);
+    List<String> sqls = new ArrayList<>(list.size());
+    for (T obj : list) {
+      sqls.add(sqlOf.apply(obj));
+    }
+
+    long start = System.nanoTime();
+    long acquired = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+    try {
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      for (String sql : sqls) {
+        if (!statements.containsKey(sql)) {
+          statements.put(sql, keyHandler != null
+              ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+              : conn.prepareStatement(sql));
+        }
+      }
+      boolean ownTransaction = conn.getAutoCommit();
+      if (ownTransaction) {
+        conn.setAutoCommit(false);
+      }
+      try {
+        int chunk = 0;
+        for (int from = 0; from < list.size(); from += chunkSize, chunk++) {
+          int to = Math.min(list.size(), from + chunkSize);
+          try {
+            int[] counts = new int[to - from];
+            int[] keys = keyHandler != null ? new int[to - from] : null;
+            for (Map.Entry<String, PreparedStatement> entry : statements.entrySet()) {
+              executeGroup(entry.getValue(), entry.getKey(), list, sqls, from, to, binder, counts, keys);
+            }
+            if (conflictCheck != null) {
+              checkConflicts(list, from, counts, conflictCheck, ownTransaction);
+            }
+            if (ownTransaction) {
+              conn.commit();
+            }
+            if (keys != null) {
+              for (int i = 0; i < keys.length; i++) {
+                keyHandler.accept(list.get(from + i), keys[i]);
+              }
+            }
+            if (countHandler != null) {
+              for (int i = 0; i < counts.length; i++) {
+                countHandler.accept(list.get(from + i), counts[i]);
+              }
+            }
+            result.chunkSucceeded(counts);
+          }
+          catch (SQLException e) {
+            for (PreparedStatement st : statements.values()) {
+              st.clearBatch();
+            }
+            if (!ownTransaction) {
+              throw new DbException(e.getMessage());
+            }
+            conn.rollback();
+            result.chunkFailed(chunk, from, to, e);
+          }
+        }
+      }
+      finally {
+        if (ownTransaction) {
+          conn.setAutoCommit(true);
+        }
+      }
+      rows = result.getRowsAffected();
+      return result;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      for (PreparedStatement st : statements.values()) {
+        DB.closeStatement(st);
+      }
+      DB.closeConnection(conn);
+      metrics.record(start, acquired, acquired == 0 ? 0 : System.nanoTime(), rows);
+    }
+  }
+
+  /**
+   * Envia em um único batch os objetos do bloco [from, to) cujo comando é {@code sql}, guardando as
+   * contagens (e as chaves geradas) nas posições desses objetos no bloco.
+   */
+  private static <T> void executeGroup(PreparedStatement st, String sql, List<T> list, List<String> sqls, int from,
+                                       int to, Binder<T> binder, int[] counts, int[] keys) throws SQLException {
+    int size = 0;
+    for (int i = from; i < to; i++) {
+      if (sqls.get(i).equals(sql)) {
+        binder.bind(st, list.get(i));
+        st.addBatch();
+        size++;
+      }
+    }
+    if (size == 0) {
+      return;
+    }
+    int[] groupCounts = st.executeBatch();
+    int[] groupKeys = keys != null ? readKeys(st, size) : null;
+    int j = 0;
+    for (int i = from; i < to; i++) {
+      if (sqls.get(i).equals(sql)) {
+        counts[i - from] = groupCounts[j];
+        if (groupKeys != null) {
+          keys[i - from] = groupKeys[j];
+        }
+        j++;
+      }
+    }
+  }
+
+  /**
+   * Falha o bloco se algum objeto não foi gravado por conflito de versão: com uma SQLException, para
+   * que o bloco seja desfeito e registrado, ou com DbConcurrencyException na transação do chamador.
+   */
+  private static <T> void checkConflicts(List<T> list, int from, int[] counts, ConflictCheck<T> conflictCheck,
+                                         boolean ownTransaction) throws SQLException {
+    List<Integer> conflicts = new ArrayList<>();
+    for (int i = 0; i < counts.length; i++) {
+      Integer id = conflictCheck.conflictId(list.get(from + i), counts[i]);
+      if (id != null) {
+        conflicts.add(id);
+      }
+    }
+    if (conflicts.isEmpty()) {
+      return;
+    }
+    String message = conflicts.size() + " rows were modified or deleted by another operation and were not updated: "
+        + conflicts;
+    if (!ownTransaction) {
+      throw new DbConcurrencyException(message, conflicts);
+    }
+    throw new SQLException(message, "40001");
+  }
+
+  /**
+   * Grava cada bloco de objetos com um único comando de várias linhas,
+   * {@code sqlPrefix (...), (...) sqlSuffix}, que é atômico mesmo em auto-commit.
+   *
+   * @param provider      A fonte de conexões.
+   * @param metrics       As métricas da operação.
+   * @param sqlPrefix     O início do comando, terminando em "VALUES ".
+   * @param paramsPerRow  O número de parâmetros de cada linha.
+   * @param sqlSuffix     O fim do comando, após a última linha (pode ser vazio).
+   * @param list          Os objetos a serem gravados.
+   * @param chunkSize     O número máximo de objetos por comando.
+   * @param result        O resultado a ser preenchido com as falhas por bloco.
+   * @param binder        Associa cada objeto aos parâmetros da sua linha.
+   * @param handler       Recebe cada bloco confirmado e as linhas afetadas; deve registrá-lo no resultado.
+   * @throws DbException Lançada se não for possível obter a conexão,
+   *                     ou na primeira falha quando o chamador controla a transação.
+   */
+  static <T> void executeMultiRow(ConnectionProvider provider, OperationMetrics metrics, String sqlPrefix,
+                                  int paramsPerRow, String sqlSuffix, List<T> list, int chunkSize, BatchResult result,
+                                  RowBinder<T> binder, ChunkHandler<T> handler) {
+    if (list.isEmpty()) {
+      return;
+    }
+    checkChunkSize(chunkSize);
+    String row = placeholders(paramsPerRow);
+
+    long start = System.nanoTime();
+    long acquired = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    try {
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      boolean ownTransaction = conn.getAutoCommit();
+      int chunk = 0;
+      for (int from = 0; from < list.size(); from += chunkSize, chunk++) {
+        int to = Math.min(list.size(), from + chunkSize);
+        StringBuilder sql = new StringBuilder(sqlPrefix.length() + (to - from) * (row.length() + 2) + sqlSuffix.length())
+            .append(sqlPrefix);
+        for (int i = from; i < to; i++) {
+          sql.append(i == from ? "" : ", ").append(row);
+        }
+        sql.append(sqlSuffix);
+        PreparedStatement st = null;
+        try {
+          st = conn.prepareStatement(sql.toString());
+          for (int i = from; i < to; i++) {
+            binder.bind(st, (i - from) * paramsPerRow + 1, list.get(i));
+          }
+          handler.accept(list.subList(from, to), st.executeUpdate());
+        }
+        catch (SQLException e) {
+          if (!ownTransaction) {
+            throw new DbException(e.getMessage());
+          }
+          result.chunkFailed(chunk, from, to, e);
+        }
+        finally {
+          DB.closeStatement(st);
+        }
+      }
+      rows = result.getRowsAffected();
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeConnection(conn);
+      metrics.record(start, acquired, acquired == 0 ? 0 : System.nanoTime(), rows);
+    }
+  }
+
+  /**
+   * Executa um comando com uma lista {@code IN (...)} de IDs, dividida em blocos.
+   *
+   * @param provider  A fonte de conexões.
+   * @param metrics   As métricas da operação.
+   * @param sqlPrefix O início do comando, terminando em "IN ".
+   * @param ids       Os IDs a serem usados na lista.
+   * @param chunkSize O número máximo de IDs por comando.
+   * @return O resultado da operação, com as falhas por bloco.
+   * @throws DbException Lançada se não for possível obter a conexão,
+   *                     ou na primeira falha quando o chamador controla a transação.
+   */
+  static BatchResult executeInChunks(ConnectionProvider provider, OperationMetrics metrics, String sqlPrefix,
+                                     Collection<Integer> ids, int chunkSize) {
+    List<Integer> list = new ArrayList<>(ids);
+    BatchResult result = new BatchResult(list.size());
+    if (list.isEmpty()) {
+      return result;
+    }
+    checkChunkSize(chunkSize);
+
+    long start = System.nanoTime();
+    long acquired = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    try {
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      boolean ownTransaction = conn.getAutoCommit();
+      int chunk = 0;
+      for (int from = 0; from < list.size(); from += chunkSize, chunk++) {
+        int to = Math.min(list.size(), from + chunkSize);
+        PreparedStatement st = null;
+        try {
+          st = conn.prepareStatement(sqlPrefix + placeholders(to - from));
+          for (int i = from; i < to; i++) {
+            st.setInt(i - from + 1, list.get(i));
+          }
+          result.chunkSucceeded(st.executeUpdate());
+        }
+        catch (SQLException e) {
+          if (!ownTransaction) {
+            throw new DbException(e.getMessage());
+          }
+          result.chunkFailed(chunk, from, to, e);
+        }
+        finally {
+          DB.closeStatement(st);
+        }
+      }
+      rows = result.getRowsAffected();
+      return result;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeConnection(conn);
+      metrics.record(start, acquired, acquired == 0 ? 0 : System.nanoTime(), rows);
+    }
+  }
+
+  /**
+   * Busca vários registros por ID com consultas {@code ... IN (...)}, divididas em blocos, usando uma
+   * única conexão.
+   *
+   * IDs repetidos são consultados uma vez. Para que o cache de statements reaproveite os comandos,
+   * o número de parâmetros de cada bloco é arredondado para a próxima potência de 2 (limitado a
+   * chunkSize), repetindo o último ID nas posições extras. O mesmo mapeador é usado em todos os
+   * blocos, então objetos compartilhados por ele (como departamentos) valem para o resultado todo.
+   *
+   * @param provider  A fonte de conexões.
+   * @param metrics   As métricas da operação.
+   * @param sqlPrefix O início da consulta, terminando em "IN ".
+   * @param ids       Os IDs a serem buscados.
+   * @param chunkSize O número máximo de IDs por consulta.
+   * @param factory   Cria o mapeador de linhas a partir do primeiro ResultSet.
+   * @param key       Extrai o ID de cada objeto lido.
+   * @return Um mapa do ID para o objeto; IDs não encontrados ficam de fora.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  static <T> Map<Integer, T> selectInChunks(ConnectionProvider provider, OperationMetrics metrics, String sqlPrefix,
+                                            Collection<Integer> ids, int chunkSize, MapperFactory<T> factory,
+                                            Function<T, Integer> key) {
+    List<Integer> list = new ArrayList<>(new LinkedHashSet<>(ids));
+    Map<Integer, T> result = new HashMap<>(Math.max(16, (int) (list.size() / 0.75f) + 1));
+    if (list.isEmpty()) {
+      return result;
+    }
+    checkChunkSize(chunkSize);
+
+    long start = System.nanoTime();
+    long acquired = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    try {
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      ResultSetStream.RowMapper<T> mapper = null;
+      for (int from = 0; from < list.size(); from += chunkSize) {
+        int to = Math.min(list.size(), from + chunkSize);
+        int params = Math.min(chunkSize, Integer.highestOneBit(to - from - 1) << 1);
+        params = Math.max(params, to - from);
+        PreparedStatement st = null;
+        ResultSet rs = null;
+        try {
+          st = conn.prepareStatement(sqlPrefix + placeholders(params));
+          for (int i = 0; i < params; i++) {
+            st.setInt(i + 1, list.get(Math.min(from + i, to - 1)));
+          }
+          rs = st.executeQuery();
+          if (mapper == null) {
+            mapper = factory.create(rs);
+          }
+          while (rs.next()) {
+            T obj = mapper.map(rs);
+            result.put(key.apply(obj), obj);
+          }
+        }
+        finally {
+          DB.closeResultSet(rs);
+          DB.closeStatement(st);
+        }
+      }
+      rows = result.size();
+      return result;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeConnection(conn);
+      metrics.record(start, acquired, acquired == 0 ? 0 : System.nanoTime(), rows);
+    }
+  }
+
+  /**
+   * Monta a lista de parâmetros "(?, ?, ..., ?)" com a quantidade informada.
+   *
+   * @param count O número de parâmetros.
+   * @return A lista de parâmetros entre parênteses.
+   */
+  static String placeholders(int count) {
+    StringBuilder sb = new StringBuilder(count * 3 + 2).append('(');
+    for (int i = 0; i < count; i++) {
+      sb.append(i == 0 ? "?" : ", ?");
+    }
+    return sb.append(')').toString();
+  }
+
+  private static int[] readKeys(PreparedStatement st, int expected) throws SQLException {
+    ResultSet rs = null;
+    try {
+      rs = st.getGeneratedKeys();
+      int[] keys = new int[expected];
+      int n = 0;
+      while (n < expected && rs.next()) {
+        keys[n++] = rs.getInt(1);
+      }
+      if (n < expected) {
+        throw new SQLException("Expected " + expected + " generated keys but got " + n);
+      }
+      return keys;
+    }
+    finally {
+      DB.closeResultSet(rs);
+    }
+  }
+
+  private static void checkChunkSize(int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+    }
+  }
+}
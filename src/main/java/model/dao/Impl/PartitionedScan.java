@@ -0,0 +1,163 @@
+package model.dao.Impl;
+
+import database.DbException;
+import database.ReadYourWrites;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Leitura de uma tabela em partes independentes, cada uma com a sua consulta e a sua conexão.
+ *
+ * {@link #stream} entrega as partes a um Stream paralelo: o Spliterator divide a lista de partes ao
+ * meio e cada thread do ForkJoinPool lê as suas partes uma de cada vez, de modo que no máximo uma
+ * parte por thread fica em memória. {@link #forEach} lê as partes em threads virtuais, com até
+ * {@code parallelism} leituras ao mesmo tempo, e entrega cada parte inteira ao callback.
+ */
+final class PartitionedScan {
+  private PartitionedScan() {
+  }
+
+  /**
+   * Cria um Stream paralelo com os elementos de todas as partes, na ordem das partes. As threads
+   * do ForkJoinPool leem com a marca de {@link ReadYourWrites} da thread que criou o Stream.
+   *
+   * @param partitions As partes.
+   * @param reader     A leitura de uma parte.
+   */
+  static <P, T> Stream<T> stream(List<P> partitions, Function<P, List<T>> reader) {
+    return StreamSupport.stream(new PartitionSpliterator<>(List.copyOf(partitions), 0, partitions.size(),
+        ReadYourWrites.propagate(reader)), true);
+  }
+
+  /**
+   * Lê as partes em paralelo e entrega cada uma ao callback, na thread que a leu. Se uma leitura
+   * ou um callback falhar, as partes que ainda não começaram são ignoradas e a primeira exceção é
+   * relançada depois que as leituras em andamento terminarem.
+   *
+   * @param partitions  As partes.
+   * @param parallelism O número máximo de partes lidas ao mesmo tempo.
+   * @param reader      A leitura de uma parte.
+   * @param action      O callback que recebe cada parte e os seus elementos.
+   */
+  static <P, T> void forEach(List<P> partitions, int parallelism, Function<P, List<T>> reader,
+                             BiConsumer<P, List<T>> action) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+    }
+    AtomicBoolean failed = new AtomicBoolean();
+    List<CompletableFuture<Void>> futures = new ArrayList<>(partitions.size());
+    try (VirtualThreadExecutor executor = new VirtualThreadExecutor(parallelism)) {
+      for (P partition : partitions) {
+        futures.add(executor.run(() -> {
+          if (failed.get()) {
+            return;
+          }
+          try {
+            action.accept(partition, reader.apply(partition));
+          }
+          catch (RuntimeException | Error e) {
+            failed.set(true);
+            throw e;
+          }
+        }));
+      }
+    }
+    for (CompletableFuture<Void> future : futures) {
+      try {
+        future.join();
+      }
+      catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        }
+        if (e.getCause() instanceof Error cause) {
+          throw cause;
+        }
+        throw new DbException("Partitioned scan failed: " + e.getCause());
+      }
+    }
+  }
+
+  /**
+   * Spliterator sobre um intervalo da lista de partes. Cada parte é lida só quando a travessia
+   * chega a ela.
+   */
+  private static final class PartitionSpliterator<P, T> implements Spliterator<T> {
+    private final List<P> partitions;
+    private final Function<P, List<T>> reader;
+    private int index;
+    private final int end;
+    private Iterator<T> current;
+
+    private PartitionSpliterator(List<P> partitions, int index, int end, Function<P, List<T>> reader) {
+      this.partitions = partitions;
+      this.index = index;
+      this.end = end;
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      while (current == null || !current.hasNext()) {
+        if (index >= end) {
+          current = null;
+          return false;
+        }
+        current = reader.apply(partitions.get(index++)).iterator();
+      }
+      action.accept(current.next());
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      if (current != null) {
+        current.forEachRemaining(action);
+        current = null;
+      }
+      while (index < end) {
+        reader.apply(partitions.get(index++)).forEach(action);
+      }
+    }
+
+    /**
+     * Divide as partes ainda não lidas ao meio. Depois que a leitura de uma parte começou, não
+     * divide mais, para não alterar a ordem dos elementos.
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+      if (current != null || end - index < 2) {
+        return null;
+      }
+      int mid = (index + end) >>> 1;
+      Spliterator<T> prefix = new PartitionSpliterator<>(partitions, index, mid, reader);
+      index = mid;
+      return prefix;
+    }
+
+    /**
+     * Estima o tamanho pelo número de partes restantes, o que basta para o ForkJoinPool dividir
+     * até cada thread ter as suas partes.
+     */
+    @Override
+    public long estimateSize() {
+      return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | NONNULL;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package model.dao.Impl;
+
+import database.DB;
+import database.DbException;
+import database.metrics.OperationMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Expõe um ResultSet aberto como um {@link Stream}, lendo uma linha por vez.
+ *
+ * O Stream é dono da conexão, do statement e do ResultSet: todos são liberados quando o Stream é
+ * fechado, quando a última linha é lida ou quando ocorre um erro. Os chamadores devem usar
+ * try-with-resources caso não consumam o Stream até o fim.
+ */
+final class ResultSetStream {
+
+  /**
+   * Converte a linha atual de um ResultSet em um objeto.
+   */
+  @FunctionalInterface
+  interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+  }
+
+  private ResultSetStream() {
+  }
+
+  /**
+   * Cria um Stream sequencial sobre as linhas de um ResultSet.
+   *
+   * @param conn     A conexão a ser devolvida quando o Stream terminar.
+   * @param st       O statement que produziu o ResultSet.
+   * @param rs       O ResultSet posicionado antes da primeira linha.
+   * @param metrics  As métricas da operação, gravadas quando o Stream termina.
+   * @param start    {@code System.nanoTime()} no início da operação.
+   * @param acquired {@code System.nanoTime()} após obter a conexão.
+   * @param executed {@code System.nanoTime()} após executar a consulta.
+   * @param mapper   Converte cada linha em um objeto.
+   * @return Um Stream que libera os recursos JDBC ao ser fechado ou esgotado.
+   */
+  static <T> Stream<T> of(Connection conn, PreparedStatement st, ResultSet rs, OperationMetrics metrics,
+                          long start, long acquired, long executed, RowMapper<T> mapper) {
+    RowSpliterator<T> spliterator = new RowSpliterator<>(conn, st, rs, mapper, metrics, start, acquired, executed);
+    return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+  }
+
+  private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+    private final Connection conn;
+    private final PreparedStatement st;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private final OperationMetrics metrics;
+    private final long start;
+    private final long acquired;
+    private final long executed;
+    private int rows;
+    private boolean failed;
+    private boolean closed;
+
+    private RowSpliterator(Connection conn, PreparedStatement st, ResultSet rs, RowMapper<T> mapper,
+                           OperationMetrics metrics, long start, long acquired, long executed) {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+      this.conn = conn;
+      this.st = st;
+      this.rs = rs;
+      this.mapper = mapper;
+      this.metrics = metrics;
+      this.start = start;
+      this.acquired = acquired;
+      this.executed = executed;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      if (closed) {
+        return false;
+      }
+      try {
+        if (!rs.next()) {
+          close();
+          return false;
+        }
+        T obj = mapper.map(rs);
+        rows++;
+        action.accept(obj);
+        return true;
+      }
+      catch (SQLException e) {
+        failed = true;
+        close();
+        throw new DbException(e.getMessage());
+      }
+    }
+
+    private void close() {
+      if (!closed) {
+        closed = true;
+        try {
+          DB.closeResultSet(rs);
+          DB.closeStatement(st);
+        }
+        finally {
+          DB.closeConnection(conn);
+          metrics.record(start, acquired, executed, failed ? OperationMetrics.FAILED : rows);
+        }
+      }
+    }
+  }
+}
@@ -1,29 +1,175 @@
 package model.dao.Impl;
 
+import database.ConnectionProvider;
 import database.DB;
+import database.DbConcurrencyException;
 import database.DbException;
+import database.metrics.DaoMetrics;
+import database.metrics.OperationMetrics;
+import model.dao.BatchResult;
+import model.dao.SalaryStats;
+import model.dao.SellerColumns;
 import model.dao.SellerDao;
+import model.dao.SellerPartition;
+import model.dao.UpsertResult;
 import model.entities.Department;
 import model.entities.Seller;
 
 import java.sql.*;
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * Implementação concreta da interface SellerDao que interage com o banco de dados usando JDBC.
  * Esta classe é responsável por fornecer métodos para acesso e manipulação de dados de vendedores.
  */
 public class SellerDaoJDBC implements SellerDao {
-  private Connection conn;
+  /**
+   * Tamanho padrão dos blocos das operações em lote.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 500;
+
+  /**
+   * Número padrão de linhas buscadas por ida ao banco em streamAll.
+   */
+  public static final int DEFAULT_FETCH_SIZE = 1000;
+
+  private static final String INSERT_SQL =
+      "INSERT INTO seller "
+          + "(Name, Email, BirthDate, BaseSalary, DepartmentId) "
+          + "VALUES "
+          + "(?, ?, ?, ?, ?)";
+
+  /**
+   * Início e fim dos comandos de upsert: o vendedor é identificado pelo e-mail (chave única
+   * uk_seller_email). {@code LAST_INSERT_ID(Id)} faz o driver devolver o ID também quando a linha
+   * já existia. O fim usa o alias de linha {@code AS new}, aceito pelo MySQL a partir da 8.0.19,
+   * que tornou {@code VALUES(coluna)} obsoleta.
+   */
+  private static final String UPSERT_PREFIX =
+      "INSERT INTO seller "
+          + "(Name, Email, BirthDate, BaseSalary, DepartmentId) "
+          + "VALUES ";
+
+  private static final String UPSERT_SUFFIX =
+      " AS new ON DUPLICATE KEY UPDATE Id = LAST_INSERT_ID(Id), Name = new.Name, BirthDate = new.BirthDate, "
+          + "BaseSalary = new.BaseSalary, DepartmentId = new.DepartmentId, Version = Version + 1";
+
+  /**
+   * O mesmo fim de {@link #UPSERT_SUFFIX} com {@code VALUES(coluna)}, para os bancos que não aceitam
+   * o alias de linha: MySQL anterior à 8.0.19 e o H2 no modo MySQL.
+   */
+  private static final String LEGACY_UPSERT_SUFFIX =
+      " ON DUPLICATE KEY UPDATE Id = LAST_INSERT_ID(Id), Name = VALUES(Name), BirthDate = VALUES(BirthDate), "
+          + "BaseSalary = VALUES(BaseSalary), DepartmentId = VALUES(DepartmentId), Version = Version + 1";
+
+  /**
+   * Comandos UPDATE indexados pela combinação de campos alterados ({@link Seller#getDirtyFields()}),
+   * na ordem dos bits: Name, Email, BirthDate, BaseSalary, DepartmentId. Todos incrementam Version.
+   */
+  private static final String[] UPDATE_SQL = new String[Seller.ALL_FIELDS + 1];
+
+  /**
+   * Os mesmos comandos de {@link #UPDATE_SQL}, conferindo também a versão lida.
+   */
+  private static final String[] VERSIONED_UPDATE_SQL = new String[Seller.ALL_FIELDS + 1];
+
+  static {
+    String[] columns = {"Name", "Email", "BirthDate", "BaseSalary", "DepartmentId"};
+    for (int fields = 1; fields <= Seller.ALL_FIELDS; fields++) {
+      StringJoiner set = new StringJoiner(", ");
+      for (int i = 0; i < columns.length; i++) {
+        if ((fields & (1 << i)) != 0) {
+          set.add(columns[i] + " = ?");
+        }
+      }
+      set.add("Version = Version + 1");
+      UPDATE_SQL[fields] = "UPDATE seller SET " + set + " WHERE Id = ?";
+      VERSIONED_UPDATE_SQL[fields] = UPDATE_SQL[fields] + " AND Version = ?";
+    }
+  }
+
+  private static final OperationMetrics INSERT_METRICS = DaoMetrics.operation("SellerDao.insert");
+  private static final OperationMetrics UPDATE_METRICS = DaoMetrics.operation("SellerDao.update");
+  private static final OperationMetrics UPSERT_METRICS = DaoMetrics.operation("SellerDao.upsert");
+  private static final OperationMetrics UPSERT_ALL_METRICS = DaoMetrics.operation("SellerDao.upsertAll");
+  private static final OperationMetrics DELETE_BY_ID_METRICS = DaoMetrics.operation("SellerDao.deleteById");
+  private static final OperationMetrics INSERT_ALL_METRICS = DaoMetrics.operation("SellerDao.insertAll");
+  private static final OperationMetrics UPDATE_ALL_METRICS = DaoMetrics.operation("SellerDao.updateAll");
+  private static final OperationMetrics DELETE_BY_IDS_METRICS = DaoMetrics.operation("SellerDao.deleteByIds");
+  private static final OperationMetrics FIND_BY_ID_METRICS = DaoMetrics.operation("SellerDao.findById");
+  private static final OperationMetrics FIND_BY_IDS_METRICS = DaoMetrics.operation("SellerDao.findByIds");
+  private static final OperationMetrics FIND_ALL_METRICS = DaoMetrics.operation("SellerDao.findAll");
+  private static final OperationMetrics STREAM_ALL_METRICS = DaoMetrics.operation("SellerDao.streamAll");
+  private static final OperationMetrics FIND_ALL_COLUMNAR_METRICS = DaoMetrics.operation("SellerDao.findAllColumnar");
+  private static final OperationMetrics PARTITION_METRICS = DaoMetrics.operation("SellerDao.partition");
+  private static final OperationMetrics FIND_BY_PARTITION_METRICS = DaoMetrics.operation("SellerDao.findByPartition");
+  private static final OperationMetrics SALARY_STATS_METRICS = DaoMetrics.operation("SellerDao.salaryStats");
+  private static final OperationMetrics SALARY_STATS_BY_BIRTH_YEAR_METRICS =
+      DaoMetrics.operation("SellerDao.salaryStatsByBirthYear");
+  private static final OperationMetrics FIND_BY_DEPARTMENT_METRICS = DaoMetrics.operation("SellerDao.findByDepartment");
+  private static final OperationMetrics FIND_PAGE_METRICS = DaoMetrics.operation("SellerDao.findPage");
+  private static final OperationMetrics FIND_BY_DEPARTMENT_PAGE_METRICS =
+      DaoMetrics.operation("SellerDao.findByDepartmentPage");
+
+  private final ConnectionProvider provider;
+  private final int batchSize;
+  private final int fetchSize;
+  private final boolean optimisticLocking;
+  /** O fim dos comandos de upsert aceito pelo banco, verificado no primeiro upsert. */
+  private volatile String upsertSuffix;
+
+  /**
+   * Construtor da classe SellerDaoJDBC que recebe a fonte de conexões de banco de dados.
+   * Cada operação obtém uma conexão da fonte e a devolve ao terminar.
+   *
+   * @param provider A fonte de conexões a ser usada para as operações de acesso a dados.
+   */
+  public SellerDaoJDBC(ConnectionProvider provider) {
+    this(provider, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Construtor da classe SellerDaoJDBC que recebe a fonte de conexões e o tamanho padrão dos blocos
+   * das operações em lote.
+   *
+   * @param provider  A fonte de conexões a ser usada para as operações de acesso a dados.
+   * @param batchSize O número máximo de registros por bloco em insertAll, updateAll e deleteByIds.
+   */
+  public SellerDaoJDBC(ConnectionProvider provider, int batchSize) {
+    this(provider, batchSize, DEFAULT_FETCH_SIZE);
+  }
 
   /**
-   * Construtor da classe SellerDaoJDBC que recebe uma conexão de banco de dados.
+   * Construtor da classe SellerDaoJDBC que recebe a fonte de conexões, o tamanho padrão dos blocos
+   * das operações em lote e o fetch size das leituras em Stream.
    *
-   * @param conn A conexão de banco de dados a ser usada para as operações de acesso a dados.
+   * @param provider  A fonte de conexões a ser usada para as operações de acesso a dados.
+   * @param batchSize O número máximo de registros por bloco em insertAll, updateAll e deleteByIds.
+   * @param fetchSize O número de linhas buscadas por ida ao banco em streamAll.
    */
-  public SellerDaoJDBC(Connection conn) {
-    this.conn = conn;
+  public SellerDaoJDBC(ConnectionProvider provider, int batchSize, int fetchSize) {
+    this(provider, batchSize, fetchSize, false);
+  }
+
+  /**
+   * Construtor da classe SellerDaoJDBC que recebe a fonte de conexões, o tamanho padrão dos blocos
+   * das operações em lote, o fetch size das leituras em Stream e se as gravações conferem a versão.
+   *
+   * @param provider          A fonte de conexões a ser usada para as operações de acesso a dados.
+   * @param batchSize         O número máximo de registros por bloco em insertAll, updateAll e deleteByIds.
+   * @param fetchSize         O número de linhas buscadas por ida ao banco em streamAll.
+   * @param optimisticLocking Se update e updateAll devem falhar quando a versão do vendedor mudou no banco;
+   *                          nesse caso, os vendedores gravados precisam ter a versão lida.
+   */
+  public SellerDaoJDBC(ConnectionProvider provider, int batchSize, int fetchSize, boolean optimisticLocking) {
+    this.provider = provider;
+    this.batchSize = batchSize;
+    this.fetchSize = fetchSize;
+    this.optimisticLocking = optimisticLocking;
   }
 
   /**
@@ -34,22 +180,20 @@ public class SellerDaoJDBC implements SellerDao {
    */
   @Override
   public void insert(Seller obj) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     try {
-      st = conn.prepareStatement(
-          "INSERT INTO seller "
-              + "(Name, Email, BirthDate, BaseSalary, DepartmentId) "
-              + "VALUES "
-              + "(?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS
-      );
-
-      st.setString(1, obj.getName());
-      st.setString(2, obj.getEmail());
-      st.setDate(3,new Date(obj.getBirthDate().getTime()));
-      st.setDouble(4, obj.getBaseSalary());
-      st.setInt(5, obj.getDepartment().getId());
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+      bindSeller(st, obj);
 
       int rowsAffected = st.executeUpdate();
+      executed = System.nanoTime();
 
       if (rowsAffected > 0) {
         ResultSet rs = st.getGeneratedKeys();
@@ -58,47 +202,68 @@ public class SellerDaoJDBC implements SellerDao {
           obj.setId(id);
         }
         DB.closeResultSet(rs);
+        obj.setVersion(0);
+        obj.markClean();
       }
       else {
         throw new DbException("Unexpected error! No rows affected!");
       }
+      rows = rowsAffected;
     } catch (SQLException e) {
       throw new DbException(e.getMessage());
     }
     finally {
       DB.closeStatement(st);
+      DB.closeConnection(conn);
+      INSERT_METRICS.record(start, acquired, executed, rows);
     }
   }
 
   /**
    * update - Atualiza as informações de um vendedor no banco de dados.
+   * Somente as colunas alteradas desde a leitura do vendedor ({@link Seller#getDirtyFields()}) são
+   * gravadas; se nada mudou, o banco não é acessado. A versão do vendedor é incrementada.
    *
    * @param obj O objeto Seller com as informações atualizadas a serem persistidas.
-   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   * @throws DbException               Lançada em caso de erro ao acessar o banco de dados.
+   * @throws DbConcurrencyException    Lançada, com optimisticLocking, se o vendedor foi alterado ou
+   *                                   removido depois de lido.
+   * @throws IllegalArgumentException  Lançada, com optimisticLocking, se o vendedor não tem versão.
    */
   @Override
   public void update(Seller obj) {
+    int fields = obj.getDirtyFields();
+    if (fields == 0) {
+      return;
+    }
+    requireVersion(obj);
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     try {
-      st = conn.prepareStatement(
-          "UPDATE seller "
-              + "SET Name = ?, Email = ?, BirthDate = ?, BaseSalary = ?, DepartmentId = ? "
-              + "WHERE Id = ?", Statement.RETURN_GENERATED_KEYS
-      );
-
-      st.setString(1, obj.getName());
-      st.setString(2, obj.getEmail());
-      st.setDate(3,new Date(obj.getBirthDate().getTime()));
-      st.setDouble(4, obj.getBaseSalary());
-      st.setInt(5, obj.getDepartment().getId());
-      st.setInt(6, obj.getId());
-      st.executeUpdate();
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement(optimisticLocking ? VERSIONED_UPDATE_SQL[fields] : UPDATE_SQL[fields]);
+      bindKey(st, bindFields(st, 1, obj, fields), obj);
+      rows = st.executeUpdate();
+      executed = System.nanoTime();
+      if (isConflict(rows)) {
+        rows = OperationMetrics.FAILED;
+        throw new DbConcurrencyException("Seller " + obj.getId() + " was modified or deleted by another operation"
+            + " (expected version " + obj.getVersion() + ")", List.of(obj.getId()));
+      }
+      written(obj);
 
     } catch (SQLException e) {
       throw new DbException(e.getMessage());
     }
     finally {
       DB.closeStatement(st);
+      DB.closeConnection(conn);
+      UPDATE_METRICS.record(start, acquired, executed, rows);
     }
   }
 
@@ -110,20 +275,287 @@ public class SellerDaoJDBC implements SellerDao {
    */
   @Override
   public void deleteById(Integer id) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     try {
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
       st = conn.prepareStatement("DELETE FROM seller WHERE Id = ?");
       st.setInt(1, id);
-      st.executeUpdate();
+      rows = st.executeUpdate();
+      executed = System.nanoTime();
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+      DELETE_BY_ID_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * deleteById - Remove um vendedor somente se a versão no banco for a informada.
+   *
+   * @param id      O ID do vendedor a ser excluído do banco de dados.
+   * @param version A versão lida do vendedor; com null, o vendedor é removido sem conferência.
+   * @throws DbException            Lançada em caso de erro ao acessar o banco de dados.
+   * @throws DbConcurrencyException Lançada se o vendedor foi alterado ou removido depois de lido.
+   */
+  @Override
+  public void deleteById(Integer id, Integer version) {
+    if (version == null) {
+      deleteById(id);
+      return;
+    }
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    try {
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement("DELETE FROM seller WHERE Id = ? AND Version = ?");
+      st.setInt(1, id);
+      st.setInt(2, version);
+      rows = st.executeUpdate();
+      executed = System.nanoTime();
+      if (rows == 0) {
+        rows = OperationMetrics.FAILED;
+        throw new DbConcurrencyException("Seller " + id + " was modified or deleted by another operation"
+            + " (expected version " + version + ")", List.of(id));
+      }
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+      DELETE_BY_ID_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * upsert - Insere o vendedor ou, se já existir um vendedor com o mesmo e-mail, atualiza os demais
+   * campos dele, em um único comando. A versão não é conferida; quando o vendedor é atualizado, a
+   * versão gravada é lida na mesma transação, para que o objeto possa ser usado em update.
+   *
+   * @param obj O vendedor a ser gravado; recebe o ID da linha inserida ou atualizada.
+   * @return true se o vendedor foi inserido; false se já existia e foi atualizado.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public boolean upsert(Seller obj) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    ResultSet rs = null;
+    boolean ownTransaction = false;
+    try {
+      conn = provider.getConnection();
+      acquired = System.nanoTime();
+      ownTransaction = conn.getAutoCommit();
+      if (ownTransaction) {
+        conn.setAutoCommit(false);
+      }
+      st = conn.prepareStatement(UPSERT_PREFIX + "(?, ?, ?, ?, ?)" + upsertSuffix(conn),
+          Statement.RETURN_GENERATED_KEYS);
+      bindSeller(st, obj);
+      rows = st.executeUpdate();
+
+      boolean inserted = rows == 1;
+      if (inserted) {
+        rs = st.getGeneratedKeys();
+        if (rs.next()) {
+          obj.setId(rs.getInt(1));
+        }
+        obj.setVersion(0);
+      }
+      else {
+        // A linha continua bloqueada pelo UPDATE até o commit, então a versão lida é a gravada aqui.
+        DB.closeStatement(st);
+        st = conn.prepareStatement("SELECT Id, Version FROM seller WHERE Email = ?");
+        st.setString(1, obj.getEmail());
+        rs = st.executeQuery();
+        if (!rs.next()) {
+          throw new DbException("Seller with email " + obj.getEmail() + " not found after upsert");
+        }
+        obj.setId(rs.getInt("Id"));
+        obj.setVersion(rs.getInt("Version"));
+      }
+      if (ownTransaction) {
+        conn.commit();
+      }
+      executed = System.nanoTime();
+      obj.markClean();
+      return inserted;
     }
     catch (SQLException e) {
       throw new DbException(e.getMessage());
     }
     finally {
+      DB.closeResultSet(rs);
       DB.closeStatement(st);
+      endTransaction(conn, ownTransaction);
+      DB.closeConnection(conn);
+      UPSERT_METRICS.record(start, acquired, executed, rows);
     }
   }
 
+  /**
+   * upsertAll - Insere ou atualiza vários vendedores, identificados pelo e-mail, em blocos de
+   * {@code batchSize} registros.
+   *
+   * @param list Os vendedores a serem gravados.
+   * @return O resultado da operação, com as quantidades inseridas e atualizadas e as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão.
+   */
+  @Override
+  public UpsertResult upsertAll(Collection<Seller> list) {
+    return upsertAll(list, batchSize);
+  }
+
+  /**
+   * upsertAll - Insere ou atualiza vários vendedores, identificados pelo e-mail, com um comando
+   * {@code INSERT ... VALUES (...), (...) ON DUPLICATE KEY UPDATE} por bloco. Cada bloco é gravado
+   * ou desfeito por inteiro. Os IDs não são atribuídos aos objetos, já que o banco só informa o
+   * total de linhas afetadas por comando.
+   *
+   * @param list      Os vendedores a serem gravados.
+   * @param chunkSize O número máximo de registros por comando.
+   * @return O resultado da operação, com as quantidades inseridas e atualizadas e as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão.
+   */
+  @Override
+  public UpsertResult upsertAll(Collection<Seller> list, int chunkSize) {
+    List<Seller> rows = new ArrayList<>(list);
+    UpsertResult result = new UpsertResult(rows.size());
+    String suffix = upsertSuffix();
+    JdbcBatch.executeMultiRow(provider, UPSERT_ALL_METRICS, UPSERT_PREFIX, 5, suffix, rows, chunkSize, result,
+        (st, index, obj) -> bindFields(st, index, obj, Seller.ALL_FIELDS),
+        (chunk, affected) -> result.chunkSucceeded(chunk.size(), affected));
+    return result;
+  }
+
+  /**
+   * insertAll - Insere vários vendedores usando JDBC batch, em blocos de {@code batchSize} registros.
+   *
+   * @param list Os objetos Seller a serem inseridos; recebem os IDs gerados.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão ou preparar o comando.
+   */
+  @Override
+  public BatchResult insertAll(Collection<Seller> list) {
+    return insertAll(list, batchSize);
+  }
+
+  /**
+   * insertAll - Insere vários vendedores usando JDBC batch, em blocos do tamanho informado.
+   * Cada bloco é confirmado separadamente; os IDs gerados são atribuídos após a confirmação.
+   *
+   * @param list      Os objetos Seller a serem inseridos; recebem os IDs gerados.
+   * @param chunkSize O número máximo de registros por bloco.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão ou preparar o comando.
+   */
+  @Override
+  public BatchResult insertAll(Collection<Seller> list, int chunkSize) {
+    return JdbcBatch.executeBatch(provider, INSERT_ALL_METRICS, INSERT_SQL, list, chunkSize, this::bindSeller,
+        (obj, id) -> {
+          obj.setId(id);
+          obj.setVersion(0);
+          obj.markClean();
+        });
+  }
+
+  /**
+   * updateAll - Atualiza vários vendedores usando JDBC batch, em blocos de {@code batchSize} registros.
+   *
+   * @param list Os objetos Seller com as informações atualizadas.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão ou preparar o comando.
+   */
+  @Override
+  public BatchResult updateAll(Collection<Seller> list) {
+    return updateAll(list, batchSize);
+  }
+
+  /**
+   * updateAll - Atualiza vários vendedores usando JDBC batch, em blocos do tamanho informado.
+   * Vendedores sem alterações são ignorados, e cada um dos demais grava só as próprias colunas
+   * alteradas: dentro de um bloco, os vendedores com a mesma combinação de colunas vão em um JDBC
+   * batch próprio. Os índices das falhas no resultado referem-se aos vendedores alterados, na ordem
+   * da coleção.
+   *
+   * Com optimisticLocking, um bloco em que algum vendedor teve a versão alterada no banco é desfeito
+   * e registrado como falha, com SQLState 40001 e os IDs em conflito na mensagem; os vendedores do
+   * bloco continuam com as alterações pendentes. Dentro de uma transação, o conflito é lançado.
+   *
+   * @param list      Os objetos Seller com as informações atualizadas.
+   * @param chunkSize O número máximo de registros por bloco.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException               Lançada em caso de erro ao obter a conexão ou preparar o comando.
+   * @throws DbConcurrencyException    Lançada se algum vendedor foi alterado ou removido depois de lido
+   *                                   e a conexão está em uma transação do chamador.
+   * @throws IllegalArgumentException  Lançada, com optimisticLocking, se algum vendedor alterado não
+   *                                   tem versão; nesse caso nada é gravado.
+   */
+  @Override
+  public BatchResult updateAll(Collection<Seller> list, int chunkSize) {
+    List<Seller> dirty = new ArrayList<>(list.size());
+    for (Seller obj : list) {
+      if (obj.isDirty()) {
+        requireVersion(obj);
+        dirty.add(obj);
+      }
+    }
+    if (dirty.isEmpty()) {
+      return new BatchResult(0);
+    }
+    String[] updates = optimisticLocking ? VERSIONED_UPDATE_SQL : UPDATE_SQL;
+    return JdbcBatch.executeGroupedBatch(provider, UPDATE_ALL_METRICS, obj -> updates[obj.getDirtyFields()], dirty,
+        chunkSize, (st, obj) -> bindKey(st, bindFields(st, 1, obj, obj.getDirtyFields()), obj), null,
+        (obj, count) -> written(obj), (obj, count) -> isConflict(count) ? obj.getId() : null);
+  }
+
+  /**
+   * deleteByIds - Remove vários vendedores com comandos {@code DELETE ... WHERE Id IN (...)},
+   * em blocos de {@code batchSize} IDs.
+   *
+   * @param ids Os IDs dos vendedores a serem removidos.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão.
+   */
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids) {
+    return deleteByIds(ids, batchSize);
+  }
+
+  /**
+   * deleteByIds - Remove vários vendedores com comandos {@code DELETE ... WHERE Id IN (...)},
+   * em blocos do tamanho informado.
+   *
+   * @param ids       Os IDs dos vendedores a serem removidos.
+   * @param chunkSize O número máximo de IDs por comando.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   * @throws DbException Lançada em caso de erro ao obter a conexão.
+   */
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids, int chunkSize) {
+    return JdbcBatch.executeInChunks(provider, DELETE_BY_IDS_METRICS, "DELETE FROM seller WHERE Id IN ", ids, chunkSize);
+  }
+
   /**
    * findById - Busca um vendedor no banco de dados com base no seu ID.
    *
@@ -139,24 +571,29 @@ public class SellerDaoJDBC implements SellerDao {
    */
   @Override
   public Seller findById(Integer id) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     ResultSet rs = null;
 
     try {
-      st = conn.prepareStatement(
-          "SELECT seller.*, department.Name as DepName "
-          + "FROM seller INNER JOIN department "
-          + "ON seller.DepartmentId = department.Id "
-          + "WHERE seller.Id = ?"
-      );
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement(SellerRowMapper.SELECT + "WHERE seller.Id = ?");
 
       st.setInt(1, id);
       rs = st.executeQuery();
+      executed = System.nanoTime();
 
       if (rs.next()) {
-        Department dep = instantiateDepartment(rs);
-        return instantiateSeller(rs, dep);
+        Seller obj = SellerRowMapper.of(rs).map(rs);
+        rows = 1;
+        return obj;
       }
+      rows = 0;
       return null;
     }
     catch (SQLException e) {
@@ -165,47 +602,169 @@ public class SellerDaoJDBC implements SellerDao {
     finally {
       DB.closeStatement(st);
       DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      FIND_BY_ID_METRICS.record(start, acquired, executed, rows);
     }
   }
 
   /**
-   * instantiateSeller - Cria e retorna um objeto Seller a partir dos dados obtidos de um ResultSet.
-   *
-   * Este método é responsável por criar um objeto Seller com base nas informações
-   * recuperadas de um ResultSet, incluindo o ID, nome, e-mail, salário base, data de nascimento
-   * e departamento associado.
+   * findByIds - Busca vários vendedores com consultas {@code WHERE seller.Id IN (...)} de até
+   * {@code batchSize} IDs cada, em uma única conexão. Vendedores do mesmo departamento compartilham
+   * o mesmo objeto Department em todo o resultado.
    *
-   * @param rs O ResultSet que contém os dados do vendedor.
-   * @param dep O objeto Department associado ao vendedor.
-   * @return Um objeto Seller criado a partir dos dados no ResultSet.
-   * @throws SQLException Lançada em caso de erro ao acessar dados no ResultSet.
+   * @param ids Os IDs dos vendedores que se deseja buscar.
+   * @return Um mapa do ID para o vendedor; IDs não encontrados ficam de fora do mapa.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
    */
-  private Seller instantiateSeller(ResultSet rs, Department dep) throws SQLException {
-    Seller obj = new Seller();
-    obj.setId(rs.getInt("Id"));
-    obj.setName(rs.getString("Name"));
-    obj.setEmail(rs.getString("Email"));
-    obj.setBaseSalary(rs.getDouble("BaseSalary"));
-    obj.setBirthDate(rs.getDate("BirthDate"));
-    obj.setDepartment(dep);
-    return obj;
+  @Override
+  public Map<Integer, Seller> findByIds(Collection<Integer> ids) {
+    return JdbcBatch.selectInChunks(provider, FIND_BY_IDS_METRICS, SellerRowMapper.SELECT + "WHERE seller.Id IN ",
+        ids, batchSize, SellerRowMapper::of, Seller::getId);
   }
 
   /**
-   * instantiateDepartment - Cria e retorna um objeto Department a partir dos dados obtidos de um ResultSet.
+   * bindSeller - Associa os campos de um vendedor aos parâmetros 1 a 5 de INSERT_SQL e UPDATE_SQL.
    *
-   * Este método é responsável por criar um objeto Department com base nas informações
-   * recuperadas de um ResultSet, incluindo o ID e o nome do departamento.
+   * @param st  O PreparedStatement a ser preenchido.
+   * @param obj O vendedor cujos campos serão gravados.
+   * @throws SQLException Lançada em caso de erro ao definir os parâmetros.
+   */
+  private void bindSeller(PreparedStatement st, Seller obj) throws SQLException {
+    st.setString(1, obj.getName());
+    st.setString(2, obj.getEmail());
+    st.setDate(3,new Date(obj.getBirthDate().getTime()));
+    st.setDouble(4, obj.getBaseSalary());
+    st.setInt(5, obj.getDepartment().getId());
+  }
+
+  /**
+   * Associa o ID e, com optimisticLocking, a versão esperada aos parâmetros finais do UPDATE.
+   */
+  private void bindKey(PreparedStatement st, int index, Seller obj) throws SQLException {
+    st.setInt(index, obj.getId());
+    if (optimisticLocking) {
+      st.setInt(index + 1, obj.getVersion());
+    }
+  }
+
+  /**
+   * Com optimisticLocking, a versão lida é obrigatória: sem ela, a conferência não teria com o que
+   * comparar e a gravação poderia sobrescrever a de outra operação.
+   */
+  private void requireVersion(Seller obj) {
+    if (optimisticLocking && obj.getVersion() == null) {
+      throw new IllegalArgumentException("Seller " + obj.getId() + " has no version; read it from the database"
+          + " before updating it with optimistic locking");
+    }
+  }
+
+  private boolean isConflict(int rows) {
+    return optimisticLocking && rows == 0;
+  }
+
+  /**
+   * Devolve o fim dos comandos de upsert aceito pelo banco, obtendo uma conexão só para verificá-lo.
+   */
+  private String upsertSuffix() {
+    if (upsertSuffix != null) {
+      return upsertSuffix;
+    }
+    Connection conn = null;
+    try {
+      conn = provider.getConnection();
+      return upsertSuffix(conn);
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeConnection(conn);
+    }
+  }
+
+  /**
+   * Devolve o fim dos comandos de upsert aceito pelo banco da conexão, verificado uma única vez.
+   */
+  private String upsertSuffix(Connection conn) throws SQLException {
+    String suffix = upsertSuffix;
+    if (suffix == null) {
+      suffix = supportsRowAlias(conn.getMetaData()) ? UPSERT_SUFFIX : LEGACY_UPSERT_SUFFIX;
+      upsertSuffix = suffix;
+    }
+    return suffix;
+  }
+
+  /**
+   * Informa se o banco aceita o alias de linha em {@code INSERT ... AS new ON DUPLICATE KEY UPDATE},
+   * o que vale para o MySQL a partir da 8.0.19.
+   */
+  static boolean supportsRowAlias(DatabaseMetaData meta) throws SQLException {
+    if (!"MySQL".equals(meta.getDatabaseProductName())) {
+      return false;
+    }
+    int major = meta.getDatabaseMajorVersion();
+    if (major != 8) {
+      return major > 8;
+    }
+    if (meta.getDatabaseMinorVersion() > 0) {
+      return true;
+    }
+    // Versões como "8.0.36" ou "8.0.36-0ubuntu0.22.04.1": o terceiro número é o patch.
+    String[] parts = meta.getDatabaseProductVersion().split("[.-]");
+    return parts.length > 2 && parts[2].matches("\\d+") && Integer.parseInt(parts[2]) >= 19;
+  }
+
+  /**
+   * Devolve a conexão ao auto-commit se o método abriu a própria transação, desfazendo o que não
+   * chegou ao commit.
+   */
+  private static void endTransaction(Connection conn, boolean ownTransaction) {
+    if (conn == null || !ownTransaction) {
+      return;
+    }
+    try {
+      if (!conn.getAutoCommit()) {
+        conn.rollback();
+        conn.setAutoCommit(true);
+      }
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+  }
+
+  /**
+   * Atualiza o objeto após uma gravação: avança a versão, acompanhando o banco, e limpa as alterações.
+   */
+  private static void written(Seller obj) {
+    if (obj.getVersion() != null) {
+      obj.setVersion(obj.getVersion() + 1);
+    }
+    obj.markClean();
+  }
+
+  /**
+   * Associa os campos indicados, na ordem das colunas, aos parâmetros a partir de {@code index}.
    *
-   * @param rs O ResultSet que contém os dados do departamento.
-   * @return Um objeto Department criado a partir dos dados no ResultSet.
-   * @throws SQLException Lançada em caso de erro ao acessar dados no ResultSet.
+   * @return O índice do próximo parâmetro.
    */
-  private Department instantiateDepartment(ResultSet rs) throws SQLException {
-    Department dep = new Department();
-    dep.setId(rs.getInt("DepartmentId"));
-    dep.setName(rs.getString("DepName"));
-    return dep;
+  private int bindFields(PreparedStatement st, int index, Seller obj, int fields) throws SQLException {
+    if ((fields & Seller.NAME) != 0) {
+      st.setString(index++, obj.getName());
+    }
+    if ((fields & Seller.EMAIL) != 0) {
+      st.setString(index++, obj.getEmail());
+    }
+    if ((fields & Seller.BIRTH_DATE) != 0) {
+      st.setDate(index++, new Date(obj.getBirthDate().getTime()));
+    }
+    if ((fields & Seller.BASE_SALARY) != 0) {
+      st.setDouble(index++, obj.getBaseSalary());
+    }
+    if ((fields & Seller.DEPARTMENT) != 0) {
+      st.setInt(index++, obj.getDepartment().getId());
+    }
+    return index;
   }
 
   /**
@@ -216,30 +775,156 @@ public class SellerDaoJDBC implements SellerDao {
    */
   @Override
   public List<Seller> findAll() {
+    return findSellers(FIND_ALL_METRICS, SellerRowMapper.SELECT + "ORDER BY seller.Name");
+  }
+
+  /**
+   * streamAll - Percorre todos os vendedores em ordem de nome, lendo as linhas sob demanda.
+   *
+   * A consulta usa fetch size ({@code useCursorFetch} no MySQL) para que o driver traga
+   * {@code fetchSize} linhas por vez em vez do resultado inteiro. A conexão fica emprestada enquanto
+   * o Stream estiver aberto. Os departamentos são deduplicados como em findAll, então a memória
+   * cresce com o número de departamentos, não de vendedores.
+   *
+   * @return Um Stream de objetos Seller; deve ser fechado (try-with-resources) se não for consumido até o fim.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public Stream<Seller> streamAll() {
+    long start = System.nanoTime();
+    long acquired = 0;
+    Connection conn = null;
     PreparedStatement st = null;
     ResultSet rs = null;
 
     try {
-      st = conn.prepareStatement(
-          "SELECT seller.*, department.Name as DepName "
-              + "FROM seller INNER JOIN department "
-              + "ON seller.DepartmentId = department.Id "
-              + "ORDER BY Name");
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      // Statement fora do cache: o fetch size não deve vazar para findAll, que usa o mesmo SQL.
+      st = conn.prepareStatement(SellerRowMapper.SELECT + "ORDER BY seller.Name",
+          ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      st.setFetchSize(fetchSize);
+      rs = st.executeQuery();
+      long executed = System.nanoTime();
+
+      return ResultSetStream.of(conn, st, rs, STREAM_ALL_METRICS, start, acquired, executed, SellerRowMapper.of(rs));
+    }
+    catch (SQLException e) {
+      DB.closeResultSet(rs);
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+      STREAM_ALL_METRICS.record(start, acquired, 0, OperationMetrics.FAILED);
+      throw new DbException(e.getMessage());
+    }
+  }
 
+  /**
+   * findAllColumnar - Lê todos os vendedores direto para arrays primitivos, sem criar objetos Seller.
+   *
+   * Busca só as colunas de seller (sem a junção com department) em ordem de ID, com fetch size como
+   * em streamAll. A capacidade inicial das colunas vem de um {@code COUNT(*)} para evitar cópias
+   * ao crescer.
+   *
+   * @return As colunas de todos os vendedores.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public SellerColumns findAllColumnar() {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    ResultSet rs = null;
+
+    try {
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      int expected = 0;
+      st = conn.prepareStatement("SELECT COUNT(*) FROM seller");
       rs = st.executeQuery();
-      List<Seller> list = new ArrayList<>();
-      Map<Integer, Department> map = new HashMap<>();
+      if (rs.next()) {
+        expected = rs.getInt(1);
+      }
+      DB.closeResultSet(rs);
+      DB.closeStatement(st);
+      rs = null;
+      st = null;
+
+      st = conn.prepareStatement(
+          "SELECT Id, Name, Email, BirthDate, BaseSalary, DepartmentId FROM seller ORDER BY Id",
+          ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      st.setFetchSize(fetchSize);
+      rs = st.executeQuery();
+      executed = System.nanoTime();
 
+      SellerColumns.Builder builder = new SellerColumns.Builder(expected);
       while (rs.next()) {
-        Department dep = map.get(rs.getInt("DepartmentId"));
+        builder.add(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getObject(4, LocalDate.class).toEpochDay(),
+            rs.getDouble(5),
+            rs.getInt(6));
+      }
+      SellerColumns columns = builder.build();
+      rows = columns.size();
+      return columns;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      FIND_ALL_COLUMNAR_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * partitionById - Divide o intervalo entre {@code MIN(Id)} e {@code MAX(Id)}, lidos pela chave
+   * primária, em intervalos de mesma largura. A última parte fica aberta ({@code toId} nulo), de modo
+   * que vendedores inseridos acima de {@code MAX(Id)} durante a leitura também são lidos.
+   *
+   * @param partitions O número de partes.
+   * @return As partes, em ordem de ID; vazia se a tabela estiver vazia.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public List<SellerPartition> partitionById(int partitions) {
+    if (partitions <= 0) {
+      throw new IllegalArgumentException("partitions must be positive: " + partitions);
+    }
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    ResultSet rs = null;
 
-        if (dep == null) {
-          dep = instantiateDepartment(rs);
-          map.put(rs.getInt("DepartmentId"), dep);
+    try {
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement("SELECT MIN(Id), MAX(Id) FROM seller");
+      rs = st.executeQuery();
+      executed = System.nanoTime();
+      List<SellerPartition> list = new ArrayList<>(partitions);
+      if (rs.next() && rs.getObject(1) != null) {
+        long min = rs.getLong(1);
+        long max = rs.getLong(2);
+        long width = Math.max(1, (max - min + partitions) / partitions);
+        for (long from = min; from <= max; from += width) {
+          long to = from + width;
+          list.add(to > max
+              ? new SellerPartition((int) from, null, null)
+              : SellerPartition.ofIdRange((int) from, (int) to));
         }
-        Seller obj = instantiateSeller(rs, dep);
-        list.add(obj);
       }
+      rows = list.size();
       return list;
     }
     catch (SQLException e) {
@@ -248,6 +933,193 @@ public class SellerDaoJDBC implements SellerDao {
     finally {
       DB.closeStatement(st);
       DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      PARTITION_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * partitionByDepartment - Lê os departamentos com vendedores pelo índice de DepartmentId.
+   *
+   * @return As partes, em ordem de ID do departamento.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public List<SellerPartition> partitionByDepartment() {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    ResultSet rs = null;
+
+    try {
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement("SELECT DISTINCT DepartmentId FROM seller ORDER BY DepartmentId");
+      rs = st.executeQuery();
+      executed = System.nanoTime();
+      List<SellerPartition> list = new ArrayList<>();
+      while (rs.next()) {
+        list.add(SellerPartition.ofDepartment(rs.getInt(1)));
+      }
+      rows = list.size();
+      return list;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      PARTITION_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * findByPartition - Busca os vendedores da parte em ordem de ID. Intervalos de ID usam a chave
+   * primária; partes por departamento usam o índice de DepartmentId.
+   *
+   * @param partition A parte a ser lida.
+   * @return Os vendedores da parte.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public List<Seller> findByPartition(SellerPartition partition) {
+    StringJoiner where = new StringJoiner(" AND ", "WHERE ", " ").setEmptyValue("");
+    List<Object> params = new ArrayList<>(3);
+    if (partition.fromId() != null) {
+      where.add("seller.Id >= ?");
+      params.add(partition.fromId());
+    }
+    if (partition.toId() != null) {
+      where.add("seller.Id < ?");
+      params.add(partition.toId());
+    }
+    if (partition.departmentId() != null) {
+      where.add("seller.DepartmentId = ?");
+      params.add(partition.departmentId());
+    }
+    return findSellers(FIND_BY_PARTITION_METRICS,
+        SellerRowMapper.SELECT + where + "ORDER BY seller.Id", params.toArray());
+  }
+
+  /**
+   * parallelScan - Lê as partes em um Stream paralelo, uma consulta findByPartition por parte.
+   * As threads do ForkJoinPool comum ocupam uma conexão cada enquanto leem uma parte.
+   *
+   * @param partitions As partes a serem lidas.
+   * @return Um Stream paralelo com os vendedores de todas as partes.
+   */
+  @Override
+  public Stream<Seller> parallelScan(List<SellerPartition> partitions) {
+    return PartitionedScan.stream(partitions, this::findByPartition);
+  }
+
+  /**
+   * scanPartitions - Lê as partes em threads virtuais, com até parallelism consultas ao mesmo tempo.
+   *
+   * @param partitions  As partes a serem lidas.
+   * @param parallelism O número máximo de partes lidas ao mesmo tempo.
+   * @param action      O callback que recebe a parte e os seus vendedores.
+   * @throws DbException Lançada se a leitura de alguma parte falhar; as partes que ainda não começaram são ignoradas.
+   */
+  @Override
+  public void scanPartitions(List<SellerPartition> partitions, int parallelism,
+                             BiConsumer<SellerPartition, List<Seller>> action) {
+    PartitionedScan.forEach(partitions, parallelism, this::findByPartition, action);
+  }
+
+  /**
+   * salaryStatsByDepartment - Agrupa os salários por departamento no banco de dados, de modo que
+   * só uma linha por departamento trafega pela rede.
+   *
+   * @return Uma lista de SalaryStats, um por departamento, com birthYearFrom igual a {@link SalaryStats#ALL_YEARS}.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public List<SalaryStats> salaryStatsByDepartment() {
+    return findSalaryStats(SALARY_STATS_METRICS,
+        "SELECT DepartmentId, COUNT(*), SUM(BaseSalary), AVG(BaseSalary), MIN(BaseSalary), MAX(BaseSalary) "
+            + "FROM seller "
+            + "GROUP BY DepartmentId "
+            + "ORDER BY DepartmentId", false);
+  }
+
+  /**
+   * salaryStatsByDepartment - Agrupa os salários por departamento e por faixa de ano de nascimento
+   * no banco de dados. A faixa de cada vendedor começa em {@code FLOOR(YEAR(BirthDate) / bucket) * bucket}.
+   *
+   * @param birthYearBucket O tamanho das faixas em anos.
+   * @return Uma lista de SalaryStats, um por departamento e faixa.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public List<SalaryStats> salaryStatsByDepartment(int birthYearBucket) {
+    if (birthYearBucket <= 0) {
+      throw new IllegalArgumentException("birthYearBucket must be positive: " + birthYearBucket);
+    }
+    // O tamanho da faixa vai no texto do SQL: com parâmetros, a expressão do SELECT e a do GROUP BY
+    // não seriam reconhecidas como iguais pelo ONLY_FULL_GROUP_BY do MySQL.
+    String bucket = "FLOOR(YEAR(BirthDate) / " + birthYearBucket + ") * " + birthYearBucket;
+    return findSalaryStats(SALARY_STATS_BY_BIRTH_YEAR_METRICS,
+        "SELECT DepartmentId, COUNT(*), SUM(BaseSalary), AVG(BaseSalary), MIN(BaseSalary), MAX(BaseSalary), "
+            + bucket + " AS BirthYearFrom "
+            + "FROM seller "
+            + "GROUP BY DepartmentId, " + bucket + " "
+            + "ORDER BY DepartmentId, BirthYearFrom", true);
+  }
+
+  /**
+   * findSalaryStats - Executa uma consulta de agregação de salários e converte cada linha em SalaryStats.
+   *
+   * @param metrics  As métricas da operação que está consultando.
+   * @param sql      A consulta, com DepartmentId, COUNT, SUM, AVG, MIN e MAX nas colunas 1 a 6
+   *                 e, se bucketed, o início da faixa de ano na coluna 7.
+   * @param bucketed Se a consulta agrupa também por faixa de ano de nascimento.
+   * @return Uma lista de SalaryStats.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  private List<SalaryStats> findSalaryStats(OperationMetrics metrics, String sql, boolean bucketed) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    ResultSet rs = null;
+
+    try {
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement(sql);
+      rs = st.executeQuery();
+      executed = System.nanoTime();
+      List<SalaryStats> list = new ArrayList<>();
+
+      while (rs.next()) {
+        list.add(new SalaryStats(
+            rs.getInt(1),
+            bucketed ? rs.getInt(7) : SalaryStats.ALL_YEARS,
+            rs.getLong(2),
+            rs.getDouble(3),
+            rs.getDouble(4),
+            rs.getDouble(5),
+            rs.getDouble(6)));
+      }
+      rows = list.size();
+      return list;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      metrics.record(start, acquired, executed, rows);
     }
   }
 
@@ -260,32 +1132,120 @@ public class SellerDaoJDBC implements SellerDao {
    */
   @Override
   public List<Seller> findByDepartment(Department department) {
+    return findSellers(FIND_BY_DEPARTMENT_METRICS,
+        SellerRowMapper.SELECT + "WHERE seller.DepartmentId = ? ORDER BY seller.Name", department.getId());
+  }
+
+  /**
+   * findPage - Busca uma página de vendedores ordenados por nome e ID a partir de um cursor.
+   *
+   * Usa um predicado de busca ({@code Name > ? OR (Name = ? AND Id > ?)}) em vez de OFFSET, apoiado
+   * pelo índice (Name, Id), de modo que páginas profundas custam o mesmo que a primeira. Nomes nulos
+   * vêm antes de todos os outros, como no índice.
+   *
+   * @param afterName O nome do último vendedor da página anterior, que pode ser null.
+   * @param afterId   O ID do último vendedor da página anterior, ou null para a primeira página.
+   * @param limit     O número máximo de vendedores na página.
+   * @return Uma lista com até limit objetos Seller posteriores ao cursor.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public List<Seller> findPage(String afterName, Integer afterId, int limit) {
+    checkLimit(limit);
+    if (afterId == null) {
+      return findSellers(FIND_PAGE_METRICS,
+          SellerRowMapper.SELECT
+              + "ORDER BY seller.Name, seller.Id "
+              + "LIMIT ?", limit);
+    }
+    if (afterName == null) {
+      return findSellers(FIND_PAGE_METRICS,
+          SellerRowMapper.SELECT
+              + "WHERE (seller.Name IS NULL AND seller.Id > ?) OR seller.Name IS NOT NULL "
+              + "ORDER BY seller.Name, seller.Id "
+              + "LIMIT ?", afterId, limit);
+    }
+    return findSellers(FIND_PAGE_METRICS,
+        SellerRowMapper.SELECT
+            + "WHERE seller.Name > ? OR (seller.Name = ? AND seller.Id > ?) "
+            + "ORDER BY seller.Name, seller.Id "
+            + "LIMIT ?", afterName, afterName, afterId, limit);
+  }
+
+  /**
+   * findByDepartment - Busca uma página de vendedores de um departamento ordenados por nome e ID
+   * a partir de um cursor, apoiada pelo índice (DepartmentId, Name, Id). Nomes nulos vêm antes de
+   * todos os outros, como em {@link #findPage}.
+   *
+   * @param department O departamento pelo qual deseja-se buscar vendedores.
+   * @param afterName  O nome do último vendedor da página anterior, que pode ser null.
+   * @param afterId    O ID do último vendedor da página anterior, ou null para a primeira página.
+   * @param limit      O número máximo de vendedores na página.
+   * @return Uma lista com até limit objetos Seller do departamento posteriores ao cursor.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  @Override
+  public List<Seller> findByDepartment(Department department, String afterName, Integer afterId, int limit) {
+    checkLimit(limit);
+    if (afterId == null) {
+      return findSellers(FIND_BY_DEPARTMENT_PAGE_METRICS,
+          SellerRowMapper.SELECT
+              + "WHERE seller.DepartmentId = ? "
+              + "ORDER BY seller.Name, seller.Id "
+              + "LIMIT ?", department.getId(), limit);
+    }
+    if (afterName == null) {
+      return findSellers(FIND_BY_DEPARTMENT_PAGE_METRICS,
+          SellerRowMapper.SELECT
+              + "WHERE seller.DepartmentId = ? "
+              + "AND ((seller.Name IS NULL AND seller.Id > ?) OR seller.Name IS NOT NULL) "
+              + "ORDER BY seller.Name, seller.Id "
+              + "LIMIT ?", department.getId(), afterId, limit);
+    }
+    return findSellers(FIND_BY_DEPARTMENT_PAGE_METRICS,
+        SellerRowMapper.SELECT
+            + "WHERE seller.DepartmentId = ? "
+            + "AND (seller.Name > ? OR (seller.Name = ? AND seller.Id > ?)) "
+            + "ORDER BY seller.Name, seller.Id "
+            + "LIMIT ?", department.getId(), afterName, afterName, afterId, limit);
+  }
+
+  /**
+   * findSellers - Executa uma consulta de vendedores com os parâmetros informados e monta a lista
+   * com um {@link SellerRowMapper}, que compartilha os objetos Department entre os vendedores do
+   * mesmo departamento.
+   *
+   * @param metrics As métricas da operação que está consultando.
+   * @param sql     A consulta SQL, iniciada por {@link SellerRowMapper#SELECT}.
+   * @param params  Os valores dos parâmetros da consulta, na ordem.
+   * @return Uma lista de objetos Seller.
+   * @throws DbException Lançada em caso de erro ao acessar o banco de dados.
+   */
+  private List<Seller> findSellers(OperationMetrics metrics, String sql, Object... params) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
     PreparedStatement st = null;
     ResultSet rs = null;
 
     try {
-      st = conn.prepareStatement(
-          "SELECT seller.*, department.Name as DepName "
-          + "FROM seller INNER JOIN department "
-          + "ON seller.DepartmentId = department.Id "
-          + "WHERE DepartmentId = ? "
-          + "ORDER BY Name");
-
-      st.setInt(1, department.getId());
+      conn = provider.getReadConnection();
+      acquired = System.nanoTime();
+      st = conn.prepareStatement(sql);
+      for (int i = 0; i < params.length; i++) {
+        st.setObject(i + 1, params[i]);
+      }
       rs = st.executeQuery();
+      executed = System.nanoTime();
       List<Seller> list = new ArrayList<>();
-      Map<Integer, Department> map = new HashMap<>();
+      SellerRowMapper mapper = SellerRowMapper.of(rs);
 
       while (rs.next()) {
-        Department dep = map.get(rs.getInt("DepartmentId"));
-
-        if (dep == null) {
-          dep = instantiateDepartment(rs);
-          map.put(rs.getInt("DepartmentId"), dep);
-        }
-        Seller obj = instantiateSeller(rs, dep);
-        list.add(obj);
+        list.add(mapper.map(rs));
       }
+      rows = list.size();
       return list;
     }
     catch (SQLException e) {
@@ -294,6 +1254,14 @@ public class SellerDaoJDBC implements SellerDao {
     finally {
       DB.closeStatement(st);
       DB.closeResultSet(rs);
+      DB.closeConnection(conn);
+      metrics.record(start, acquired, executed, rows);
+    }
+  }
+
+  private static void checkLimit(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be positive: " + limit);
     }
   }
 }
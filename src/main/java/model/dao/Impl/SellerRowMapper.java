@@ -0,0 +1,96 @@
+package model.dao.Impl;
+
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converte linhas de {@link #SELECT} (vendedor com o nome do departamento) em objetos Seller.
+ *
+ * Os índices das colunas são resolvidos na criação, uma vez por consulta, e cada linha é lida por
+ * posição. Os objetos Department são compartilhados entre os vendedores do mesmo departamento:
+ * linhas seguidas do mesmo departamento reutilizam o último, e os demais ficam em um mapa por ID.
+ * Um mapeador guarda estado e deve ser usado por uma única consulta.
+ */
+final class SellerRowMapper implements ResultSetStream.RowMapper<Seller> {
+  /**
+   * Início das consultas de vendedores: colunas explícitas e junção com department.
+   */
+  static final String SELECT =
+      "SELECT seller.Id, seller.Name, seller.Email, seller.BirthDate, seller.BaseSalary, "
+          + "seller.DepartmentId, seller.Version, department.Name AS DepName "
+          + "FROM seller INNER JOIN department "
+          + "ON seller.DepartmentId = department.Id ";
+
+  private final int id;
+  private final int name;
+  private final int email;
+  private final int birthDate;
+  private final int baseSalary;
+  private final int departmentId;
+  private final int version;
+  private final int depName;
+
+  private final Map<Integer, Department> departments = new HashMap<>();
+  private Department last;
+
+  private SellerRowMapper(ResultSetMetaData md) throws SQLException {
+    this.id = ColumnIndex.of(md, "Id");
+    this.name = ColumnIndex.of(md, "Name");
+    this.email = ColumnIndex.of(md, "Email");
+    this.birthDate = ColumnIndex.of(md, "BirthDate");
+    this.baseSalary = ColumnIndex.of(md, "BaseSalary");
+    this.departmentId = ColumnIndex.of(md, "DepartmentId");
+    this.version = ColumnIndex.of(md, "Version");
+    this.depName = ColumnIndex.of(md, "DepName");
+  }
+
+  /**
+   * Cria um mapeador para o ResultSet informado.
+   *
+   * @param rs O ResultSet da consulta.
+   * @return Um mapeador com os índices das colunas já resolvidos.
+   * @throws SQLException Lançada se alguma coluna esperada não fizer parte do resultado.
+   */
+  static SellerRowMapper of(ResultSet rs) throws SQLException {
+    return new SellerRowMapper(rs.getMetaData());
+  }
+
+  @Override
+  public Seller map(ResultSet rs) throws SQLException {
+    Seller obj = new Seller(
+        rs.getInt(id),
+        rs.getString(name),
+        rs.getString(email),
+        rs.getDate(birthDate),
+        rs.getDouble(baseSalary),
+        department(rs, rs.getInt(departmentId)));
+    obj.setVersion(rs.getInt(version));
+    obj.markClean();
+    return obj;
+  }
+
+  private Department department(ResultSet rs, int depId) throws SQLException {
+    if (last != null && last.getId() == depId) {
+      return last;
+    }
+    Department dep = departments.get(depId);
+    if (dep == null) {
+      dep = loadedDepartment(depId, rs.getString(depName));
+      departments.put(depId, dep);
+    }
+    last = dep;
+    return dep;
+  }
+
+  private static Department loadedDepartment(int depId, String depName) {
+    Department dep = new Department(depId, depName);
+    dep.markClean();
+    return dep;
+  }
+}
@@ -0,0 +1,81 @@
+package model.dao.Impl;
+
+import database.DbException;
+import database.ReadYourWrites;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Executor das operações assíncronas dos DAOs: cada tarefa roda em uma thread virtual própria,
+ * e um semáforo limita quantas tarefas acessam o banco ao mesmo tempo.
+ *
+ * O limite costuma ser o tamanho máximo do pool de conexões, de modo que milhares de chamadas
+ * concorrentes esperam no semáforo (barato para threads virtuais) em vez de disputar conexões
+ * ou ocupar threads de plataforma. Cada tarefa leva a marca de {@link ReadYourWrites} da thread que
+ * a enviou, para ler do primário logo depois das escritas dessa thread, e devolve a ela a marca
+ * das escritas que fizer.
+ */
+public class VirtualThreadExecutor implements AutoCloseable {
+  private final ExecutorService executor;
+  private final Semaphore permits;
+
+  /**
+   * Construtor da classe VirtualThreadExecutor.
+   *
+   * @param maxConcurrency O número máximo de tarefas executando ao mesmo tempo.
+   */
+  public VirtualThreadExecutor(int maxConcurrency) {
+    this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-async-", 0).factory());
+    this.permits = new Semaphore(maxConcurrency, true);
+  }
+
+  /**
+   * Executa uma operação de DAO em uma thread virtual, respeitando o limite de concorrência.
+   *
+   * @param task A operação a ser executada.
+   * @return Um CompletableFuture com o resultado da operação, ou concluído com a exceção lançada.
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> task) {
+    Supplier<T> propagated = ReadYourWrites.propagateAndReport(task);
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        permits.acquire();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new DbException("Interrupted while waiting to run a DAO operation");
+      }
+      try {
+        return propagated.get();
+      }
+      finally {
+        permits.release();
+      }
+    }, executor);
+  }
+
+  /**
+   * Executa uma operação de DAO sem retorno em uma thread virtual.
+   *
+   * @param task A operação a ser executada.
+   * @return Um CompletableFuture concluído quando a operação terminar.
+   */
+  public CompletableFuture<Void> run(Runnable task) {
+    return submit(() -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Deixa de aceitar novas tarefas e espera as tarefas em andamento terminarem.
+   */
+  @Override
+  public void close() {
+    executor.close();
+  }
+}
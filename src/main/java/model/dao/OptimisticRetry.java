@@ -0,0 +1,83 @@
+package model.dao;
+
+import database.DbConcurrencyException;
+import database.DbException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Repete uma operação que falhou por conflito de concorrência otimista.
+ *
+ * A operação deve reler as entidades a cada tentativa, para partir da versão atual, por exemplo:
+ * <pre>{@code
+ * OptimisticRetry.run(5, () -> {
+ *   Seller seller = sellerDao.findById(id);
+ *   seller.setBaseSalary(seller.getBaseSalary() * 1.1);
+ *   sellerDao.update(seller);
+ * });
+ * }</pre>
+ * Entre as tentativas há uma espera aleatória, que cresce exponencialmente até 200 ms, para que
+ * escritores concorrentes não voltem a colidir no mesmo instante. Somente DbConcurrencyException
+ * provoca nova tentativa; outras exceções são repassadas imediatamente. Com {@link DaoFactory#callInTransaction}
+ * dentro da operação, cada tentativa é uma transação nova.
+ */
+public final class OptimisticRetry {
+  private static final long BASE_BACKOFF_MS = 5;
+  private static final long MAX_BACKOFF_MS = 200;
+
+  private OptimisticRetry() {
+  }
+
+  /**
+   * Executa a operação, repetindo-a em caso de conflito.
+   *
+   * @param maxAttempts O número máximo de tentativas, incluindo a primeira.
+   * @param work        A operação.
+   * @throws DbConcurrencyException Lançada se a última tentativa também entrar em conflito.
+   */
+  public static void run(int maxAttempts, Runnable work) {
+    call(maxAttempts, () -> {
+      work.run();
+      return null;
+    });
+  }
+
+  /**
+   * Executa a operação e retorna o seu resultado, repetindo-a em caso de conflito.
+   *
+   * @param maxAttempts O número máximo de tentativas, incluindo a primeira.
+   * @param work        A operação.
+   * @param <T>         O tipo do resultado.
+   * @return O valor retornado pela tentativa bem-sucedida.
+   * @throws DbConcurrencyException Lançada se a última tentativa também entrar em conflito.
+   * @throws DbException            Lançada se a thread for interrompida durante a espera.
+   */
+  public static <T> T call(int maxAttempts, Supplier<T> work) {
+    if (maxAttempts <= 0) {
+      throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+    }
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return work.get();
+      }
+      catch (DbConcurrencyException e) {
+        if (attempt >= maxAttempts) {
+          throw e;
+        }
+        backoff(attempt);
+      }
+    }
+  }
+
+  private static void backoff(int attempt) {
+    long limit = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 1, 16));
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(limit + 1));
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DbException("Interrupted while waiting to retry after a concurrency conflict");
+    }
+  }
+}
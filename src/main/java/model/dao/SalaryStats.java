@@ -0,0 +1,21 @@
+package model.dao;
+
+/**
+ * Estatísticas de salário base de um grupo de vendedores, calculadas pelo banco de dados.
+ *
+ * @param departmentId  O ID do departamento do grupo.
+ * @param birthYearFrom O primeiro ano de nascimento da faixa do grupo, ou {@link #ALL_YEARS}
+ *                      quando o agrupamento é só por departamento.
+ * @param count         O número de vendedores do grupo.
+ * @param total         A soma dos salários.
+ * @param average       A média dos salários.
+ * @param min           O menor salário.
+ * @param max           O maior salário.
+ */
+public record SalaryStats(int departmentId, int birthYearFrom, long count,
+                          double total, double average, double min, double max) {
+  /**
+   * Valor de {@code birthYearFrom} quando o grupo inclui todos os anos de nascimento.
+   */
+  public static final int ALL_YEARS = Integer.MIN_VALUE;
+}
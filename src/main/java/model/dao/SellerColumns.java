@@ -0,0 +1,205 @@
+package model.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vendedores em formato colunar, para relatórios e análises sobre muitas linhas.
+ *
+ * Cada coluna é um array primitivo em que a posição {@code i} corresponde ao i-ésimo vendedor.
+ * Nomes e e-mails são codificados por dicionário: {@link #getNameCodes()} guarda, para cada linha,
+ * a posição do valor em {@link #getNameDictionary()}, de modo que valores repetidos são armazenados
+ * uma única vez. As datas de nascimento são dias desde 1970-01-01 ({@link LocalDate#toEpochDay()}).
+ *
+ * Os arrays retornados pelos getters têm exatamente {@link #size()} posições e não são copiados:
+ * não devem ser alterados.
+ */
+public class SellerColumns {
+  private final int size;
+  private final int[] ids;
+  private final int[] departmentIds;
+  private final double[] salaries;
+  private final long[] birthDateEpochDays;
+  private final int[] nameCodes;
+  private final String[] nameDictionary;
+  private final int[] emailCodes;
+  private final String[] emailDictionary;
+
+  private SellerColumns(Builder b) {
+    this.size = b.size;
+    this.ids = Arrays.copyOf(b.ids, b.size);
+    this.departmentIds = Arrays.copyOf(b.departmentIds, b.size);
+    this.salaries = Arrays.copyOf(b.salaries, b.size);
+    this.birthDateEpochDays = Arrays.copyOf(b.birthDateEpochDays, b.size);
+    this.nameCodes = Arrays.copyOf(b.nameCodes, b.size);
+    this.nameDictionary = b.names.values.toArray(new String[0]);
+    this.emailCodes = Arrays.copyOf(b.emailCodes, b.size);
+    this.emailDictionary = b.emails.values.toArray(new String[0]);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int[] getIds() {
+    return ids;
+  }
+
+  public int[] getDepartmentIds() {
+    return departmentIds;
+  }
+
+  public double[] getSalaries() {
+    return salaries;
+  }
+
+  public long[] getBirthDateEpochDays() {
+    return birthDateEpochDays;
+  }
+
+  public int[] getNameCodes() {
+    return nameCodes;
+  }
+
+  public String[] getNameDictionary() {
+    return nameDictionary;
+  }
+
+  public int[] getEmailCodes() {
+    return emailCodes;
+  }
+
+  public String[] getEmailDictionary() {
+    return emailDictionary;
+  }
+
+  /**
+   * Decodifica o nome de uma linha.
+   *
+   * @param row A posição do vendedor.
+   * @return O nome do vendedor.
+   */
+  public String getName(int row) {
+    return nameDictionary[nameCodes[row]];
+  }
+
+  /**
+   * Decodifica o e-mail de uma linha.
+   *
+   * @param row A posição do vendedor.
+   * @return O e-mail do vendedor.
+   */
+  public String getEmail(int row) {
+    return emailDictionary[emailCodes[row]];
+  }
+
+  /**
+   * Converte a data de nascimento de uma linha.
+   *
+   * @param row A posição do vendedor.
+   * @return A data de nascimento do vendedor.
+   */
+  public LocalDate getBirthDate(int row) {
+    return LocalDate.ofEpochDay(birthDateEpochDays[row]);
+  }
+
+  @Override
+  public String toString() {
+    return "SellerColumns{" +
+        "size=" + size +
+        ", distinctNames=" + nameDictionary.length +
+        ", distinctEmails=" + emailDictionary.length +
+        '}';
+  }
+
+  /**
+   * Monta um SellerColumns linha a linha, aumentando os arrays conforme necessário.
+   */
+  public static class Builder {
+    private int size;
+    private int[] ids;
+    private int[] departmentIds;
+    private double[] salaries;
+    private long[] birthDateEpochDays;
+    private int[] nameCodes;
+    private int[] emailCodes;
+    private final Dictionary names = new Dictionary();
+    private final Dictionary emails = new Dictionary();
+
+    /**
+     * Construtor da classe Builder.
+     *
+     * @param expectedRows A capacidade inicial das colunas.
+     */
+    public Builder(int expectedRows) {
+      int capacity = Math.max(16, expectedRows);
+      ids = new int[capacity];
+      departmentIds = new int[capacity];
+      salaries = new double[capacity];
+      birthDateEpochDays = new long[capacity];
+      nameCodes = new int[capacity];
+      emailCodes = new int[capacity];
+    }
+
+    /**
+     * Acrescenta um vendedor.
+     *
+     * @param id                O ID do vendedor.
+     * @param name              O nome do vendedor.
+     * @param email             O e-mail do vendedor.
+     * @param birthDateEpochDay A data de nascimento em dias desde 1970-01-01.
+     * @param salary            O salário base do vendedor.
+     * @param departmentId      O ID do departamento do vendedor.
+     * @return Este Builder.
+     */
+    public Builder add(int id, String name, String email, long birthDateEpochDay, double salary, int departmentId) {
+      if (size == ids.length) {
+        grow();
+      }
+      ids[size] = id;
+      nameCodes[size] = names.encode(name);
+      emailCodes[size] = emails.encode(email);
+      birthDateEpochDays[size] = birthDateEpochDay;
+      salaries[size] = salary;
+      departmentIds[size] = departmentId;
+      size++;
+      return this;
+    }
+
+    public SellerColumns build() {
+      return new SellerColumns(this);
+    }
+
+    private void grow() {
+      int capacity = ids.length * 2;
+      ids = Arrays.copyOf(ids, capacity);
+      departmentIds = Arrays.copyOf(departmentIds, capacity);
+      salaries = Arrays.copyOf(salaries, capacity);
+      birthDateEpochDays = Arrays.copyOf(birthDateEpochDays, capacity);
+      nameCodes = Arrays.copyOf(nameCodes, capacity);
+      emailCodes = Arrays.copyOf(emailCodes, capacity);
+    }
+  }
+
+  /**
+   * Associa cada valor distinto a um código sequencial.
+   */
+  private static final class Dictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    private int encode(String value) {
+      Integer code = codes.get(value);
+      if (code == null) {
+        code = values.size();
+        codes.put(value, code);
+        values.add(value);
+      }
+      return code;
+    }
+  }
+}
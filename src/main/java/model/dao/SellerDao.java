@@ -3,7 +3,11 @@ package model.dao;
 import model.entities.Department;
 import model.entities.Seller;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * Esta interface define métodos para acessar e manipular dados de vendedores (Seller) no banco de dados.
@@ -30,6 +34,94 @@ public interface SellerDao {
    */
   void deleteById(Integer id);
 
+  /**
+   * Remove um vendedor do banco de dados somente se a sua versão no banco for a informada.
+   *
+   * @param id      O ID do vendedor a ser removido do banco de dados.
+   * @param version A versão lida do vendedor; com null, a versão não é conferida.
+   * @throws database.DbConcurrencyException Lançada se o vendedor foi alterado ou removido depois de lido.
+   */
+  void deleteById(Integer id, Integer version);
+
+  /**
+   * Insere o vendedor ou, se já existir um vendedor com o mesmo e-mail, atualiza os demais campos dele.
+   *
+   * @param obj O vendedor a ser gravado; recebe o ID da linha inserida ou atualizada.
+   * @return true se o vendedor foi inserido; false se já existia e foi atualizado.
+   */
+  boolean upsert(Seller obj);
+
+  /**
+   * Insere ou atualiza vários vendedores, identificados pelo e-mail, em blocos do tamanho padrão do DAO.
+   *
+   * @param list Os vendedores a serem gravados.
+   * @return O resultado da operação, com as quantidades inseridas e atualizadas e as falhas de cada bloco.
+   */
+  UpsertResult upsertAll(Collection<Seller> list);
+
+  /**
+   * Insere ou atualiza vários vendedores, identificados pelo e-mail, em blocos do tamanho informado.
+   *
+   * @param list      Os vendedores a serem gravados.
+   * @param chunkSize O número máximo de registros por comando.
+   * @return O resultado da operação, com as quantidades inseridas e atualizadas e as falhas de cada bloco.
+   */
+  UpsertResult upsertAll(Collection<Seller> list, int chunkSize);
+
+  /**
+   * Insere vários vendedores no banco de dados usando JDBC batch, em blocos do tamanho padrão do DAO.
+   * Os IDs gerados são atribuídos a cada objeto, como em insert.
+   *
+   * @param list Os objetos Seller a serem inseridos.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult insertAll(Collection<Seller> list);
+
+  /**
+   * Insere vários vendedores no banco de dados usando JDBC batch, em blocos do tamanho informado.
+   *
+   * @param list      Os objetos Seller a serem inseridos.
+   * @param chunkSize O número máximo de registros por bloco.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult insertAll(Collection<Seller> list, int chunkSize);
+
+  /**
+   * Atualiza vários vendedores no banco de dados usando JDBC batch, em blocos do tamanho padrão do DAO.
+   * Cada vendedor grava só os próprios campos alterados ({@link Seller#getDirtyFields()}).
+   *
+   * @param list Os objetos Seller com as informações atualizadas.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult updateAll(Collection<Seller> list);
+
+  /**
+   * Atualiza vários vendedores no banco de dados usando JDBC batch, em blocos do tamanho informado.
+   * Cada vendedor grava só os próprios campos alterados ({@link Seller#getDirtyFields()}).
+   *
+   * @param list      Os objetos Seller com as informações atualizadas.
+   * @param chunkSize O número máximo de registros por bloco.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult updateAll(Collection<Seller> list, int chunkSize);
+
+  /**
+   * Remove vários vendedores do banco de dados com base em seus IDs, em blocos do tamanho padrão do DAO.
+   *
+   * @param ids Os IDs dos vendedores a serem removidos.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult deleteByIds(Collection<Integer> ids);
+
+  /**
+   * Remove vários vendedores do banco de dados com base em seus IDs, em blocos do tamanho informado.
+   *
+   * @param ids       Os IDs dos vendedores a serem removidos.
+   * @param chunkSize O número máximo de IDs por comando.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  BatchResult deleteByIds(Collection<Integer> ids, int chunkSize);
+
   /**
    * Busca um vendedor no banco de dados com base em seu ID.
    *
@@ -38,6 +130,14 @@ public interface SellerDao {
    */
   Seller findById(Integer id);
 
+  /**
+   * Busca vários vendedores pelos IDs em poucas consultas, em vez de uma consulta por ID.
+   *
+   * @param ids Os IDs dos vendedores que se deseja buscar.
+   * @return Um mapa do ID para o vendedor; IDs não encontrados ficam de fora do mapa.
+   */
+  Map<Integer, Seller> findByIds(Collection<Integer> ids);
+
   /**
    * Recupera todos os vendedores existentes no banco de dados.
    *
@@ -45,6 +145,86 @@ public interface SellerDao {
    */
   List<Seller> findAll();
 
+  /**
+   * Percorre todos os vendedores em ordem de nome sem carregar a tabela inteira em memória.
+   * O Stream mantém uma conexão aberta até ser fechado ou consumido até o fim, por isso deve ser
+   * usado com try-with-resources.
+   *
+   * @return Um Stream de objetos Seller lidos sob demanda do banco de dados.
+   */
+  Stream<Seller> streamAll();
+
+  /**
+   * Lê todos os vendedores em formato colunar (arrays primitivos e nomes/e-mails codificados por
+   * dicionário), ordenados por ID. Indicado para relatórios que percorrem a tabela inteira, pois não
+   * cria um objeto Seller por linha.
+   *
+   * @return As colunas de todos os vendedores.
+   */
+  SellerColumns findAllColumnar();
+
+  /**
+   * Divide a tabela em intervalos de ID de mesma largura, entre o menor e o maior ID existentes.
+   * Com IDs esparsos, as partes podem ter tamanhos diferentes; pedir mais partes do que threads
+   * equilibra melhor a leitura. A última parte não tem limite superior.
+   *
+   * @param partitions O número de partes.
+   * @return As partes, em ordem de ID; vazia se a tabela estiver vazia.
+   */
+  List<SellerPartition> partitionById(int partitions);
+
+  /**
+   * Divide a tabela em uma parte por departamento com vendedores.
+   *
+   * @return As partes, em ordem de ID do departamento.
+   */
+  List<SellerPartition> partitionByDepartment();
+
+  /**
+   * Busca os vendedores de uma parte da tabela, em ordem de ID.
+   *
+   * @param partition A parte a ser lida.
+   * @return Os vendedores da parte.
+   */
+  List<Seller> findByPartition(SellerPartition partition);
+
+  /**
+   * Percorre as partes em um Stream paralelo: cada parte é lida com {@link #findByPartition} em uma
+   * conexão própria, pela thread do ForkJoinPool que a recebeu. Os elementos seguem a ordem das
+   * partes em operações que respeitam a ordem, como forEachOrdered e collect.
+   *
+   * @param partitions As partes a serem lidas, por exemplo de {@link #partitionById(int)}.
+   * @return Um Stream paralelo com os vendedores de todas as partes.
+   */
+  Stream<Seller> parallelScan(List<SellerPartition> partitions);
+
+  /**
+   * Lê as partes em paralelo, em threads virtuais, e entrega cada parte ao callback na thread que
+   * a leu. Bloqueia até todas as partes serem processadas.
+   *
+   * @param partitions  As partes a serem lidas.
+   * @param parallelism O número máximo de partes lidas ao mesmo tempo (e de conexões ocupadas).
+   * @param action      O callback que recebe a parte e os seus vendedores; pode ser chamado por várias threads ao mesmo tempo.
+   */
+  void scanPartitions(List<SellerPartition> partitions, int parallelism, BiConsumer<SellerPartition, List<Seller>> action);
+
+  /**
+   * Calcula no banco de dados as estatísticas de salário base (COUNT, SUM, AVG, MIN e MAX)
+   * de cada departamento.
+   *
+   * @return Uma linha por departamento com vendedores, em ordem de ID do departamento.
+   */
+  List<SalaryStats> salaryStatsByDepartment();
+
+  /**
+   * Calcula no banco de dados as estatísticas de salário base de cada departamento, separadas
+   * em faixas de ano de nascimento.
+   *
+   * @param birthYearBucket O tamanho das faixas em anos (por exemplo, 10 agrupa por década).
+   * @return Uma linha por departamento e faixa com vendedores, em ordem de departamento e faixa.
+   */
+  List<SalaryStats> salaryStatsByDepartment(int birthYearBucket);
+
   /**
    * Busca vendedores com base no departament especificado.
    *
@@ -52,4 +232,27 @@ public interface SellerDao {
    * @return Uma lista de objetos Seller contendo os vendedores que pertencem ao departamento especificado.
    */
   List<Seller> findByDepartment(Department department);
+
+  /**
+   * Busca uma página de vendedores ordenados por nome e ID, a partir de um cursor (keyset).
+   * Para a primeira página, informe afterId nulo; para as seguintes, informe o nome (mesmo que
+   * nulo) e o ID do último vendedor da página anterior. Nomes nulos vêm antes dos demais.
+   *
+   * @param afterName O nome do último vendedor da página anterior, que pode ser null.
+   * @param afterId   O ID do último vendedor da página anterior, ou null para a primeira página.
+   * @param limit     O número máximo de vendedores na página.
+   * @return Uma lista com até limit objetos Seller posteriores ao cursor.
+   */
+  List<Seller> findPage(String afterName, Integer afterId, int limit);
+
+  /**
+   * Busca uma página de vendedores de um departamento, ordenados por nome e ID, a partir de um cursor (keyset).
+   *
+   * @param department O departamento pelo qual deseja-se buscar vendedores.
+   * @param afterName  O nome do último vendedor da página anterior, que pode ser null.
+   * @param afterId    O ID do último vendedor da página anterior, ou null para a primeira página.
+   * @param limit      O número máximo de vendedores na página.
+   * @return Uma lista com até limit objetos Seller do departamento posteriores ao cursor.
+   */
+  List<Seller> findByDepartment(Department department, String afterName, Integer afterId, int limit);
 }
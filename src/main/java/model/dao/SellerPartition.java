@@ -0,0 +1,32 @@
+package model.dao;
+
+/**
+ * Uma parte da tabela seller para leituras em paralelo: um intervalo de IDs, um departamento ou os
+ * dois. Campos nulos não restringem a parte.
+ *
+ * @param fromId       O menor ID da parte (inclusivo), ou null.
+ * @param toId         O ID em que a parte termina (exclusivo), ou null.
+ * @param departmentId O ID do departamento da parte, ou null.
+ */
+public record SellerPartition(Integer fromId, Integer toId, Integer departmentId) {
+  /**
+   * Cria a parte com os vendedores de ID em {@code [fromId, toId)}.
+   *
+   * @param fromId O menor ID da parte (inclusivo).
+   * @param toId   O ID em que a parte termina (exclusivo).
+   * @return A parte.
+   */
+  public static SellerPartition ofIdRange(int fromId, int toId) {
+    return new SellerPartition(fromId, toId, null);
+  }
+
+  /**
+   * Cria a parte com os vendedores de um departamento.
+   *
+   * @param departmentId O ID do departamento.
+   * @return A parte.
+   */
+  public static SellerPartition ofDepartment(int departmentId) {
+    return new SellerPartition(null, null, departmentId);
+  }
+}
@@ -0,0 +1,44 @@
+package model.dao;
+
+import database.PinnedConnectionProvider;
+import model.dao.Impl.DepartmentDaoJDBC;
+import model.dao.Impl.SellerDaoJDBC;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Escopo de uma transação aberta por {@link DaoFactory#inTransaction(Consumer)} ou
+ * {@link DaoFactory#callInTransaction(Function)}.
+ *
+ * Os DAOs retornados compartilham uma única conexão do pool primário em modo manual de commit:
+ * nada é confirmado até o fim do bloco, e uma exceção desfaz tudo. Esses DAOs acessam o banco
+ * diretamente, sem cache nem agrupamento de findById, e não devem ser usados fora do bloco.
+ */
+public class Transaction {
+  private final SellerDao sellers;
+  private final DepartmentDao departments;
+
+  Transaction(PinnedConnectionProvider provider, int batchSize, int fetchSize, boolean optimisticLocking) {
+    this.sellers = new SellerDaoJDBC(provider, batchSize, fetchSize, optimisticLocking);
+    this.departments = new DepartmentDaoJDBC(provider, batchSize, optimisticLocking);
+  }
+
+  /**
+   * Retorna o SellerDao da transação.
+   *
+   * @return Um SellerDao que usa a conexão da transação.
+   */
+  public SellerDao sellers() {
+    return sellers;
+  }
+
+  /**
+   * Retorna o DepartmentDao da transação.
+   *
+   * @return Um DepartmentDao que usa a conexão da transação.
+   */
+  public DepartmentDao departments() {
+    return departments;
+  }
+}
@@ -0,0 +1,53 @@
+package model.dao;
+
+/**
+ * Resultado de uma operação upsertAll: além do que {@link BatchResult} informa, separa os registros
+ * que foram inseridos dos que já existiam e foram atualizados.
+ */
+public class UpsertResult extends BatchResult {
+  private int inserted;
+  private int updated;
+
+  /**
+   * Construtor da classe UpsertResult.
+   *
+   * @param totalRows O número de registros enviados na operação.
+   */
+  public UpsertResult(int totalRows) {
+    super(totalRows);
+  }
+
+  /**
+   * Registra um bloco executado com sucesso por um único {@code INSERT ... ON DUPLICATE KEY UPDATE}.
+   * O MySQL conta 1 linha afetada por registro inserido e 2 por registro atualizado, então as
+   * quantidades são deduzidas do total informado pelo comando.
+   *
+   * @param rows     O número de registros do bloco.
+   * @param affected O número de linhas afetadas informado pelo comando.
+   */
+  public void chunkSucceeded(int rows, int affected) {
+    int chunkUpdated = Math.max(0, Math.min(rows, affected - rows));
+    inserted += rows - chunkUpdated;
+    updated += chunkUpdated;
+    chunkSucceeded(rows);
+  }
+
+  public int getInserted() {
+    return inserted;
+  }
+
+  public int getUpdated() {
+    return updated;
+  }
+
+  @Override
+  public String toString() {
+    return "UpsertResult{" +
+        "totalRows=" + getTotalRows() +
+        ", inserted=" + inserted +
+        ", updated=" + updated +
+        ", chunks=" + getChunks() +
+        ", failures=" + getFailures() +
+        '}';
+  }
+}
@@ -0,0 +1,14 @@
+package model.dao.buffer;
+
+import model.entities.Seller;
+
+/**
+ * Um update do buffer de {@link WriteBehindSellerDao} que o banco recusou (por exemplo, por violar
+ * uma restrição) e que não será tentado de novo.
+ *
+ * @param seller   O estado do vendedor que não foi gravado.
+ * @param message  A mensagem de erro do banco.
+ * @param sqlState O SQLState do erro, ou null.
+ */
+public record RejectedUpdate(Seller seller, String message, String sqlState) {
+}
@@ -0,0 +1,619 @@
+package model.dao.buffer;
+
+import database.DbException;
+import model.dao.BatchResult;
+import model.dao.SalaryStats;
+import model.dao.SellerColumns;
+import model.dao.SellerDao;
+import model.dao.SellerPartition;
+import model.dao.UpsertResult;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de SellerDao que grava as chamadas de {@link #update(Seller)} em segundo plano.
+ *
+ * Cada update guarda uma cópia do vendedor em um buffer indexado pelo ID, de modo que várias
+ * alterações do mesmo vendedor antes da gravação resultam em um único UPDATE com o último estado.
+ * Os campos alterados de cada chamada ({@link Seller#getDirtyFields()}) são somados aos da versão
+ * já guardada, e vendedores sem alterações não entram no buffer.
+ *
+ * As gravações em segundo plano são "a última vence": a versão do vendedor não é conferida, já que
+ * um conflito não teria a quem ser informado, mas a coluna Version é incrementada, de modo que
+ * outros escritores com {@code dao.optimisticLocking} percebem a alteração. Por isso o delegate deve
+ * ser criado sem optimisticLocking, que recusaria as cópias do buffer, gravadas sem versão.
+ * O buffer é gravado com {@link SellerDao#updateAll(Collection)} (JDBC batch) quando atinge
+ * {@code flushSize} vendedores, a cada {@code flushIntervalMs} e em {@link #flush()}. Cada cópia
+ * guarda os próprios campos alterados, e só eles são gravados: colunas que nenhuma chamada de update
+ * mudou não são sobrescritas.
+ *
+ * O buffer é limitado a {@code maxBuffered} vendedores: quando está cheio, update espera até
+ * {@code offerTimeoutMs} por espaço e então lança DbException. findById e findByIds enxergam as
+ * alterações ainda não gravadas; as demais consultas leem o banco e podem não enxergá-las até a
+ * próxima gravação. {@link #close()} grava o que restou no buffer.
+ *
+ * Se uma gravação falhar por inteiro (por exemplo, sem conexão) ou um bloco for desfeito por um
+ * erro transitório (SQLState da classe 40, como deadlock), os vendedores voltam ao buffer, somados
+ * às alterações feitas enquanto isso, e são tentados na próxima gravação. Vendedores de blocos
+ * recusados pelo banco por outros motivos vão para uma fila de rejeitados, lida com
+ * {@link #drainRejected()}, e {@link #flush()} lança DbException informando quantos foram recusados.
+ *
+ * Caches de consultas acima deste DAO não enxergam as gravações em segundo plano; eles devem ser
+ * invalidados por um {@link #addFlushListener(Runnable)}, chamado depois de cada gravação.
+ *
+ * Instâncias são criadas com {@link #start}, que também agenda a gravação periódica.
+ */
+public class WriteBehindSellerDao implements SellerDao, AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(WriteBehindSellerDao.class.getName());
+
+  private final SellerDao delegate;
+  private final int maxBuffered;
+  private final int flushSize;
+  private final long offerTimeoutNanos;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final LinkedHashMap<Integer, Seller> pending = new LinkedHashMap<>();
+  private Map<Integer, Seller> inFlight = Map.of();
+
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+  private final ScheduledExecutorService flusher;
+  private volatile boolean closed;
+
+  private final List<RejectedUpdate> rejected = new ArrayList<>();
+  private final List<Runnable> flushListeners = new CopyOnWriteArrayList<>();
+
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder flushedRows = new LongAdder();
+  private final LongAdder failedRows = new LongAdder();
+
+  private WriteBehindSellerDao(SellerDao delegate, int maxBuffered, int flushSize, long offerTimeoutMs) {
+    this.delegate = delegate;
+    this.maxBuffered = maxBuffered;
+    this.flushSize = Math.min(flushSize, maxBuffered);
+    this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+    this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "dao-write-behind");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Cria o buffer e agenda a gravação periódica.
+   *
+   * @param delegate        O DAO que acessa o banco de dados.
+   * @param maxBuffered     O número máximo de vendedores aguardando gravação.
+   * @param flushSize       O número de vendedores no buffer que dispara uma gravação.
+   * @param flushIntervalMs O intervalo máximo entre gravações.
+   * @param offerTimeoutMs  Quanto tempo update espera por espaço no buffer cheio.
+   * @return Um novo WriteBehindSellerDao, já gravando em segundo plano.
+   */
+  public static WriteBehindSellerDao start(SellerDao delegate, int maxBuffered, int flushSize,
+                                           long flushIntervalMs, long offerTimeoutMs) {
+    if (maxBuffered <= 0 || flushSize <= 0) {
+      throw new IllegalArgumentException("maxBuffered and flushSize must be positive");
+    }
+    WriteBehindSellerDao dao = new WriteBehindSellerDao(delegate, maxBuffered, flushSize, offerTimeoutMs);
+    dao.flusher.scheduleWithFixedDelay(dao::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    return dao;
+  }
+
+  @Override
+  public void insert(Seller obj) {
+    delegate.insert(obj);
+  }
+
+  /**
+   * update - Guarda o estado do vendedor no buffer para gravação posterior. Se o vendedor já estiver
+   * no buffer, o estado anterior é substituído.
+   *
+   * @param obj O vendedor com as informações atualizadas; é copiado, então pode ser alterado depois.
+   * @throws DbException Lançada se o buffer continuar cheio após {@code offerTimeoutMs}.
+   */
+  @Override
+  public void update(Seller obj) {
+    if (closed) {
+      delegate.update(obj);
+      return;
+    }
+    if (!obj.isDirty()) {
+      return;
+    }
+    Seller snapshot = new Seller(obj);
+    snapshot.setVersion(null);
+    boolean full;
+    lock.lock();
+    try {
+      long remaining = offerTimeoutNanos;
+      while (!pending.containsKey(obj.getId()) && pending.size() >= maxBuffered) {
+        requestFlush();
+        if (remaining <= 0) {
+          throw new DbException("Write-behind buffer is full (" + maxBuffered + " pending updates)");
+        }
+        remaining = notFull.awaitNanos(remaining);
+      }
+      Seller previous = pending.get(obj.getId());
+      if (previous == null) {
+        pending.put(obj.getId(), snapshot);
+      }
+      else {
+        pending.put(obj.getId(), merge(previous, snapshot));
+        coalesced.increment();
+      }
+      full = pending.size() >= flushSize;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DbException("Interrupted while waiting for space in the write-behind buffer");
+    }
+    finally {
+      lock.unlock();
+    }
+    obj.markClean();
+    if (full) {
+      requestFlush();
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id) {
+    discard(List.of(id));
+    delegate.deleteById(id);
+  }
+
+  @Override
+  public void deleteById(Integer id, Integer version) {
+    discard(List.of(id));
+    delegate.deleteById(id, version);
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Seller> list) {
+    return delegate.insertAll(list);
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Seller> list, int chunkSize) {
+    return delegate.insertAll(list, chunkSize);
+  }
+
+  @Override
+  public boolean upsert(Seller obj) {
+    return writeThrough(List.of(obj), () -> delegate.upsert(obj));
+  }
+
+  @Override
+  public UpsertResult upsertAll(Collection<Seller> list) {
+    return writeThrough(list, () -> delegate.upsertAll(list));
+  }
+
+  @Override
+  public UpsertResult upsertAll(Collection<Seller> list, int chunkSize) {
+    return writeThrough(list, () -> delegate.upsertAll(list, chunkSize));
+  }
+
+  /**
+   * updateAll - Grava os vendedores imediatamente, descartando versões mais antigas no buffer.
+   *
+   * @param list Os objetos Seller com as informações atualizadas.
+   * @return O resultado da operação, com as falhas de cada bloco.
+   */
+  @Override
+  public BatchResult updateAll(Collection<Seller> list) {
+    return writeThrough(list, () -> delegate.updateAll(list));
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Seller> list, int chunkSize) {
+    return writeThrough(list, () -> delegate.updateAll(list, chunkSize));
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids) {
+    discard(ids);
+    return delegate.deleteByIds(ids);
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids, int chunkSize) {
+    discard(ids);
+    return delegate.deleteByIds(ids, chunkSize);
+  }
+
+  /**
+   * findById - Retorna a versão do buffer, se houver uma alteração ainda não gravada, ou busca no banco.
+   *
+   * @param id O ID do vendedor que se deseja buscar.
+   * @return O vendedor, ou null se ele não existir.
+   */
+  @Override
+  public Seller findById(Integer id) {
+    Seller buffered = buffered(id);
+    return buffered != null ? buffered : delegate.findById(id);
+  }
+
+  /**
+   * findByIds - Busca os vendedores no banco e substitui os que têm alterações ainda não gravadas.
+   *
+   * @param ids Os IDs dos vendedores que se deseja buscar.
+   * @return Um mapa do ID para o vendedor; IDs não encontrados ficam de fora do mapa.
+   */
+  @Override
+  public Map<Integer, Seller> findByIds(Collection<Integer> ids) {
+    Map<Integer, Seller> result = delegate.findByIds(ids);
+    for (Integer id : ids) {
+      Seller buffered = buffered(id);
+      if (buffered != null && result.containsKey(id)) {
+        result.put(id, buffered);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public List<Seller> findAll() {
+    return delegate.findAll();
+  }
+
+  @Override
+  public Stream<Seller> streamAll() {
+    return delegate.streamAll();
+  }
+
+  @Override
+  public SellerColumns findAllColumnar() {
+    return delegate.findAllColumnar();
+  }
+
+  @Override
+  public List<SellerPartition> partitionById(int partitions) {
+    return delegate.partitionById(partitions);
+  }
+
+  @Override
+  public List<SellerPartition> partitionByDepartment() {
+    return delegate.partitionByDepartment();
+  }
+
+  @Override
+  public List<Seller> findByPartition(SellerPartition partition) {
+    return delegate.findByPartition(partition);
+  }
+
+  @Override
+  public Stream<Seller> parallelScan(List<SellerPartition> partitions) {
+    return delegate.parallelScan(partitions);
+  }
+
+  @Override
+  public void scanPartitions(List<SellerPartition> partitions, int parallelism,
+                             BiConsumer<SellerPartition, List<Seller>> action) {
+    delegate.scanPartitions(partitions, parallelism, action);
+  }
+
+  @Override
+  public List<SalaryStats> salaryStatsByDepartment() {
+    return delegate.salaryStatsByDepartment();
+  }
+
+  @Override
+  public List<SalaryStats> salaryStatsByDepartment(int birthYearBucket) {
+    return delegate.salaryStatsByDepartment(birthYearBucket);
+  }
+
+  @Override
+  public List<Seller> findByDepartment(Department department) {
+    return delegate.findByDepartment(department);
+  }
+
+  @Override
+  public List<Seller> findPage(String afterName, Integer afterId, int limit) {
+    return delegate.findPage(afterName, afterId, limit);
+  }
+
+  @Override
+  public List<Seller> findByDepartment(Department department, String afterName, Integer afterId, int limit) {
+    return delegate.findByDepartment(department, afterName, afterId, limit);
+  }
+
+  /**
+   * Grava agora todas as alterações do buffer, esperando uma gravação em andamento terminar.
+   *
+   * @throws DbException Lançada se a gravação falhar por inteiro, caso em que os vendedores voltam ao
+   *                     buffer, ou se o banco recusar algum vendedor, que vai para
+   *                     {@link #drainRejected()}.
+   */
+  public void flush() {
+    flushLock.lock();
+    try {
+      List<Seller> batch;
+      lock.lock();
+      try {
+        if (pending.isEmpty()) {
+          return;
+        }
+        inFlight = new LinkedHashMap<>(pending);
+        batch = new ArrayList<>(pending.values());
+        pending.clear();
+        notFull.signalAll();
+      }
+      finally {
+        lock.unlock();
+      }
+
+      int rejectedNow = 0;
+      String firstError = null;
+      try {
+        BatchResult result = delegate.updateAll(batch);
+        flushedRows.add(result.getRowsAffected());
+        for (BatchResult.ChunkFailure failure : result.getFailures()) {
+          List<Seller> chunk = batch.subList(failure.getFromIndex(), failure.getToIndex());
+          if (isTransient(failure.getSqlState())) {
+            requeue(chunk);
+            continue;
+          }
+          failedRows.add(chunk.size());
+          rejectedNow += chunk.size();
+          if (firstError == null) {
+            firstError = failure.getMessage();
+          }
+          lock.lock();
+          try {
+            for (Seller obj : chunk) {
+              rejected.add(new RejectedUpdate(obj, failure.getMessage(), failure.getSqlState()));
+            }
+          }
+          finally {
+            lock.unlock();
+          }
+        }
+      }
+      catch (RuntimeException e) {
+        requeue(batch);
+        throw e;
+      }
+      finally {
+        lock.lock();
+        try {
+          inFlight = Map.of();
+        }
+        finally {
+          lock.unlock();
+        }
+        for (Runnable listener : flushListeners) {
+          listener.run();
+        }
+      }
+      if (rejectedNow > 0) {
+        throw new DbException(rejectedNow + " buffered seller updates were rejected by the database"
+            + " (see drainRejected()): " + firstError);
+      }
+    }
+    finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Registra uma ação executada depois de cada gravação do buffer, mesmo que ela tenha falhado em
+   * parte, por exemplo para invalidar resultados de consultas lidos antes da gravação.
+   *
+   * @param listener A ação, executada na thread que gravou o buffer.
+   */
+  public void addFlushListener(Runnable listener) {
+    flushListeners.add(listener);
+  }
+
+  /**
+   * Retira e retorna os updates recusados pelo banco desde a última chamada.
+   *
+   * @return Os updates recusados, na ordem em que falharam.
+   */
+  public List<RejectedUpdate> drainRejected() {
+    lock.lock();
+    try {
+      List<RejectedUpdate> result = new ArrayList<>(rejected);
+      rejected.clear();
+      return result;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Para a gravação periódica e grava o que restou no buffer. Updates posteriores são gravados
+   * diretamente no banco.
+   *
+   * @throws DbException Lançada se a gravação final falhar.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(30, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  public int getPending() {
+    lock.lock();
+    try {
+      return pending.size();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public long getCoalesced() {
+    return coalesced.sum();
+  }
+
+  public long getFlushedRows() {
+    return flushedRows.sum();
+  }
+
+  public long getFailedRows() {
+    return failedRows.sum();
+  }
+
+  public int getRejected() {
+    lock.lock();
+    try {
+      return rejected.size();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  private void requestFlush() {
+    if (!closed && flushRequested.compareAndSet(false, true)) {
+      flusher.execute(() -> {
+        flushRequested.set(false);
+        flushQuietly();
+      });
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    }
+    catch (RuntimeException e) {
+      LOG.log(Level.WARNING, "Write-behind flush failed", e);
+    }
+  }
+
+  private Seller buffered(Integer id) {
+    lock.lock();
+    try {
+      Seller obj = pending.get(id);
+      if (obj == null) {
+        obj = inFlight.get(id);
+      }
+      if (obj == null) {
+        return null;
+      }
+      Seller result = new Seller(obj);
+      result.markClean();
+      return result;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Aplica os campos alterados de {@code next} sobre a versão já guardada no buffer, para que
+   * alterações feitas em objetos diferentes do mesmo vendedor não se percam.
+   */
+  private static Seller merge(Seller previous, Seller next) {
+    int fields = next.getDirtyFields();
+    if (fields == Seller.ALL_FIELDS) {
+      return next;
+    }
+    if ((fields & Seller.NAME) != 0) {
+      previous.setName(next.getName());
+    }
+    if ((fields & Seller.EMAIL) != 0) {
+      previous.setEmail(next.getEmail());
+    }
+    if ((fields & Seller.BIRTH_DATE) != 0) {
+      previous.setBirthDate(next.getBirthDate());
+    }
+    if ((fields & Seller.BASE_SALARY) != 0) {
+      previous.setBaseSalary(next.getBaseSalary());
+    }
+    if ((fields & Seller.DEPARTMENT) != 0) {
+      previous.setDepartment(next.getDepartment());
+    }
+    return previous;
+  }
+
+  /**
+   * Devolve ao buffer vendedores cuja gravação falhou. Se o vendedor foi alterado de novo enquanto
+   * isso, as alterações novas são aplicadas sobre as que falharam, para que nenhuma se perca.
+   */
+  private void requeue(List<Seller> failed) {
+    lock.lock();
+    try {
+      for (Seller obj : failed) {
+        Seller newer = pending.get(obj.getId());
+        pending.put(obj.getId(), newer == null ? obj : merge(obj, newer));
+      }
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Indica se o erro do bloco é transitório (classe 40, "transaction rollback": deadlock,
+   * serialização), caso em que a mesma gravação pode dar certo na próxima tentativa.
+   */
+  private static boolean isTransient(String sqlState) {
+    return sqlState != null && sqlState.startsWith("40");
+  }
+
+  private void discard(Collection<Integer> ids) {
+    lock.lock();
+    try {
+      for (Integer id : ids) {
+        pending.remove(id);
+      }
+      notFull.signalAll();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Grava diretamente, depois de qualquer gravação em andamento, descartando do buffer as versões
+   * mais antigas dos mesmos vendedores.
+   */
+  private <T> T writeThrough(Collection<Seller> list, Supplier<T> write) {
+    flushLock.lock();
+    try {
+      List<Integer> ids = new ArrayList<>(list.size());
+      for (Seller obj : list) {
+        ids.add(obj.getId());
+      }
+      discard(ids);
+      return write.get();
+    }
+    finally {
+      flushLock.unlock();
+    }
+  }
+}
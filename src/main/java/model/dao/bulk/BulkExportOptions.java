@@ -0,0 +1,92 @@
+package model.dao.bulk;
+
+import java.util.Properties;
+
+/**
+ * Opções do {@link BulkExporter}, com valores padrão que podem ser alterados pelos métodos
+ * encadeáveis ou lidos de db.properties.
+ *
+ * Propriedades lidas por {@link #fromProperties(Properties)}:
+ * <ul>
+ *   <li>{@code bulk.export.workers} - departamentos exportados ao mesmo tempo (padrão 4)</li>
+ *   <li>{@code bulk.export.bufferSize} - tamanho do buffer de escrita, em bytes (padrão 1 MiB)</li>
+ *   <li>{@code bulk.export.gzip} - comprime os arquivos com gzip (padrão false)</li>
+ *   <li>{@code dao.fetchSize} - linhas buscadas por ida ao banco (padrão 1000)</li>
+ * </ul>
+ */
+public class BulkExportOptions {
+  private BulkFormat format;
+  private boolean gzip;
+  private int workers = 4;
+  private int bufferSize = 1 << 20;
+  private int fetchSize = 1000;
+
+  /**
+   * Cria as opções a partir das chaves "bulk.export.*" e {@code dao.fetchSize} de db.properties.
+   *
+   * @param props As propriedades de db.properties.
+   * @return As opções, com os valores padrão para as chaves ausentes.
+   */
+  public static BulkExportOptions fromProperties(Properties props) {
+    BulkExportOptions options = new BulkExportOptions();
+    options.workers = Integer.parseInt(props.getProperty("bulk.export.workers", "4").trim());
+    options.bufferSize = Integer.parseInt(props.getProperty("bulk.export.bufferSize", String.valueOf(1 << 20)).trim());
+    options.gzip = Boolean.parseBoolean(props.getProperty("bulk.export.gzip", "false").trim());
+    options.fetchSize = Integer.parseInt(props.getProperty("dao.fetchSize", "1000").trim());
+    return options;
+  }
+
+  /**
+   * Define o formato dos arquivos; sem formato, ele é escolhido pela extensão, ignorando {@code .gz}.
+   */
+  public BulkExportOptions format(BulkFormat format) {
+    this.format = format;
+    return this;
+  }
+
+  /**
+   * Comprime os arquivos com gzip. Arquivos terminados em {@code .gz} são sempre comprimidos.
+   */
+  public BulkExportOptions gzip(boolean gzip) {
+    this.gzip = gzip;
+    return this;
+  }
+
+  public BulkExportOptions workers(int workers) {
+    if (workers <= 0) {
+      throw new IllegalArgumentException("workers must be positive: " + workers);
+    }
+    this.workers = workers;
+    return this;
+  }
+
+  public BulkExportOptions bufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+    return this;
+  }
+
+  public BulkExportOptions fetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+    return this;
+  }
+
+  public BulkFormat getFormat() {
+    return format;
+  }
+
+  public boolean isGzip() {
+    return gzip;
+  }
+
+  public int getWorkers() {
+    return workers;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public int getFetchSize() {
+    return fetchSize;
+  }
+}
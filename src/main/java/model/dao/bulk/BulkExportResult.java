@@ -0,0 +1,65 @@
+package model.dao.bulk;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resultado da exportação de um arquivo pelo {@link BulkExporter}.
+ */
+public class BulkExportResult {
+  private final Path file;
+  private final long rows;
+  private final long bytes;
+  private final long elapsedNanos;
+
+  /**
+   * Construtor da classe BulkExportResult.
+   *
+   * @param file         O arquivo gravado.
+   * @param rows         O número de vendedores exportados.
+   * @param bytes        O tamanho do arquivo, depois da compressão.
+   * @param elapsedNanos O tempo gasto na exportação.
+   */
+  public BulkExportResult(Path file, long rows, long bytes, long elapsedNanos) {
+    this.file = file;
+    this.rows = rows;
+    this.bytes = bytes;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public long getBytes() {
+    return bytes;
+  }
+
+  public long getElapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+  }
+
+  /**
+   * Retorna a vazão média da exportação.
+   *
+   * @return Vendedores exportados por segundo.
+   */
+  public double getRowsPerSecond() {
+    return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkExportResult{" +
+        "file=" + file +
+        ", rows=" + rows +
+        ", bytes=" + bytes +
+        ", elapsedMs=" + getElapsedMillis() +
+        ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+        '}';
+  }
+}
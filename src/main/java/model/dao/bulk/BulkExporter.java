@@ -0,0 +1,367 @@
+package model.dao.bulk;
+
+import database.ConnectionProvider;
+import database.DB;
+import database.DbException;
+import database.metrics.DaoMetrics;
+import database.metrics.OperationMetrics;
+import model.entities.Department;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta vendedores para arquivos CSV ou NDJSON, opcionalmente comprimidos com gzip.
+ *
+ * As linhas vão do ResultSet direto para o arquivo, sem criar objetos Seller: a consulta é lida com
+ * fetch size (cursor do servidor, com {@code useCursorFetch=true}) e cada coluna é lida como texto e
+ * escrita em um buffer de tamanho fixo sobre o FileChannel. A memória usada não depende do tamanho
+ * da tabela. Os campos gravados são {@code id, name, email, birthDate, baseSalary, departmentId,
+ * department}, que o {@link BulkLoader} aceita de volta (desde que os nomes não tenham quebras de linha).
+ *
+ * Um arquivo com erro na exportação é apagado, para que não fique um arquivo truncado no lugar.
+ */
+public class BulkExporter {
+  private static final Logger LOG = Logger.getLogger(BulkExporter.class.getName());
+
+  private static final String SELECT =
+      "SELECT seller.Id, seller.Name, seller.Email, seller.BirthDate, seller.BaseSalary, "
+          + "seller.DepartmentId, department.Name AS DepName "
+          + "FROM seller INNER JOIN department "
+          + "ON seller.DepartmentId = department.Id ";
+
+  private static final String[] FIELDS =
+      {"id", "name", "email", "birthDate", "baseSalary", "departmentId", "department"};
+
+  /**
+   * Campos gravados como números em NDJSON; os demais são textos.
+   */
+  private static final boolean[] NUMERIC = {true, false, false, false, true, true, false};
+
+  private static final OperationMetrics EXPORT_METRICS = DaoMetrics.operation("BulkExporter.exportSellers");
+
+  private final ConnectionProvider provider;
+  private final BulkExportOptions options;
+
+  /**
+   * Construtor da classe BulkExporter.
+   *
+   * @param provider A fonte de conexões; as consultas usam {@link ConnectionProvider#getReadConnection()}.
+   * @param options  As opções da exportação.
+   */
+  public BulkExporter(ConnectionProvider provider, BulkExportOptions options) {
+    this.provider = provider;
+    this.options = options;
+  }
+
+  /**
+   * exportSellers - Exporta todos os vendedores, em ordem de ID.
+   *
+   * @param file O arquivo de destino; {@code .csv} ou {@code .ndjson}, com {@code .gz} para comprimir.
+   * @return O resultado da exportação.
+   * @throws DbException          Lançada em caso de erro ao acessar o banco de dados.
+   * @throws UncheckedIOException Lançada se não for possível gravar o arquivo.
+   */
+  public BulkExportResult exportSellers(Path file) {
+    return exportSellers(file, null);
+  }
+
+  /**
+   * exportSellers - Exporta os vendedores de um departamento, em ordem de ID.
+   *
+   * @param file       O arquivo de destino; {@code .csv} ou {@code .ndjson}, com {@code .gz} para comprimir.
+   * @param department O departamento dos vendedores, ou null para exportar todos.
+   * @return O resultado da exportação.
+   * @throws DbException          Lançada em caso de erro ao acessar o banco de dados.
+   * @throws UncheckedIOException Lançada se não for possível gravar o arquivo.
+   */
+  public BulkExportResult exportSellers(Path file, Department department) {
+    long start = System.nanoTime();
+    long acquired = 0;
+    long executed = 0;
+    int rows = OperationMetrics.FAILED;
+    Connection conn = null;
+    PreparedStatement st = null;
+    ResultSet rs = null;
+    boolean completed = false;
+
+    BulkFormat format = formatOf(file);
+    try {
+      long count;
+      try (Writer out = open(file)) {
+        conn = provider.getReadConnection();
+        acquired = System.nanoTime();
+        st = conn.prepareStatement(
+            SELECT + (department != null ? "WHERE seller.DepartmentId = ? " : "") + "ORDER BY seller.Id",
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        st.setFetchSize(options.getFetchSize());
+        if (department != null) {
+          st.setInt(1, department.getId());
+        }
+        rs = st.executeQuery();
+        executed = System.nanoTime();
+
+        count = format == BulkFormat.CSV ? writeCsv(rs, out) : writeNdjson(rs, out);
+      }
+      completed = true;
+      rows = (int) Math.min(Integer.MAX_VALUE, count);
+      return new BulkExportResult(file, count, Files.size(file), System.nanoTime() - start);
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    finally {
+      DB.closeResultSet(rs);
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+      if (!completed) {
+        deleteQuietly(file);
+      }
+      EXPORT_METRICS.record(start, acquired, executed, rows);
+    }
+  }
+
+  /**
+   * exportByDepartment - Exporta os vendedores de cada departamento para um arquivo próprio no
+   * diretório, {@code seller-<id do departamento>.csv} (ou {@code .ndjson}, com {@code .gz} se
+   * comprimido). Até {@code workers} departamentos são exportados ao mesmo tempo, cada um com a
+   * sua conexão e a sua consulta.
+   *
+   * @param directory O diretório de destino, que é criado se não existir.
+   * @return O resultado de cada arquivo, em ordem de ID do departamento.
+   * @throws DbException          Lançada se a exportação de algum departamento falhar; as que ainda não começaram são canceladas.
+   * @throws UncheckedIOException Lançada se não for possível gravar algum arquivo.
+   */
+  public List<BulkExportResult> exportByDepartment(Path directory) {
+    List<Integer> departmentIds = departmentIds();
+    BulkFormat format = options.getFormat() != null ? options.getFormat() : BulkFormat.CSV;
+    String suffix = format.getExtension() + (options.isGzip() ? ".gz" : "");
+    try {
+      Files.createDirectories(directory);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService workers = Executors.newFixedThreadPool(
+        Math.min(options.getWorkers(), Math.max(1, departmentIds.size())), r -> {
+          Thread t = new Thread(r, "bulk-exporter-" + threadCount.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        });
+    try {
+      List<Future<BulkExportResult>> futures = new ArrayList<>(departmentIds.size());
+      for (Integer id : departmentIds) {
+        Path file = directory.resolve("seller-" + id + suffix);
+        futures.add(workers.submit(() -> exportSellers(file, new Department(id, null))));
+      }
+      List<BulkExportResult> results = new ArrayList<>(futures.size());
+      long rows = 0;
+      for (Future<BulkExportResult> future : futures) {
+        BulkExportResult result = future.get();
+        results.add(result);
+        rows += result.getRows();
+      }
+      LOG.info("Exported " + rows + " sellers of " + results.size() + " departments to " + directory);
+      return results;
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new DbException("Export to " + directory + " failed: " + e.getCause());
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DbException("Export to " + directory + " was interrupted");
+    }
+    finally {
+      workers.shutdownNow();
+    }
+  }
+
+  private List<Integer> departmentIds() {
+    Connection conn = null;
+    PreparedStatement st = null;
+    ResultSet rs = null;
+    try {
+      conn = provider.getReadConnection();
+      st = conn.prepareStatement("SELECT Id FROM department ORDER BY Id");
+      rs = st.executeQuery();
+      List<Integer> ids = new ArrayList<>();
+      while (rs.next()) {
+        ids.add(rs.getInt(1));
+      }
+      return ids;
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeResultSet(rs);
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+    }
+  }
+
+  private BulkFormat formatOf(Path file) {
+    if (options.getFormat() != null) {
+      return options.getFormat();
+    }
+    String name = file.getFileName().toString();
+    if (name.toLowerCase(Locale.ROOT).endsWith(".gz")) {
+      file = file.resolveSibling(name.substring(0, name.length() - 3));
+    }
+    return BulkFormat.forFile(file);
+  }
+
+  /**
+   * Abre o arquivo para escrita: FileChannel, gzip opcional e um único buffer de caracteres do
+   * tamanho configurado, para que o disco receba escritas grandes.
+   */
+  private Writer open(Path file) throws IOException {
+    OutputStream out = Channels.newOutputStream(FileChannel.open(file,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    try {
+      if (options.isGzip() || file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+        out = new GZIPOutputStream(out, options.getBufferSize());
+      }
+    }
+    catch (IOException e) {
+      out.close();
+      throw e;
+    }
+    return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), options.getBufferSize());
+  }
+
+  private static long writeCsv(ResultSet rs, Writer out) throws SQLException, IOException {
+    out.write(String.join(",", FIELDS));
+    out.write('\n');
+    long count = 0;
+    while (rs.next()) {
+      for (int i = 0; i < FIELDS.length; i++) {
+        if (i > 0) {
+          out.write(',');
+        }
+        String value = rs.getString(i + 1);
+        if (value != null) {
+          writeCsvField(out, value);
+        }
+      }
+      out.write('\n');
+      count++;
+    }
+    return count;
+  }
+
+  private static long writeNdjson(ResultSet rs, Writer out) throws SQLException, IOException {
+    long count = 0;
+    while (rs.next()) {
+      out.write('{');
+      for (int i = 0; i < FIELDS.length; i++) {
+        if (i > 0) {
+          out.write(',');
+        }
+        out.write('"');
+        out.write(FIELDS[i]);
+        out.write("\":");
+        String value = rs.getString(i + 1);
+        if (value == null) {
+          out.write("null");
+        }
+        else if (NUMERIC[i]) {
+          out.write(value);
+        }
+        else {
+          writeJsonString(out, value);
+        }
+      }
+      out.write("}\n");
+      count++;
+    }
+    return count;
+  }
+
+  private static void writeCsvField(Writer out, String value) throws IOException {
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    // Espaços nas pontas também vão entre aspas, pois o BulkLoader remove os que estão fora delas.
+    quote |= !value.isEmpty() && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ');
+    if (!quote) {
+      out.write(value);
+      return;
+    }
+    out.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        out.write('"');
+      }
+      out.write(c);
+    }
+    out.write('"');
+  }
+
+  private static void writeJsonString(Writer out, String value) throws IOException {
+    out.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> out.write("\\\"");
+        case '\\' -> out.write("\\\\");
+        case '\n' -> out.write("\\n");
+        case '\r' -> out.write("\\r");
+        case '\t' -> out.write("\\t");
+        default -> {
+          if (c < 0x20) {
+            out.write(String.format("\\u%04x", (int) c));
+          }
+          else {
+            out.write(c);
+          }
+        }
+      }
+    }
+    out.write('"');
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    }
+    catch (IOException e) {
+      LOG.warning("Could not delete incomplete export " + file + ": " + e.getMessage());
+    }
+  }
+}
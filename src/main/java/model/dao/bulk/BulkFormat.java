@@ -0,0 +1,51 @@
+package model.dao.bulk;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Formatos de arquivo lidos pelo {@link BulkLoader} e gravados pelo {@link BulkExporter}.
+ */
+public enum BulkFormat {
+  /**
+   * CSV separado por vírgulas, com cabeçalho na primeira linha. Campos podem vir entre aspas
+   * duplas, com aspas internas duplicadas; quebras de linha dentro de campos não são aceitas.
+   */
+  CSV(".csv"),
+
+  /**
+   * Um objeto JSON por linha (NDJSON), com valores de texto, número ou null.
+   */
+  NDJSON(".ndjson");
+
+  private final String extension;
+
+  BulkFormat(String extension) {
+    this.extension = extension;
+  }
+
+  /**
+   * Retorna a extensão usada nos arquivos gravados neste formato, com o ponto.
+   */
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Escolhe o formato pela extensão do arquivo: {@code .ndjson}/{@code .jsonl} ou {@code .csv}.
+   *
+   * @param file O arquivo a ser lido.
+   * @return O formato correspondente.
+   * @throws IllegalArgumentException Lançada se a extensão não for reconhecida.
+   */
+  public static BulkFormat forFile(Path file) {
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    if (name.endsWith(".csv")) {
+      return CSV;
+    }
+    if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+      return NDJSON;
+    }
+    throw new IllegalArgumentException("Unknown bulk file format: " + file + " (expected .csv, .ndjson or .jsonl)");
+  }
+}
@@ -0,0 +1,150 @@
+package model.dao.bulk;
+
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * Opções de uma carga do {@link BulkLoader}. Os métodos de configuração retornam a própria
+ * instância, para serem encadeados.
+ *
+ * Propriedades lidas por {@link #fromProperties(Properties)}:
+ * <ul>
+ *   <li>{@code bulk.workers} - threads que convertem e gravam os registros (padrão 4)</li>
+ *   <li>{@code bulk.batchSize} - linhas por bloco e por INSERT de várias linhas (padrão 1000)</li>
+ *   <li>{@code bulk.bufferSize} - tamanho do buffer de leitura do arquivo, em bytes (padrão 1 MiB)</li>
+ *   <li>{@code bulk.loadDataLocal} - grava com LOAD DATA LOCAL INFILE; requer
+ *   {@code allowLoadLocalInfile=true} no driver e {@code local_infile=ON} no servidor (padrão false)</li>
+ *   <li>{@code bulk.createMissingDepartments} - cria os departamentos não encontrados (padrão false)</li>
+ *   <li>{@code bulk.progressIntervalMs} - intervalo dos relatórios de progresso; 0 desliga (padrão 5000)</li>
+ * </ul>
+ */
+public class BulkLoadOptions {
+  private BulkFormat format;
+  private int workers = 4;
+  private int batchSize = 1000;
+  private int bufferSize = 1 << 20;
+  private boolean loadDataLocal;
+  private boolean createMissingDepartments;
+  private Path rejectFile;
+  private long progressIntervalMs = 5000;
+  private Consumer<BulkLoadResult> progressListener;
+
+  /**
+   * Cria as opções a partir das chaves "bulk.*" de db.properties.
+   *
+   * @param props As propriedades de db.properties.
+   * @return As opções, com os valores padrão para as chaves ausentes.
+   */
+  public static BulkLoadOptions fromProperties(Properties props) {
+    BulkLoadOptions options = new BulkLoadOptions();
+    options.workers = Integer.parseInt(props.getProperty("bulk.workers", "4").trim());
+    options.batchSize = Integer.parseInt(props.getProperty("bulk.batchSize", "1000").trim());
+    options.bufferSize = Integer.parseInt(props.getProperty("bulk.bufferSize", String.valueOf(1 << 20)).trim());
+    options.loadDataLocal = Boolean.parseBoolean(props.getProperty("bulk.loadDataLocal", "false").trim());
+    options.createMissingDepartments =
+        Boolean.parseBoolean(props.getProperty("bulk.createMissingDepartments", "false").trim());
+    options.progressIntervalMs = Long.parseLong(props.getProperty("bulk.progressIntervalMs", "5000").trim());
+    return options;
+  }
+
+  /**
+   * Define o formato do arquivo; sem formato, ele é escolhido pela extensão.
+   */
+  public BulkLoadOptions format(BulkFormat format) {
+    this.format = format;
+    return this;
+  }
+
+  public BulkLoadOptions workers(int workers) {
+    if (workers <= 0) {
+      throw new IllegalArgumentException("workers must be positive: " + workers);
+    }
+    this.workers = workers;
+    return this;
+  }
+
+  public BulkLoadOptions batchSize(int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  public BulkLoadOptions bufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+    return this;
+  }
+
+  /**
+   * Grava com LOAD DATA LOCAL INFILE em vez de INSERTs. Exige {@code allowLoadLocalInfile=true} nas
+   * propriedades da conexão e {@code local_infile=ON} no servidor.
+   */
+  public BulkLoadOptions loadDataLocal(boolean loadDataLocal) {
+    this.loadDataLocal = loadDataLocal;
+    return this;
+  }
+
+  public BulkLoadOptions createMissingDepartments(boolean createMissingDepartments) {
+    this.createMissingDepartments = createMissingDepartments;
+    return this;
+  }
+
+  /**
+   * Define o arquivo que recebe as linhas rejeitadas e o motivo de cada uma.
+   */
+  public BulkLoadOptions rejectFile(Path rejectFile) {
+    this.rejectFile = rejectFile;
+    return this;
+  }
+
+  public BulkLoadOptions progressIntervalMs(long progressIntervalMs) {
+    this.progressIntervalMs = progressIntervalMs;
+    return this;
+  }
+
+  /**
+   * Define quem recebe os relatórios de progresso; sem listener, eles vão para o log.
+   */
+  public BulkLoadOptions progressListener(Consumer<BulkLoadResult> progressListener) {
+    this.progressListener = progressListener;
+    return this;
+  }
+
+  public BulkFormat getFormat() {
+    return format;
+  }
+
+  public int getWorkers() {
+    return workers;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public boolean isLoadDataLocal() {
+    return loadDataLocal;
+  }
+
+  public boolean isCreateMissingDepartments() {
+    return createMissingDepartments;
+  }
+
+  public Path getRejectFile() {
+    return rejectFile;
+  }
+
+  public long getProgressIntervalMs() {
+    return progressIntervalMs;
+  }
+
+  public Consumer<BulkLoadResult> getProgressListener() {
+    return progressListener;
+  }
+}
@@ -0,0 +1,82 @@
+package model.dao.bulk;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Situação de uma carga do {@link BulkLoader}: entregue periodicamente ao acompanhamento do
+ * progresso e, ao final, como resultado da carga.
+ */
+public class BulkLoadResult {
+  private final Path file;
+  private final long linesRead;
+  private final long loaded;
+  private final long rejected;
+  private final long skipped;
+  private final long elapsedNanos;
+
+  /**
+   * Construtor da classe BulkLoadResult.
+   *
+   * @param file         O arquivo carregado.
+   * @param linesRead    O número de linhas de dados lidas até agora.
+   * @param loaded       O número de registros gravados no banco.
+   * @param rejected     O número de linhas rejeitadas, com o motivo no arquivo de rejeitados.
+   * @param skipped      O número de linhas descartadas pelo banco em LOAD DATA, sem motivo conhecido.
+   * @param elapsedNanos O tempo decorrido desde o início da carga.
+   */
+  public BulkLoadResult(Path file, long linesRead, long loaded, long rejected, long skipped, long elapsedNanos) {
+    this.file = file;
+    this.linesRead = linesRead;
+    this.loaded = loaded;
+    this.rejected = rejected;
+    this.skipped = skipped;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public long getLinesRead() {
+    return linesRead;
+  }
+
+  public long getLoaded() {
+    return loaded;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+
+  public long getSkipped() {
+    return skipped;
+  }
+
+  public long getElapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+  }
+
+  /**
+   * Retorna a vazão média da carga.
+   *
+   * @return Registros gravados por segundo desde o início.
+   */
+  public double getRowsPerSecond() {
+    return elapsedNanos == 0 ? 0 : loaded * 1e9 / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkLoadResult{" +
+        "file=" + file +
+        ", linesRead=" + linesRead +
+        ", loaded=" + loaded +
+        ", rejected=" + rejected +
+        ", skipped=" + skipped +
+        ", elapsedMs=" + getElapsedMillis() +
+        ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+        '}';
+  }
+}
@@ -0,0 +1,484 @@
+package model.dao.bulk;
+
+import database.ConnectionProvider;
+import database.DB;
+import database.DbException;
+import model.dao.BatchResult;
+import model.dao.DepartmentDao;
+import model.dao.SellerDao;
+import model.dao.cache.CachingSellerDao;
+import model.dao.cache.QueryCache;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Carrega vendedores e departamentos de arquivos CSV ou NDJSON grandes.
+ *
+ * O arquivo é lido pela thread chamadora com um {@link LineReader} e dividido em blocos de
+ * {@code batchSize} linhas, que passam por uma fila limitada a {@code workers} threads. Cada thread
+ * converte as linhas do bloco em vendedores, traduz os nomes de departamento em IDs e grava o bloco:
+ * com {@link SellerDao#insertAll(java.util.Collection, int)}, que com {@code rewriteBatchedStatements=true}
+ * o driver envia como um único INSERT de várias linhas, ou com LOAD DATA LOCAL INFILE. Enquanto uma
+ * thread espera o banco, as outras convertem os blocos seguintes, e a fila limitada segura a leitura
+ * quando o banco não acompanha.
+ *
+ * Os campos reconhecidos, sem diferenciar maiúsculas, são: {@code name}, {@code email},
+ * {@code birthDate} (AAAA-MM-DD), {@code baseSalary} e {@code department} (nome) ou
+ * {@code departmentId}. Linhas inválidas, e linhas recusadas pelo banco, vão para o arquivo de
+ * rejeitados com o motivo, sem interromper a carga; quando um bloco inteiro é recusado, as suas
+ * linhas são regravadas uma a uma para separar as válidas das inválidas. Uma falha que não é de uma
+ * linha específica, como a perda da conexão, interrompe a carga com DbException; os blocos já
+ * gravados permanecem.
+ *
+ * LOAD DATA não passa pelos DAOs, então cada bloco gravado assim esvazia os resultados de consultas
+ * a vendedores do {@link QueryCache} informado.
+ */
+public class BulkLoader {
+  private static final Logger LOG = Logger.getLogger(BulkLoader.class.getName());
+
+  private static final String LOAD_DATA_SQL =
+      "LOAD DATA LOCAL INFILE 'bulk-load.tsv' INTO TABLE seller CHARACTER SET utf8mb4 "
+          + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' "
+          + "(Name, Email, BirthDate, BaseSalary, DepartmentId)";
+
+  private static final String MYSQL_STATEMENT = "com.mysql.cj.jdbc.JdbcStatement";
+
+  private static final Block END = new Block(0, List.of());
+
+  private final SellerDao sellerDao;
+  private final DepartmentDao departmentDao;
+  private final ConnectionProvider provider;
+  private final BulkLoadOptions options;
+  private final QueryCache queryCache;
+
+  /**
+   * Construtor da classe BulkLoader, sem cache de consultas a invalidar.
+   *
+   * @param sellerDao     O DAO usado para gravar os vendedores.
+   * @param departmentDao O DAO usado para ler e criar os departamentos.
+   * @param provider      A fonte de conexões usada por LOAD DATA LOCAL INFILE.
+   * @param options       As opções da carga.
+   */
+  public BulkLoader(SellerDao sellerDao, DepartmentDao departmentDao, ConnectionProvider provider,
+                    BulkLoadOptions options) {
+    this(sellerDao, departmentDao, provider, options, new QueryCache("queries", 0, 0));
+  }
+
+  /**
+   * Construtor da classe BulkLoader.
+   *
+   * @param sellerDao     O DAO usado para gravar os vendedores.
+   * @param departmentDao O DAO usado para ler e criar os departamentos.
+   * @param provider      A fonte de conexões usada por LOAD DATA LOCAL INFILE.
+   * @param options       As opções da carga.
+   * @param queryCache    O cache de consultas invalidado após cada bloco gravado com LOAD DATA.
+   */
+  public BulkLoader(SellerDao sellerDao, DepartmentDao departmentDao, ConnectionProvider provider,
+                    BulkLoadOptions options, QueryCache queryCache) {
+    this.sellerDao = sellerDao;
+    this.departmentDao = departmentDao;
+    this.provider = provider;
+    this.options = options;
+    this.queryCache = queryCache;
+  }
+
+  /**
+   * loadSellers - Carrega os vendedores do arquivo.
+   *
+   * @param file O arquivo CSV ou NDJSON.
+   * @return O resultado da carga.
+   * @throws DbException          Lançada se a carga for interrompida por um erro do banco de dados.
+   * @throws UncheckedIOException Lançada se não for possível ler o arquivo ou gravar os rejeitados.
+   */
+  public BulkLoadResult loadSellers(Path file) {
+    Progress progress = new Progress(file);
+    DepartmentResolver departments = new DepartmentResolver(departmentDao, options.isCreateMissingDepartments());
+    BlockingQueue<Block> queue = new ArrayBlockingQueue<>(options.getWorkers() * 2);
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService workers = Executors.newFixedThreadPool(options.getWorkers(), r -> {
+      Thread t = new Thread(r, "bulk-loader-" + threadCount.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    ScheduledExecutorService reporter = startReporter(progress);
+
+    try (LineReader reader = new LineReader(file, options.getBufferSize());
+         RejectWriter rejects = new RejectWriter(options.getRejectFile())) {
+      RecordParser parser = parser(file, reader);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < options.getWorkers(); i++) {
+        futures.add(workers.submit(() -> {
+          work(queue, parser, departments, rejects, progress);
+          return null;
+        }));
+      }
+
+      List<String> lines = new ArrayList<>(options.getBatchSize());
+      long firstLine = reader.getLineNumber() + 1;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        progress.linesRead.increment();
+        lines.add(line);
+        if (lines.size() == options.getBatchSize()) {
+          enqueue(queue, new Block(firstLine, lines), futures);
+          lines = new ArrayList<>(options.getBatchSize());
+          firstLine = reader.getLineNumber() + 1;
+        }
+      }
+      if (!lines.isEmpty()) {
+        enqueue(queue, new Block(firstLine, lines), futures);
+      }
+      for (int i = 0; i < options.getWorkers(); i++) {
+        enqueue(queue, END, futures);
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      BulkLoadResult result = progress.snapshot();
+      LOG.info("Bulk load finished: " + result);
+      return result;
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new DbException("Bulk load of " + file + " failed: " + e.getCause());
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DbException("Bulk load of " + file + " was interrupted");
+    }
+    finally {
+      workers.shutdownNow();
+      if (reporter != null) {
+        reporter.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * loadDepartments - Carrega os departamentos do arquivo, com o campo {@code name}. Nomes que já
+   * existem no banco, ou repetidos no arquivo, são ignorados.
+   *
+   * @param file O arquivo CSV ou NDJSON.
+   * @return O resultado da carga.
+   * @throws DbException          Lançada em caso de erro ao acessar o banco de dados.
+   * @throws UncheckedIOException Lançada se não for possível ler o arquivo ou gravar os rejeitados.
+   */
+  public BulkLoadResult loadDepartments(Path file) {
+    Progress progress = new Progress(file);
+    DepartmentResolver departments = new DepartmentResolver(departmentDao, false);
+    try (LineReader reader = new LineReader(file, options.getBufferSize());
+         RejectWriter rejects = new RejectWriter(options.getRejectFile())) {
+      RecordParser parser = parser(file, reader);
+      List<Department> batch = new ArrayList<>();
+      // O número e o texto da linha de origem de cada departamento de batch, para os rejeitados.
+      List<Long> lineNumbers = new ArrayList<>();
+      List<String> lines = new ArrayList<>();
+      Set<String> seen = new HashSet<>();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        progress.linesRead.increment();
+        if (line.isBlank()) {
+          continue;
+        }
+        String name;
+        try {
+          name = parser.parse(line).get("name");
+          if (name == null) {
+            throw new IllegalArgumentException("Missing field 'name'");
+          }
+        }
+        catch (IllegalArgumentException e) {
+          rejects.reject(reader.getLineNumber(), e.getMessage(), line);
+          progress.rejected.increment();
+          continue;
+        }
+        if (departments.contains(name) || !seen.add(DepartmentResolver.key(name))) {
+          progress.skipped.increment();
+          continue;
+        }
+        batch.add(new Department(null, name.trim()));
+        lineNumbers.add(reader.getLineNumber());
+        lines.add(line);
+      }
+      for (int from = 0; from < batch.size(); from += options.getBatchSize()) {
+        List<Department> chunk = batch.subList(from, Math.min(batch.size(), from + options.getBatchSize()));
+        BatchResult result = departmentDao.insertAll(chunk, chunk.size());
+        progress.loaded.add(result.getRowsAffected());
+        for (BatchResult.ChunkFailure failure : result.getFailures()) {
+          for (int i = from + failure.getFromIndex(); i < from + failure.getToIndex(); i++) {
+            rejects.reject(lineNumbers.get(i), failure.getMessage(), lines.get(i));
+            progress.rejected.increment();
+          }
+        }
+      }
+      return progress.snapshot();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private RecordParser parser(Path file, LineReader reader) throws IOException {
+    BulkFormat format = options.getFormat() != null ? options.getFormat() : BulkFormat.forFile(file);
+    if (format == BulkFormat.NDJSON) {
+      return RecordParser.ndjson();
+    }
+    String header = reader.readLine();
+    if (header == null) {
+      throw new IllegalArgumentException("CSV file " + file + " has no header line");
+    }
+    return RecordParser.csv(header);
+  }
+
+  /**
+   * Coloca o bloco na fila, desistindo se alguma thread já tiver falhado.
+   */
+  private static void enqueue(BlockingQueue<Block> queue, Block block, List<Future<?>> futures)
+      throws InterruptedException, ExecutionException {
+    while (!queue.offer(block, 100, TimeUnit.MILLISECONDS)) {
+      for (Future<?> future : futures) {
+        if (future.isDone()) {
+          future.get();
+        }
+      }
+    }
+  }
+
+  private void work(BlockingQueue<Block> queue, RecordParser parser, DepartmentResolver departments,
+                    RejectWriter rejects, Progress progress) throws InterruptedException {
+    while (true) {
+      Block block = queue.take();
+      if (block == END) {
+        return;
+      }
+      List<Seller> sellers = new ArrayList<>(block.lines.size());
+      List<Integer> positions = new ArrayList<>(block.lines.size());
+      for (int i = 0; i < block.lines.size(); i++) {
+        String line = block.lines.get(i);
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          sellers.add(toSeller(parser.parse(line), departments));
+          positions.add(i);
+        }
+        catch (IllegalArgumentException | DbException e) {
+          rejects.reject(block.firstLine + i, e.getMessage(), line);
+          progress.rejected.increment();
+        }
+      }
+      if (sellers.isEmpty()) {
+        continue;
+      }
+      if (options.isLoadDataLocal()) {
+        int rows = loadDataLocal(sellers);
+        progress.loaded.add(rows);
+        progress.skipped.add(sellers.size() - rows);
+      }
+      else {
+        insert(block, sellers, positions, rejects, progress);
+      }
+    }
+  }
+
+  private void insert(Block block, List<Seller> sellers, List<Integer> positions, RejectWriter rejects,
+                      Progress progress) {
+    BatchResult result = sellerDao.insertAll(sellers, sellers.size());
+    progress.loaded.add(result.getRowsAffected());
+    for (BatchResult.ChunkFailure failure : result.getFailures()) {
+      for (int i = failure.getFromIndex(); i < failure.getToIndex(); i++) {
+        try {
+          sellerDao.insert(sellers.get(i));
+          progress.loaded.increment();
+        }
+        catch (DbException e) {
+          int position = positions.get(i);
+          rejects.reject(block.firstLine + position, e.getMessage(), block.lines.get(position));
+          progress.rejected.increment();
+        }
+      }
+    }
+  }
+
+  /**
+   * Grava os vendedores com LOAD DATA LOCAL INFILE, enviando o conteúdo em memória pelo método
+   * {@code setLocalInfileInputStream} do MySQL Connector/J. O banco descarta em silêncio as linhas
+   * recusadas, então só a quantidade gravada é conhecida.
+   *
+   * @return O número de linhas gravadas.
+   */
+  private int loadDataLocal(List<Seller> sellers) {
+    ByteArrayOutputStream tsv = new ByteArrayOutputStream(sellers.size() * 96);
+    for (Seller obj : sellers) {
+      StringBuilder row = new StringBuilder(96);
+      appendTsv(row, obj.getName()).append('\t');
+      appendTsv(row, obj.getEmail()).append('\t');
+      row.append(new java.sql.Date(obj.getBirthDate().getTime())).append('\t');
+      row.append(obj.getBaseSalary()).append('\t');
+      row.append(obj.getDepartment().getId()).append('\n');
+      tsv.writeBytes(row.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    Connection conn = null;
+    Statement st = null;
+    try {
+      conn = provider.getConnection();
+      st = conn.createStatement();
+      Class<?> driverType = Class.forName(MYSQL_STATEMENT);
+      driverType.getMethod("setLocalInfileInputStream", InputStream.class)
+          .invoke(st.unwrap(driverType), new ByteArrayInputStream(tsv.toByteArray()));
+      return st.executeUpdate(LOAD_DATA_SQL);
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+      throw new DbException("LOAD DATA LOCAL INFILE requires MySQL Connector/J: " + e.getMessage());
+    }
+    catch (InvocationTargetException e) {
+      throw new DbException(e.getCause().getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+      // Mesmo com erro, parte das linhas pode ter sido gravada.
+      queryCache.invalidateTable(CachingSellerDao.TABLE);
+    }
+  }
+
+  private static StringBuilder appendTsv(StringBuilder sb, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> sb.append("\\\\");
+        case '\t' -> sb.append("\\t");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        default -> sb.append(c);
+      }
+    }
+    return sb;
+  }
+
+  private static Seller toSeller(Map<String, String> record, DepartmentResolver departments) {
+    Seller obj = new Seller();
+    obj.setName(required(record, "name"));
+    obj.setEmail(required(record, "email"));
+    try {
+      obj.setBirthDate(java.sql.Date.valueOf(LocalDate.parse(required(record, "birthdate"))));
+    }
+    catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid birthDate '" + record.get("birthdate") + "'");
+    }
+    try {
+      obj.setBaseSalary(Double.parseDouble(required(record, "basesalary")));
+    }
+    catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid baseSalary '" + record.get("basesalary") + "'");
+    }
+
+    String departmentId = record.get("departmentid");
+    int depId;
+    if (departmentId != null) {
+      try {
+        depId = Integer.parseInt(departmentId);
+      }
+      catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid departmentId '" + departmentId + "'");
+      }
+    }
+    else {
+      depId = departments.resolve(required(record, "department"));
+    }
+    obj.setDepartment(new Department(depId, null));
+    return obj;
+  }
+
+  private static String required(Map<String, String> record, String field) {
+    String value = record.get(field);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing field '" + field + "'");
+    }
+    return value;
+  }
+
+  private ScheduledExecutorService startReporter(Progress progress) {
+    long interval = options.getProgressIntervalMs();
+    if (interval <= 0) {
+      return null;
+    }
+    Consumer<BulkLoadResult> listener = options.getProgressListener() != null
+        ? options.getProgressListener()
+        : result -> LOG.info("Bulk load progress: " + result);
+    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "bulk-loader-progress");
+      t.setDaemon(true);
+      return t;
+    });
+    reporter.scheduleAtFixedRate(() -> listener.accept(progress.snapshot()), interval, interval, TimeUnit.MILLISECONDS);
+    return reporter;
+  }
+
+  /**
+   * Linhas consecutivas do arquivo, a partir da linha {@code firstLine}.
+   */
+  private record Block(long firstLine, List<String> lines) {
+  }
+
+  /**
+   * Contadores da carga, atualizados pelas threads e lidos pelos relatórios.
+   */
+  private static final class Progress {
+    private final Path file;
+    private final long start = System.nanoTime();
+    private final LongAdder linesRead = new LongAdder();
+    private final LongAdder loaded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private Progress(Path file) {
+      this.file = file;
+    }
+
+    private BulkLoadResult snapshot() {
+      return new BulkLoadResult(file, linesRead.sum(), loaded.sum(), rejected.sum(), skipped.sum(),
+          System.nanoTime() - start);
+    }
+  }
+}
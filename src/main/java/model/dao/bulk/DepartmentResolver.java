@@ -0,0 +1,70 @@
+package model.dao.bulk;
+
+import model.dao.DepartmentDao;
+import model.entities.Department;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Traduz nomes de departamento em IDs durante uma carga. Os departamentos existentes são lidos
+ * uma vez com {@link DepartmentDao#findAll()}; a comparação ignora maiúsculas e espaços nas pontas,
+ * como a collation padrão do MySQL. Com {@code createMissing}, um nome desconhecido é inserido fora
+ * de qualquer trava do mapa; se várias threads o encontram ao mesmo tempo, vale o primeiro ID
+ * registrado e as linhas inseridas pelas demais são apagadas.
+ */
+final class DepartmentResolver {
+  private final DepartmentDao dao;
+  private final boolean createMissing;
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+  DepartmentResolver(DepartmentDao dao, boolean createMissing) {
+    this.dao = dao;
+    this.createMissing = createMissing;
+    for (Department dep : dao.findAll()) {
+      if (dep.getName() != null) {
+        ids.putIfAbsent(key(dep.getName()), dep.getId());
+      }
+    }
+  }
+
+  /**
+   * Retorna o ID do departamento com o nome informado.
+   *
+   * @throws IllegalArgumentException Lançada se o departamento não existir e não puder ser criado.
+   */
+  int resolve(String name) {
+    String key = key(name);
+    Integer id = ids.get(key);
+    if (id == null) {
+      if (!createMissing) {
+        throw new IllegalArgumentException("Unknown department '" + name + "'");
+      }
+      // O INSERT não roda dentro de computeIfAbsent, que seguraria a trava do mapa durante a ida ao banco.
+      Department dep = new Department(null, name.trim());
+      dao.insert(dep);
+      id = ids.putIfAbsent(key, dep.getId());
+      if (id == null) {
+        return dep.getId();
+      }
+      // Outra thread registrou o departamento antes: usa o ID dela e desfaz a linha duplicada.
+      dao.deleteById(dep.getId());
+    }
+    return id;
+  }
+
+  /**
+   * Indica se o departamento já é conhecido, sem criá-lo.
+   */
+  boolean contains(String name) {
+    return ids.containsKey(key(name));
+  }
+
+  /**
+   * Retorna a forma do nome usada nas comparações.
+   */
+  static String key(String name) {
+    return name.trim().toLowerCase(Locale.ROOT);
+  }
+}
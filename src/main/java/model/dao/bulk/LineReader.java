@@ -0,0 +1,98 @@
+package model.dao.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lê um arquivo UTF-8 linha a linha por um FileChannel, em blocos de {@code bufferSize} bytes.
+ *
+ * As quebras de linha são procuradas nos bytes, sem decodificar o bloco inteiro: em UTF-8 o byte
+ * '\n' nunca faz parte de um caractere de vários bytes. Só cada linha é convertida em String. Aceita
+ * quebras "\n" e "\r\n" e ignora o BOM no início do arquivo.
+ */
+final class LineReader implements Closeable {
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private byte[] pending = new byte[256];
+  private int pendingLength;
+  private long lineNumber;
+
+  LineReader(Path file, int bufferSize) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.buffer = ByteBuffer.allocate(bufferSize);
+    buffer.flip();
+  }
+
+  /**
+   * Lê a próxima linha, sem a quebra de linha.
+   *
+   * @return A linha, ou null no fim do arquivo.
+   */
+  String readLine() throws IOException {
+    while (true) {
+      byte[] data = buffer.array();
+      int start = buffer.position();
+      int limit = buffer.limit();
+      for (int i = start; i < limit; i++) {
+        if (data[i] == '\n') {
+          buffer.position(i + 1);
+          return line(data, start, i - start);
+        }
+      }
+      append(data, start, limit - start);
+      buffer.clear();
+      int read = channel.read(buffer);
+      buffer.flip();
+      if (read < 0) {
+        return pendingLength == 0 ? null : line(data, 0, 0);
+      }
+    }
+  }
+
+  /**
+   * Retorna o número da última linha lida, a partir de 1.
+   */
+  long getLineNumber() {
+    return lineNumber;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private String line(byte[] data, int offset, int length) {
+    byte[] bytes = data;
+    if (pendingLength > 0) {
+      append(data, offset, length);
+      bytes = pending;
+      offset = 0;
+      length = pendingLength;
+      pendingLength = 0;
+    }
+    if (length > 0 && bytes[offset + length - 1] == '\r') {
+      length--;
+    }
+    lineNumber++;
+    if (lineNumber == 1 && length >= 3 && (bytes[offset] & 0xFF) == 0xEF && (bytes[offset + 1] & 0xFF) == 0xBB
+        && (bytes[offset + 2] & 0xFF) == 0xBF) {
+      offset += 3;
+      length -= 3;
+    }
+    return new String(bytes, offset, length, StandardCharsets.UTF_8);
+  }
+
+  private void append(byte[] data, int offset, int length) {
+    if (pendingLength + length > pending.length) {
+      pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + length));
+    }
+    System.arraycopy(data, offset, pending, pendingLength, length);
+    pendingLength += length;
+  }
+}
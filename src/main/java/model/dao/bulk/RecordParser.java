@@ -0,0 +1,236 @@
+package model.dao.bulk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converte uma linha de CSV ou NDJSON em um mapa do nome do campo, em minúsculas, para o valor em
+ * texto. Valores vazios ou null em JSON ficam fora do mapa. Erros de formato são lançados como
+ * IllegalArgumentException, com a descrição que vai para o arquivo de rejeitados.
+ *
+ * Os parsers não guardam estado entre linhas e podem ser usados por várias threads.
+ */
+abstract class RecordParser {
+
+  abstract Map<String, String> parse(String line);
+
+  /**
+   * Cria o parser de CSV a partir da linha de cabeçalho.
+   */
+  static RecordParser csv(String header) {
+    List<String> names = splitCsv(header);
+    String[] columns = new String[names.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = names.get(i).trim().toLowerCase(Locale.ROOT);
+    }
+    return new RecordParser() {
+      @Override
+      Map<String, String> parse(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != columns.length) {
+          throw new IllegalArgumentException("Expected " + columns.length + " fields but found " + values.size());
+        }
+        Map<String, String> record = new HashMap<>(columns.length * 2);
+        for (int i = 0; i < columns.length; i++) {
+          String value = values.get(i).trim();
+          if (!value.isEmpty()) {
+            record.put(columns[i], value);
+          }
+        }
+        return record;
+      }
+    };
+  }
+
+  /**
+   * Cria o parser de NDJSON. Cada linha deve ser um objeto JSON sem objetos ou arrays aninhados.
+   */
+  static RecordParser ndjson() {
+    return new RecordParser() {
+      @Override
+      Map<String, String> parse(String line) {
+        return new JsonObjectParser(line).parse();
+      }
+    };
+  }
+
+  static List<String> splitCsv(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"') {
+          if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+            field.append('"');
+            i++;
+          }
+          else {
+            quoted = false;
+          }
+        }
+        else {
+          field.append(c);
+        }
+      }
+      else if (c == '"' && field.toString().isBlank()) {
+        field.setLength(0);
+        quoted = true;
+      }
+      else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      }
+      else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted field");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /**
+   * Parser mínimo de um objeto JSON "plano": chaves de texto e valores de texto, número,
+   * true/false ou null.
+   */
+  private static final class JsonObjectParser {
+    private final String text;
+    private int pos;
+
+    private JsonObjectParser(String text) {
+      this.text = text;
+    }
+
+    private Map<String, String> parse() {
+      Map<String, String> record = new HashMap<>();
+      skipSpaces();
+      expect('{');
+      skipSpaces();
+      if (peek() == '}') {
+        pos++;
+      }
+      else {
+        while (true) {
+          skipSpaces();
+          String key = string().toLowerCase(Locale.ROOT);
+          skipSpaces();
+          expect(':');
+          skipSpaces();
+          String value = value();
+          if (value != null && !value.isBlank()) {
+            record.put(key, value.trim());
+          }
+          skipSpaces();
+          char c = next();
+          if (c == '}') {
+            break;
+          }
+          if (c != ',') {
+            throw error("Expected ',' or '}'");
+          }
+        }
+      }
+      skipSpaces();
+      if (pos < text.length()) {
+        throw error("Unexpected content after the object");
+      }
+      return record;
+    }
+
+    private String value() {
+      char c = peek();
+      if (c == '"') {
+        return string();
+      }
+      if (c == '{' || c == '[') {
+        throw error("Nested objects and arrays are not supported");
+      }
+      int start = pos;
+      while (pos < text.length() && ",} \t".indexOf(text.charAt(pos)) < 0) {
+        pos++;
+      }
+      String literal = text.substring(start, pos);
+      if (literal.equals("null")) {
+        return null;
+      }
+      if (literal.isEmpty()) {
+        throw error("Expected a value");
+      }
+      return literal;
+    }
+
+    private String string() {
+      expect('"');
+      StringBuilder sb = new StringBuilder();
+      while (true) {
+        char c = next();
+        if (c == '"') {
+          return sb.toString();
+        }
+        if (c != '\\') {
+          sb.append(c);
+          continue;
+        }
+        char e = next();
+        switch (e) {
+          case '"', '\\', '/' -> sb.append(e);
+          case 'b' -> sb.append('\b');
+          case 'f' -> sb.append('\f');
+          case 'n' -> sb.append('\n');
+          case 'r' -> sb.append('\r');
+          case 't' -> sb.append('\t');
+          case 'u' -> {
+            if (pos + 4 > text.length()) {
+              throw error("Invalid unicode escape");
+            }
+            try {
+              sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+            }
+            catch (NumberFormatException ex) {
+              throw error("Invalid unicode escape");
+            }
+            pos += 4;
+          }
+          default -> throw error("Invalid escape '\\" + e + "'");
+        }
+      }
+    }
+
+    private void skipSpaces() {
+      while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+        pos++;
+      }
+    }
+
+    private char peek() {
+      if (pos >= text.length()) {
+        throw error("Unexpected end of line");
+      }
+      return text.charAt(pos);
+    }
+
+    private char next() {
+      char c = peek();
+      pos++;
+      return c;
+    }
+
+    private void expect(char c) {
+      if (next() != c) {
+        pos--;
+        throw error("Expected '" + c + "'");
+      }
+    }
+
+    private IllegalArgumentException error(String message) {
+      return new IllegalArgumentException("Invalid JSON at column " + (pos + 1) + ": " + message);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package model.dao.bulk;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Grava as linhas rejeitadas de uma carga, uma por linha, no formato
+ * {@code número da linha <TAB> motivo <TAB> linha original}. Sem arquivo, as rejeições são só contadas.
+ * Pode ser usado por várias threads.
+ */
+final class RejectWriter implements Closeable {
+  private final BufferedWriter out;
+
+  RejectWriter(Path file) throws IOException {
+    this.out = file == null ? null : Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+  }
+
+  synchronized void reject(long lineNumber, String reason, String line) {
+    if (out == null) {
+      return;
+    }
+    try {
+      out.write(Long.toString(lineNumber));
+      out.write('\t');
+      out.write(reason == null ? "" : reason.replace('\t', ' ').replace('\n', ' ').replace('\r', ' '));
+      out.write('\t');
+      out.write(line);
+      out.newLine();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (out != null) {
+      out.close();
+    }
+  }
+}
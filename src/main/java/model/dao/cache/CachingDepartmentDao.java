@@ -0,0 +1,261 @@
+package model.dao.cache;
+
+import model.dao.BatchResult;
+import model.dao.DepartmentDao;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decorador de DepartmentDao que atende findById a partir de um {@link EntityCache} e findAll a
+ * partir de um {@link QueryCache}.
+ *
+ * Escritas feitas por este DAO invalidam o departamento afetado e também os vendedores em cache
+ * que o referenciam, já que o nome do departamento faz parte do Seller em cache. No cache de
+ * consultas, invalidam as consultas de departamentos e, para departamentos alterados ou removidos,
+ * o findAll e o findByDepartment de vendedores que os incluem.
+ */
+public class CachingDepartmentDao implements DepartmentDao {
+  private static final String TABLE = "department";
+  private static final String FIND_ALL = "DepartmentDao.findAll";
+
+  private final DepartmentDao delegate;
+  private final EntityCache<Integer, Department> cache;
+  private final EntityCache<Integer, Seller> sellerCache;
+  private final QueryCache queryCache;
+
+  /**
+   * Construtor da classe CachingDepartmentDao, sem cache de consultas.
+   *
+   * @param delegate    O DAO que acessa o banco de dados.
+   * @param cache       O cache de departamentos, compartilhado entre as instâncias do DAO.
+   * @param sellerCache O cache de vendedores a ser invalidado quando um departamento muda.
+   */
+  public CachingDepartmentDao(DepartmentDao delegate, EntityCache<Integer, Department> cache,
+                              EntityCache<Integer, Seller> sellerCache) {
+    this(delegate, cache, sellerCache, new QueryCache("department-queries", 0, 0));
+  }
+
+  /**
+   * Construtor da classe CachingDepartmentDao.
+   *
+   * @param delegate    O DAO que acessa o banco de dados.
+   * @param cache       O cache de departamentos, compartilhado entre as instâncias do DAO.
+   * @param sellerCache O cache de vendedores a ser invalidado quando um departamento muda.
+   * @param queryCache  O cache de resultados de consultas, compartilhado com CachingSellerDao.
+   */
+  public CachingDepartmentDao(DepartmentDao delegate, EntityCache<Integer, Department> cache,
+                              EntityCache<Integer, Seller> sellerCache, QueryCache queryCache) {
+    this.delegate = delegate;
+    this.cache = cache;
+    this.sellerCache = sellerCache;
+    this.queryCache = queryCache;
+  }
+
+  @Override
+  public void insert(Department obj) {
+    try {
+      delegate.insert(obj);
+    }
+    finally {
+      cache.invalidate(obj.getId());
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public void update(Department obj) {
+    try {
+      delegate.update(obj);
+    }
+    finally {
+      invalidate(Collections.singletonList(obj.getId()));
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id) {
+    try {
+      delegate.deleteById(id);
+    }
+    finally {
+      invalidate(Collections.singletonList(id));
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id, Integer version) {
+    try {
+      delegate.deleteById(id, version);
+    }
+    finally {
+      invalidate(Collections.singletonList(id));
+    }
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Department> list) {
+    try {
+      return delegate.insertAll(list);
+    }
+    finally {
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Department> list, int chunkSize) {
+    try {
+      return delegate.insertAll(list, chunkSize);
+    }
+    finally {
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Department> list) {
+    try {
+      return delegate.updateAll(list);
+    }
+    finally {
+      invalidate(list.stream().map(Department::getId).toList());
+    }
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Department> list, int chunkSize) {
+    try {
+      return delegate.updateAll(list, chunkSize);
+    }
+    finally {
+      invalidate(list.stream().map(Department::getId).toList());
+    }
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids) {
+    try {
+      return delegate.deleteByIds(ids);
+    }
+    finally {
+      invalidate(ids);
+    }
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids, int chunkSize) {
+    try {
+      return delegate.deleteByIds(ids, chunkSize);
+    }
+    finally {
+      invalidate(ids);
+    }
+  }
+
+  /**
+   * findById - Busca um departamento no cache e, na ausência, no banco de dados, guardando o resultado.
+   *
+   * @param id O ID do departamento que se deseja buscar.
+   * @return Uma cópia do departamento encontrado, ou null se ele não existir.
+   */
+  @Override
+  public Department findById(Integer id) {
+    Department cached = cache.get(id);
+    if (cached != null) {
+      return new Department(cached);
+    }
+    long generation = cache.generation();
+    Department obj = delegate.findById(id);
+    if (obj != null) {
+      cache.put(id, new Department(obj), generation);
+    }
+    return obj;
+  }
+
+  /**
+   * findByIds - Atende do cache os IDs presentes e busca os demais no banco de dados em uma única
+   * chamada ao DAO decorado, guardando o resultado.
+   *
+   * @param ids Os IDs dos departamentos que se deseja buscar.
+   * @return Um mapa do ID para uma cópia do departamento; IDs não encontrados ficam de fora do mapa.
+   */
+  @Override
+  public Map<Integer, Department> findByIds(Collection<Integer> ids) {
+    Map<Integer, Department> result = new HashMap<>();
+    List<Integer> missing = new ArrayList<>();
+    for (Integer id : ids) {
+      Department cached = cache.get(id);
+      if (cached != null) {
+        result.put(id, new Department(cached));
+      }
+      else {
+        missing.add(id);
+      }
+    }
+    if (!missing.isEmpty()) {
+      long generation = cache.generation();
+      for (Department obj : delegate.findByIds(missing).values()) {
+        cache.put(obj.getId(), new Department(obj), generation);
+        result.put(obj.getId(), obj);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * findAll - Atende do cache de consultas e, na ausência, busca no banco de dados, guardando o resultado.
+   *
+   * @return Uma lista com cópias de todos os departamentos.
+   */
+  @Override
+  public List<Department> findAll() {
+    if (!queryCache.isEnabled()) {
+      return delegate.findAll();
+    }
+    List<Department> cached = queryCache.get(FIND_ALL, null);
+    if (cached != null) {
+      return copies(cached);
+    }
+    long generation = queryCache.generation();
+    List<Department> list = delegate.findAll();
+    queryCache.put(FIND_ALL, null, TABLE, null, copies(list),
+        obj -> 96 + 2L * (obj.getName() == null ? 0 : obj.getName().length()), generation);
+    return list;
+  }
+
+  @Override
+  public List<Department> findPage(String afterName, Integer afterId, int limit) {
+    return delegate.findPage(afterName, afterId, limit);
+  }
+
+  private void invalidate(Collection<Integer> ids) {
+    Set<Integer> depIds = new HashSet<>();
+    for (Integer id : ids) {
+      if (id != null) {
+        cache.invalidate(id);
+        depIds.add(id);
+      }
+    }
+    sellerCache.invalidateIf(seller -> seller.getDepartment() != null
+        && depIds.contains(seller.getDepartment().getId()));
+    queryCache.invalidateTable(TABLE);
+    queryCache.invalidateDepartments(CachingSellerDao.TABLE, depIds);
+  }
+
+  private static List<Department> copies(List<Department> list) {
+    List<Department> result = new ArrayList<>(list.size());
+    for (Department obj : list) {
+      result.add(new Department(obj));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,427 @@
+package model.dao.cache;
+
+import model.dao.BatchResult;
+import model.dao.SalaryStats;
+import model.dao.SellerColumns;
+import model.dao.SellerDao;
+import model.dao.SellerPartition;
+import model.dao.UpsertResult;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de SellerDao que atende findById a partir de um {@link EntityCache} e findAll e
+ * findByDepartment a partir de um {@link QueryCache}.
+ *
+ * Toda escrita feita por este DAO invalida as entradas afetadas depois de chegar ao banco, de modo
+ * que leituras seguintes pelo mesmo cache enxergam a alteração. Nos resultados de consultas, uma
+ * escrita invalida findAll e o findByDepartment dos departamentos dos vendedores gravados; quando
+ * o departamento anterior não é conhecido (deletes, upserts e updates que trocam o departamento),
+ * todas as consultas de vendedores são invalidadas.
+ *
+ * findById e findByIds guardam e devolvem cópias, então alterar o vendedor retornado não altera o
+ * cache. Já as listas de findAll e findByDepartment são imutáveis e os vendedores nelas são
+ * compartilhados com o cache, para que um acerto não copie a lista inteira: esses vendedores não
+ * devem ser alterados; para gravar um deles, use uma cópia ({@code new Seller(obj)}) ou findById.
+ * As demais consultas são repassadas ao DAO decorado.
+ */
+public class CachingSellerDao implements SellerDao {
+  /**
+   * A tabela sob a qual os resultados de consultas a vendedores ficam no {@link QueryCache}.
+   */
+  public static final String TABLE = "seller";
+  private static final String FIND_ALL = "SellerDao.findAll";
+  private static final String FIND_BY_DEPARTMENT = "SellerDao.findByDepartment";
+
+  private final SellerDao delegate;
+  private final EntityCache<Integer, Seller> cache;
+  private final QueryCache queryCache;
+
+  /**
+   * Construtor da classe CachingSellerDao, sem cache de consultas.
+   *
+   * @param delegate O DAO que acessa o banco de dados.
+   * @param cache    O cache de vendedores, compartilhado entre as instâncias do DAO.
+   */
+  public CachingSellerDao(SellerDao delegate, EntityCache<Integer, Seller> cache) {
+    this(delegate, cache, new QueryCache("seller-queries", 0, 0));
+  }
+
+  /**
+   * Construtor da classe CachingSellerDao.
+   *
+   * @param delegate   O DAO que acessa o banco de dados.
+   * @param cache      O cache de vendedores, compartilhado entre as instâncias do DAO.
+   * @param queryCache O cache de resultados de consultas, compartilhado com CachingDepartmentDao.
+   */
+  public CachingSellerDao(SellerDao delegate, EntityCache<Integer, Seller> cache, QueryCache queryCache) {
+    this.delegate = delegate;
+    this.cache = cache;
+    this.queryCache = queryCache;
+  }
+
+  @Override
+  public void insert(Seller obj) {
+    try {
+      delegate.insert(obj);
+    }
+    finally {
+      cache.invalidate(obj.getId());
+      invalidateQueries(List.of(obj), false);
+    }
+  }
+
+  @Override
+  public void update(Seller obj) {
+    boolean moved = movesDepartment(List.of(obj));
+    try {
+      delegate.update(obj);
+    }
+    finally {
+      cache.invalidate(obj.getId());
+      invalidateQueries(List.of(obj), moved);
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id) {
+    try {
+      delegate.deleteById(id);
+    }
+    finally {
+      cache.invalidate(id);
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id, Integer version) {
+    try {
+      delegate.deleteById(id, version);
+    }
+    finally {
+      cache.invalidate(id);
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Seller> list) {
+    try {
+      return delegate.insertAll(list);
+    }
+    finally {
+      invalidateQueries(list, false);
+    }
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Seller> list, int chunkSize) {
+    try {
+      return delegate.insertAll(list, chunkSize);
+    }
+    finally {
+      invalidateQueries(list, false);
+    }
+  }
+
+  @Override
+  public boolean upsert(Seller obj) {
+    try {
+      return delegate.upsert(obj);
+    }
+    finally {
+      invalidateEmails(List.of(obj));
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public UpsertResult upsertAll(Collection<Seller> list) {
+    try {
+      return delegate.upsertAll(list);
+    }
+    finally {
+      invalidateEmails(list);
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public UpsertResult upsertAll(Collection<Seller> list, int chunkSize) {
+    try {
+      return delegate.upsertAll(list, chunkSize);
+    }
+    finally {
+      invalidateEmails(list);
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Seller> list) {
+    boolean moved = movesDepartment(list);
+    try {
+      return delegate.updateAll(list);
+    }
+    finally {
+      list.forEach(obj -> cache.invalidate(obj.getId()));
+      invalidateQueries(list, moved);
+    }
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Seller> list, int chunkSize) {
+    boolean moved = movesDepartment(list);
+    try {
+      return delegate.updateAll(list, chunkSize);
+    }
+    finally {
+      list.forEach(obj -> cache.invalidate(obj.getId()));
+      invalidateQueries(list, moved);
+    }
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids) {
+    try {
+      return delegate.deleteByIds(ids);
+    }
+    finally {
+      ids.forEach(cache::invalidate);
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids, int chunkSize) {
+    try {
+      return delegate.deleteByIds(ids, chunkSize);
+    }
+    finally {
+      ids.forEach(cache::invalidate);
+      queryCache.invalidateTable(TABLE);
+    }
+  }
+
+  /**
+   * findById - Busca um vendedor no cache e, na ausência, no banco de dados, guardando o resultado.
+   *
+   * @param id O ID do vendedor que se deseja buscar.
+   * @return Uma cópia do vendedor encontrado, ou null se ele não existir.
+   */
+  @Override
+  public Seller findById(Integer id) {
+    Seller cached = cache.get(id);
+    if (cached != null) {
+      return new Seller(cached);
+    }
+    long generation = cache.generation();
+    Seller obj = delegate.findById(id);
+    if (obj != null) {
+      cache.put(id, new Seller(obj), generation);
+    }
+    return obj;
+  }
+
+  /**
+   * findByIds - Atende do cache os IDs presentes e busca os demais no banco de dados em uma única
+   * chamada ao DAO decorado, guardando o resultado.
+   *
+   * @param ids Os IDs dos vendedores que se deseja buscar.
+   * @return Um mapa do ID para uma cópia do vendedor; IDs não encontrados ficam de fora do mapa.
+   */
+  @Override
+  public Map<Integer, Seller> findByIds(Collection<Integer> ids) {
+    Map<Integer, Seller> result = new HashMap<>();
+    List<Integer> missing = new ArrayList<>();
+    for (Integer id : ids) {
+      Seller cached = cache.get(id);
+      if (cached != null) {
+        result.put(id, new Seller(cached));
+      }
+      else {
+        missing.add(id);
+      }
+    }
+    if (!missing.isEmpty()) {
+      long generation = cache.generation();
+      for (Seller obj : delegate.findByIds(missing).values()) {
+        cache.put(obj.getId(), new Seller(obj), generation);
+        result.put(obj.getId(), obj);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * findAll - Atende do cache de consultas e, na ausência, busca no banco de dados, guardando o resultado.
+   *
+   * @return Uma lista imutável de todos os vendedores, compartilhados com o cache: não os altere.
+   */
+  @Override
+  public List<Seller> findAll() {
+    if (!queryCache.isEnabled()) {
+      return delegate.findAll();
+    }
+    List<Seller> cached = queryCache.get(FIND_ALL, null);
+    if (cached != null) {
+      return cached;
+    }
+    long generation = queryCache.generation();
+    List<Seller> list = delegate.findAll();
+    queryCache.put(FIND_ALL, null, TABLE, null, list, CachingSellerDao::weigh, generation);
+    return Collections.unmodifiableList(list);
+  }
+
+  @Override
+  public Stream<Seller> streamAll() {
+    return delegate.streamAll();
+  }
+
+  @Override
+  public SellerColumns findAllColumnar() {
+    return delegate.findAllColumnar();
+  }
+
+  @Override
+  public List<SellerPartition> partitionById(int partitions) {
+    return delegate.partitionById(partitions);
+  }
+
+  @Override
+  public List<SellerPartition> partitionByDepartment() {
+    return delegate.partitionByDepartment();
+  }
+
+  @Override
+  public List<Seller> findByPartition(SellerPartition partition) {
+    return delegate.findByPartition(partition);
+  }
+
+  @Override
+  public Stream<Seller> parallelScan(List<SellerPartition> partitions) {
+    return delegate.parallelScan(partitions);
+  }
+
+  @Override
+  public void scanPartitions(List<SellerPartition> partitions, int parallelism,
+                             BiConsumer<SellerPartition, List<Seller>> action) {
+    delegate.scanPartitions(partitions, parallelism, action);
+  }
+
+  @Override
+  public List<SalaryStats> salaryStatsByDepartment() {
+    return delegate.salaryStatsByDepartment();
+  }
+
+  @Override
+  public List<SalaryStats> salaryStatsByDepartment(int birthYearBucket) {
+    return delegate.salaryStatsByDepartment(birthYearBucket);
+  }
+
+  /**
+   * findByDepartment - Atende do cache de consultas e, na ausência, busca no banco de dados,
+   * guardando o resultado.
+   *
+   * @param department O departamento pelo qual deseja-se buscar vendedores.
+   * @return Uma lista imutável dos vendedores do departamento, compartilhados com o cache: não os altere.
+   */
+  @Override
+  public List<Seller> findByDepartment(Department department) {
+    if (!queryCache.isEnabled()) {
+      return delegate.findByDepartment(department);
+    }
+    Integer depId = department.getId();
+    List<Seller> cached = queryCache.get(FIND_BY_DEPARTMENT, depId);
+    if (cached != null) {
+      return cached;
+    }
+    long generation = queryCache.generation();
+    List<Seller> list = delegate.findByDepartment(department);
+    queryCache.put(FIND_BY_DEPARTMENT, depId, TABLE, depId, list, CachingSellerDao::weigh, generation);
+    return Collections.unmodifiableList(list);
+  }
+
+  @Override
+  public List<Seller> findPage(String afterName, Integer afterId, int limit) {
+    return delegate.findPage(afterName, afterId, limit);
+  }
+
+  @Override
+  public List<Seller> findByDepartment(Department department, String afterName, Integer afterId, int limit) {
+    return delegate.findByDepartment(department, afterName, afterId, limit);
+  }
+
+  /**
+   * Remove do cache os vendedores com os e-mails gravados por upsert, já que os IDs das linhas
+   * atualizadas não são conhecidos.
+   */
+  private void invalidateEmails(Collection<Seller> list) {
+    Set<String> emails = new HashSet<>();
+    for (Seller obj : list) {
+      emails.add(obj.getEmail());
+    }
+    cache.invalidateIf(cached -> emails.contains(cached.getEmail()));
+  }
+
+  /**
+   * Invalida as consultas que podem incluir os vendedores gravados. Se algum deles pode ter saído
+   * de outro departamento, ou não tem departamento, invalida todas as consultas de vendedores.
+   */
+  private void invalidateQueries(Collection<Seller> list, boolean moved) {
+    Set<Integer> depIds = new HashSet<>();
+    for (Seller obj : list) {
+      if (obj.getDepartment() == null || obj.getDepartment().getId() == null) {
+        moved = true;
+        break;
+      }
+      depIds.add(obj.getDepartment().getId());
+    }
+    if (moved) {
+      queryCache.invalidateTable(TABLE);
+    }
+    else {
+      queryCache.invalidateDepartments(TABLE, depIds);
+    }
+  }
+
+  /**
+   * Indica se alguma gravação pode trocar o departamento do vendedor; deve ser chamado antes da
+   * gravação, que limpa os campos alterados.
+   */
+  private static boolean movesDepartment(Collection<Seller> list) {
+    for (Seller obj : list) {
+      if ((obj.getDirtyFields() & Seller.DEPARTMENT) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Estima a memória de um vendedor em cache: objetos, campos e caracteres dos textos.
+   */
+  private static long weigh(Seller obj) {
+    long size = 160 + 2L * (length(obj.getName()) + length(obj.getEmail()));
+    if (obj.getDepartment() != null) {
+      size += 64 + 2L * length(obj.getDepartment().getName());
+    }
+    return size;
+  }
+
+  private static int length(String value) {
+    return value == null ? 0 : value.length();
+  }
+}
@@ -0,0 +1,184 @@
+package model.dao.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Cache LRU de entidades, limitado por tamanho e por tempo de vida (TTL).
+ *
+ * Para evitar que uma leitura lenta reinsira um valor antigo depois de uma escrita, cada invalidação
+ * incrementa uma geração: quem carrega do banco lê {@link #generation()} antes da consulta e grava
+ * com {@link #put(Object, Object, long)}, que descarta o valor se houve invalidação no meio.
+ *
+ * @param <K> O tipo da chave (ID da entidade).
+ * @param <V> O tipo da entidade.
+ */
+public class EntityCache<K, V> {
+  private final String name;
+  private final int maxSize;
+  private final long ttlNanos;
+  private final LinkedHashMap<K, Entry<V>> entries;
+  private final AtomicLong generation = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  /**
+   * Construtor da classe EntityCache.
+   *
+   * @param name    O nome do cache, usado em métricas e logs.
+   * @param maxSize O número máximo de entidades em cache.
+   * @param ttlMs   O tempo de vida de cada entrada em milissegundos; 0 ou negativo desliga o TTL.
+   */
+  public EntityCache(String name, int maxSize, long ttlMs) {
+    this.name = name;
+    this.maxSize = maxSize;
+    this.ttlNanos = ttlMs > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMs) : Long.MAX_VALUE;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        if (size() > EntityCache.this.maxSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Busca uma entidade no cache.
+   *
+   * @param key A chave da entidade.
+   * @return A entidade em cache, ou null se ausente ou expirada.
+   */
+  public synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (System.nanoTime() - entry.createdAtNanos > ttlNanos) {
+      entries.remove(key);
+      expirations.increment();
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.value;
+  }
+
+  /**
+   * Retorna a geração atual, a ser lida antes de carregar uma entidade do banco.
+   *
+   * @return O número de invalidações feitas até agora.
+   */
+  public long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Grava uma entidade carregada do banco, a menos que alguma invalidação tenha ocorrido depois
+   * de {@code loadGeneration} ter sido lida.
+   *
+   * @param key            A chave da entidade.
+   * @param value          A entidade.
+   * @param loadGeneration A geração lida antes da consulta ao banco.
+   */
+  public synchronized void put(K key, V value, long loadGeneration) {
+    if (generation.get() == loadGeneration) {
+      entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+  }
+
+  /**
+   * Remove uma entidade do cache.
+   *
+   * @param key A chave da entidade.
+   */
+  public synchronized void invalidate(K key) {
+    generation.incrementAndGet();
+    entries.remove(key);
+  }
+
+  /**
+   * Remove as entidades que satisfazem o predicado.
+   *
+   * @param predicate O critério das entidades a remover.
+   */
+  public synchronized void invalidateIf(Predicate<V> predicate) {
+    generation.incrementAndGet();
+    Iterator<Entry<V>> it = entries.values().iterator();
+    while (it.hasNext()) {
+      if (predicate.test(it.next().value)) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Remove todas as entidades do cache.
+   */
+  public synchronized void invalidateAll() {
+    generation.incrementAndGet();
+    entries.clear();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public long getExpirations() {
+    return expirations.sum();
+  }
+
+  /**
+   * Calcula a taxa de acertos do cache.
+   *
+   * @return A fração de buscas atendidas pelo cache, entre 0 e 1.
+   */
+  public double getHitRatio() {
+    long h = getHits();
+    long total = h + getMisses();
+    return total == 0 ? 0.0 : (double) h / total;
+  }
+
+  @Override
+  public String toString() {
+    return "EntityCache{" +
+        "name='" + name + '\'' +
+        ", size=" + size() +
+        ", hits=" + getHits() +
+        ", misses=" + getMisses() +
+        ", evictions=" + getEvictions() +
+        ", expirations=" + getExpirations() +
+        ", hitRatio=" + getHitRatio() +
+        '}';
+  }
+
+  private record Entry<V>(V value, long createdAtNanos) {
+  }
+}
@@ -0,0 +1,264 @@
+package model.dao.cache;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache LRU de resultados de consultas (listas de entidades), limitado por memória estimada e por
+ * tempo de vida (TTL).
+ *
+ * Cada resultado é guardado com a tabela consultada e, para consultas de um único departamento, o ID
+ * do departamento, de modo que uma escrita invalida só o que pode ter mudado:
+ * {@link #invalidateTable(String)} remove todos os resultados da tabela e
+ * {@link #invalidateDepartments(String, Collection)} remove os resultados dos departamentos informados
+ * e os que abrangem a tabela inteira. O tamanho de cada resultado é estimado na gravação; quando a
+ * soma passa de {@code maxBytes}, os resultados usados há mais tempo são descartados.
+ *
+ * Como em {@link EntityCache}, cada invalidação incrementa uma geração, e {@link #put} descarta
+ * resultados carregados antes de uma invalidação.
+ */
+public class QueryCache {
+  private final String name;
+  private final long maxBytes;
+  private final long ttlNanos;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final AtomicLong generation = new AtomicLong();
+  private long bytes;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  /**
+   * Construtor da classe QueryCache.
+   *
+   * @param name     O nome do cache, usado em métricas e logs.
+   * @param maxBytes A memória máxima estimada dos resultados em cache; 0 ou negativo desliga o cache.
+   * @param ttlMs    O tempo de vida de cada resultado em milissegundos; 0 ou negativo desliga o TTL.
+   */
+  public QueryCache(String name, long maxBytes, long ttlMs) {
+    this.name = name;
+    this.maxBytes = maxBytes;
+    this.ttlNanos = ttlMs > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMs) : Long.MAX_VALUE;
+  }
+
+  /**
+   * Busca o resultado de uma consulta.
+   *
+   * @param query O nome da consulta, por exemplo "SellerDao.findAll".
+   * @param param O parâmetro da consulta, ou null.
+   * @param <T>   O tipo dos elementos do resultado.
+   * @return A lista imutável em cache, ou null se ausente ou expirada.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <T> List<T> get(String query, Object param) {
+    Key key = new Key(query, param);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (System.nanoTime() - entry.createdAtNanos > ttlNanos) {
+      remove(key);
+      expirations.increment();
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return (List<T>) entry.value;
+  }
+
+  /**
+   * Retorna a geração atual, a ser lida antes de executar a consulta no banco.
+   *
+   * @return O número de invalidações feitas até agora.
+   */
+  public long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Grava o resultado de uma consulta, a menos que alguma invalidação tenha ocorrido depois de
+   * {@code loadGeneration} ter sido lida ou que o resultado sozinho passe do limite de memória.
+   *
+   * @param query          O nome da consulta.
+   * @param param          O parâmetro da consulta, ou null.
+   * @param table          A tabela principal da consulta.
+   * @param departmentId   O departamento a que o resultado se restringe, ou null se abrange a tabela inteira.
+   * @param value          O resultado; é guardada uma cópia imutável da lista.
+   * @param weigher        A estimativa, em bytes, de cada elemento.
+   * @param loadGeneration A geração lida antes da consulta ao banco.
+   * @param <T>            O tipo dos elementos do resultado.
+   */
+  public <T> void put(String query, Object param, String table, Integer departmentId, List<T> value,
+                      ToLongFunction<? super T> weigher, long loadGeneration) {
+    if (maxBytes <= 0) {
+      return;
+    }
+    long size = 64;
+    for (T element : value) {
+      size += 8 + weigher.applyAsLong(element);
+    }
+    if (size > maxBytes) {
+      return;
+    }
+    List<T> copy = List.copyOf(value);
+    synchronized (this) {
+      if (generation.get() != loadGeneration) {
+        return;
+      }
+      Key key = new Key(query, param);
+      remove(key);
+      entries.put(key, new Entry(copy, table, departmentId, size, System.nanoTime()));
+      bytes += size;
+      Iterator<Entry> it = entries.values().iterator();
+      while (bytes > maxBytes && it.hasNext()) {
+        bytes -= it.next().bytes;
+        it.remove();
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * Remove todos os resultados de consultas à tabela.
+   *
+   * @param table A tabela alterada.
+   */
+  public synchronized void invalidateTable(String table) {
+    generation.incrementAndGet();
+    removeIf(entry -> entry.table.equals(table));
+  }
+
+  /**
+   * Remove os resultados de consultas à tabela que podem incluir linhas dos departamentos
+   * informados: os restritos a um deles e os que abrangem a tabela inteira.
+   *
+   * @param table         A tabela alterada.
+   * @param departmentIds Os departamentos das linhas alteradas.
+   */
+  public synchronized void invalidateDepartments(String table, Collection<Integer> departmentIds) {
+    generation.incrementAndGet();
+    removeIf(entry -> entry.table.equals(table)
+        && (entry.departmentId == null || departmentIds.contains(entry.departmentId)));
+  }
+
+  /**
+   * Remove todos os resultados do cache.
+   */
+  public synchronized void invalidateAll() {
+    generation.incrementAndGet();
+    invalidations.add(entries.size());
+    entries.clear();
+    bytes = 0;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Indica se o cache guarda resultados, isto é, se {@code maxBytes} é positivo.
+   */
+  public boolean isEnabled() {
+    return maxBytes > 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Retorna a memória estimada dos resultados em cache.
+   *
+   * @return A soma das estimativas, em bytes.
+   */
+  public synchronized long getBytes() {
+    return bytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public long getExpirations() {
+    return expirations.sum();
+  }
+
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  /**
+   * Calcula a taxa de acertos do cache.
+   *
+   * @return A fração de consultas atendidas pelo cache, entre 0 e 1.
+   */
+  public double getHitRatio() {
+    long h = getHits();
+    long total = h + getMisses();
+    return total == 0 ? 0.0 : (double) h / total;
+  }
+
+  @Override
+  public String toString() {
+    return "QueryCache{" +
+        "name='" + name + '\'' +
+        ", size=" + size() +
+        ", bytes=" + getBytes() +
+        ", maxBytes=" + maxBytes +
+        ", hits=" + getHits() +
+        ", misses=" + getMisses() +
+        ", evictions=" + getEvictions() +
+        ", expirations=" + getExpirations() +
+        ", invalidations=" + getInvalidations() +
+        ", hitRatio=" + getHitRatio() +
+        '}';
+  }
+
+  private void remove(Key key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      bytes -= entry.bytes;
+    }
+  }
+
+  private void removeIf(Predicate<Entry> predicate) {
+    Iterator<Entry> it = entries.values().iterator();
+    while (it.hasNext()) {
+      Entry entry = it.next();
+      if (predicate.test(entry)) {
+        bytes -= entry.bytes;
+        it.remove();
+        invalidations.increment();
+      }
+    }
+  }
+
+  private record Key(String query, Object param) {
+  }
+
+  private record Entry(List<?> value, String table, Integer departmentId, long bytes, long createdAtNanos) {
+  }
+}
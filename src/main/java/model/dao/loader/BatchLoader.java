@@ -0,0 +1,206 @@
+package model.dao.loader;
+
+import database.ReadYourWrites;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Agrupa buscas por chave feitas ao mesmo tempo em uma única busca em lote.
+ *
+ * As chaves pedidas com {@link #load(Object)} são acumuladas durante uma janela curta ou até
+ * {@code maxBatchSize} chaves; então a função de lote é chamada uma vez com todas elas e cada futuro
+ * é completado com o seu valor. Pedidos para uma chave que já está na fila ou em execução recebem o
+ * mesmo futuro, então a chave é consultada uma única vez.
+ *
+ * Os lotes são executados em threads virtuais. A função de lote deve retornar um mapa sem as chaves
+ * não encontradas; os futuros dessas chaves são completados com null. Cada lote roda com a marca de
+ * {@link ReadYourWrites} mais recente entre as threads que pediram as suas chaves, para que quem
+ * acabou de escrever não receba valores lidos de uma réplica atrasada.
+ *
+ * @param <K> O tipo da chave.
+ * @param <V> O tipo do valor.
+ */
+public class BatchLoader<K, V> {
+  private final Function<Collection<K>, Map<K, V>> batchFunction;
+  private final long windowNanos;
+  private final int maxBatchSize;
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> pending = new ConcurrentHashMap<>();
+  private final Object lock = new Object();
+  private Batch<K, V> current;
+
+  private final ScheduledExecutorService timer;
+  private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+
+  /**
+   * Construtor da classe BatchLoader.
+   *
+   * @param name          O nome do loader, usado no nome da thread do temporizador.
+   * @param batchFunction Busca os valores de várias chaves de uma vez.
+   * @param windowMicros  Por quanto tempo as chaves são acumuladas a partir da primeira do lote.
+   * @param maxBatchSize  O número de chaves que dispara o lote antes do fim da janela.
+   */
+  public BatchLoader(String name, Function<Collection<K>, Map<K, V>> batchFunction, long windowMicros,
+                     int maxBatchSize) {
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+    }
+    this.batchFunction = batchFunction;
+    this.windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, windowMicros));
+    this.maxBatchSize = maxBatchSize;
+    this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "dao-loader-" + name);
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Pede o valor de uma chave, que será buscado no próximo lote.
+   *
+   * @param key A chave.
+   * @return Um futuro com o valor, ou com null se a chave não for encontrada. Pedidos simultâneos
+   *         para a mesma chave recebem o mesmo futuro.
+   */
+  public CompletableFuture<V> load(K key) {
+    requests.increment();
+    CompletableFuture<V> existing = pending.get(key);
+    if (existing == null) {
+      CompletableFuture<V> created = new CompletableFuture<>();
+      existing = pending.putIfAbsent(key, created);
+      if (existing == null) {
+        enqueue(key, created);
+        return created;
+      }
+    }
+    coalesced.increment();
+    return existing;
+  }
+
+  /**
+   * Desassocia a chave do lote pendente, para que pedidos seguintes façam uma nova busca.
+   * Deve ser chamado após uma escrita, já que o lote em andamento pode ter lido o valor antigo.
+   *
+   * @param key A chave alterada.
+   */
+  public void forget(K key) {
+    pending.remove(key);
+  }
+
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  public long getCoalesced() {
+    return coalesced.sum();
+  }
+
+  public long getBatches() {
+    return batches.sum();
+  }
+
+  private void enqueue(K key, CompletableFuture<V> future) {
+    Batch<K, V> full = null;
+    long writeToken = ReadYourWrites.currentToken();
+    synchronized (lock) {
+      if (current == null) {
+        Batch<K, V> batch = new Batch<>();
+        current = batch;
+        timer.schedule(() -> flush(batch), windowNanos, TimeUnit.NANOSECONDS);
+      }
+      current.writeToken = ReadYourWrites.latest(current.writeToken, writeToken);
+      CompletableFuture<V> previous = current.futures.put(key, future);
+      if (previous != null) {
+        // A chave foi esquecida e pedida de novo antes do lote sair: o futuro antigo segue o novo.
+        future.whenComplete((value, error) -> {
+          if (error != null) {
+            previous.completeExceptionally(error);
+          }
+          else {
+            previous.complete(value);
+          }
+        });
+      }
+      if (current.futures.size() >= maxBatchSize) {
+        full = current;
+        current = null;
+      }
+    }
+    if (full != null) {
+      dispatch(full);
+    }
+  }
+
+  /**
+   * Fim da janela: despacha o lote, a menos que ele já tenha sido despachado por ter enchido.
+   */
+  private void flush(Batch<K, V> batch) {
+    synchronized (lock) {
+      if (current != batch) {
+        return;
+      }
+      current = null;
+    }
+    dispatch(batch);
+  }
+
+  /**
+   * Executa o lote e completa os futuros. Cada futuro é retirado de {@code pending} antes de ser
+   * completado (só se ainda for o da chave, pois {@link #forget(Object)} pode tê-lo substituído),
+   * para que pedidos posteriores façam uma nova busca.
+   */
+  private void dispatch(Batch<K, V> batch) {
+    batches.increment();
+    Map<K, CompletableFuture<V>> futures = batch.futures;
+    long writeToken = batch.writeToken;
+    dispatcher.execute(() -> {
+      Map<K, V> values;
+      try {
+        values = ReadYourWrites.callWith(writeToken, () -> batchFunction.apply(futures.keySet()));
+      }
+      catch (Throwable e) {
+        futures.forEach((key, future) -> {
+          pending.remove(key, future);
+          future.completeExceptionally(e);
+        });
+        return;
+      }
+      futures.forEach((key, future) -> {
+        pending.remove(key, future);
+        future.complete(values.get(key));
+      });
+    });
+  }
+
+  /**
+   * As chaves de um lote, com os seus futuros, e a marca da escrita mais recente de quem as pediu.
+   * Alterado apenas sob {@code lock}.
+   */
+  private static final class Batch<K, V> {
+    private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+    private long writeToken = ReadYourWrites.NONE;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchLoader{" +
+        "requests=" + getRequests() +
+        ", coalesced=" + getCoalesced() +
+        ", batches=" + getBatches() +
+        '}';
+  }
+}
@@ -0,0 +1,153 @@
+package model.dao.loader;
+
+import database.DbException;
+import model.dao.BatchResult;
+import model.dao.DepartmentDao;
+import model.entities.Department;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Decorador de DepartmentDao que agrupa chamadas simultâneas de findById em consultas findByIds,
+ * por meio de um {@link BatchLoader} compartilhado. Cada chamador recebe uma cópia do departamento.
+ */
+public class CoalescingDepartmentDao implements DepartmentDao {
+  private final DepartmentDao delegate;
+  private final BatchLoader<Integer, Department> loader;
+
+  /**
+   * Construtor da classe CoalescingDepartmentDao.
+   *
+   * @param delegate O DAO que acessa o banco de dados.
+   * @param loader   O loader de departamentos, compartilhado entre as instâncias do DAO.
+   */
+  public CoalescingDepartmentDao(DepartmentDao delegate, BatchLoader<Integer, Department> loader) {
+    this.delegate = delegate;
+    this.loader = loader;
+  }
+
+  @Override
+  public void insert(Department obj) {
+    delegate.insert(obj);
+  }
+
+  @Override
+  public void update(Department obj) {
+    try {
+      delegate.update(obj);
+    }
+    finally {
+      loader.forget(obj.getId());
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id) {
+    try {
+      delegate.deleteById(id);
+    }
+    finally {
+      loader.forget(id);
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id, Integer version) {
+    try {
+      delegate.deleteById(id, version);
+    }
+    finally {
+      loader.forget(id);
+    }
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Department> list) {
+    return delegate.insertAll(list);
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Department> list, int chunkSize) {
+    return delegate.insertAll(list, chunkSize);
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Department> list) {
+    try {
+      return delegate.updateAll(list);
+    }
+    finally {
+      list.forEach(obj -> loader.forget(obj.getId()));
+    }
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Department> list, int chunkSize) {
+    try {
+      return delegate.updateAll(list, chunkSize);
+    }
+    finally {
+      list.forEach(obj -> loader.forget(obj.getId()));
+    }
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids) {
+    try {
+      return delegate.deleteByIds(ids);
+    }
+    finally {
+      ids.forEach(loader::forget);
+    }
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids, int chunkSize) {
+    try {
+      return delegate.deleteByIds(ids, chunkSize);
+    }
+    finally {
+      ids.forEach(loader::forget);
+    }
+  }
+
+  /**
+   * findById - Entra no próximo lote do loader e espera o resultado.
+   *
+   * @param id O ID do departamento que se deseja buscar.
+   * @return Uma cópia do departamento encontrado, ou null se ele não existir.
+   * @throws DbException Lançada se a consulta do lote falhar.
+   */
+  @Override
+  public Department findById(Integer id) {
+    Department obj;
+    try {
+      obj = loader.load(id).join();
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new DbException(e.getCause().getMessage());
+    }
+    return obj == null ? null : new Department(obj);
+  }
+
+  @Override
+  public Map<Integer, Department> findByIds(Collection<Integer> ids) {
+    return delegate.findByIds(ids);
+  }
+
+  @Override
+  public List<Department> findAll() {
+    return delegate.findAll();
+  }
+
+  @Override
+  public List<Department> findPage(String afterName, Integer afterId, int limit) {
+    return delegate.findPage(afterName, afterId, limit);
+  }
+}
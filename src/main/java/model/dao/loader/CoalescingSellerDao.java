@@ -0,0 +1,260 @@
+package model.dao.loader;
+
+import database.DbException;
+import model.dao.BatchResult;
+import model.dao.SalaryStats;
+import model.dao.SellerColumns;
+import model.dao.SellerDao;
+import model.dao.SellerPartition;
+import model.dao.UpsertResult;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de SellerDao que agrupa chamadas simultâneas de findById em consultas findByIds,
+ * por meio de um {@link BatchLoader} compartilhado.
+ *
+ * Como o mesmo vendedor carregado pode ser entregue a várias threads, cada chamador recebe uma
+ * cópia. Escritas feitas por este DAO desassociam os IDs afetados do lote em andamento. As demais
+ * operações são repassadas ao DAO decorado.
+ */
+public class CoalescingSellerDao implements SellerDao {
+  private final SellerDao delegate;
+  private final BatchLoader<Integer, Seller> loader;
+
+  /**
+   * Construtor da classe CoalescingSellerDao.
+   *
+   * @param delegate O DAO que acessa o banco de dados.
+   * @param loader   O loader de vendedores, compartilhado entre as instâncias do DAO.
+   */
+  public CoalescingSellerDao(SellerDao delegate, BatchLoader<Integer, Seller> loader) {
+    this.delegate = delegate;
+    this.loader = loader;
+  }
+
+  @Override
+  public void insert(Seller obj) {
+    delegate.insert(obj);
+  }
+
+  @Override
+  public void update(Seller obj) {
+    try {
+      delegate.update(obj);
+    }
+    finally {
+      loader.forget(obj.getId());
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id) {
+    try {
+      delegate.deleteById(id);
+    }
+    finally {
+      loader.forget(id);
+    }
+  }
+
+  @Override
+  public void deleteById(Integer id, Integer version) {
+    try {
+      delegate.deleteById(id, version);
+    }
+    finally {
+      loader.forget(id);
+    }
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Seller> list) {
+    return delegate.insertAll(list);
+  }
+
+  @Override
+  public BatchResult insertAll(Collection<Seller> list, int chunkSize) {
+    return delegate.insertAll(list, chunkSize);
+  }
+
+  @Override
+  public boolean upsert(Seller obj) {
+    try {
+      return delegate.upsert(obj);
+    }
+    finally {
+      if (obj.getId() != null) {
+        loader.forget(obj.getId());
+      }
+    }
+  }
+
+  @Override
+  public UpsertResult upsertAll(Collection<Seller> list) {
+    try {
+      return delegate.upsertAll(list);
+    }
+    finally {
+      forgetKnownIds(list);
+    }
+  }
+
+  @Override
+  public UpsertResult upsertAll(Collection<Seller> list, int chunkSize) {
+    try {
+      return delegate.upsertAll(list, chunkSize);
+    }
+    finally {
+      forgetKnownIds(list);
+    }
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Seller> list) {
+    try {
+      return delegate.updateAll(list);
+    }
+    finally {
+      list.forEach(obj -> loader.forget(obj.getId()));
+    }
+  }
+
+  @Override
+  public BatchResult updateAll(Collection<Seller> list, int chunkSize) {
+    try {
+      return delegate.updateAll(list, chunkSize);
+    }
+    finally {
+      list.forEach(obj -> loader.forget(obj.getId()));
+    }
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids) {
+    try {
+      return delegate.deleteByIds(ids);
+    }
+    finally {
+      ids.forEach(loader::forget);
+    }
+  }
+
+  @Override
+  public BatchResult deleteByIds(Collection<Integer> ids, int chunkSize) {
+    try {
+      return delegate.deleteByIds(ids, chunkSize);
+    }
+    finally {
+      ids.forEach(loader::forget);
+    }
+  }
+
+  /**
+   * findById - Entra no próximo lote do loader e espera o resultado.
+   *
+   * @param id O ID do vendedor que se deseja buscar.
+   * @return Uma cópia do vendedor encontrado, ou null se ele não existir.
+   * @throws DbException Lançada se a consulta do lote falhar.
+   */
+  @Override
+  public Seller findById(Integer id) {
+    Seller obj;
+    try {
+      obj = loader.load(id).join();
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new DbException(e.getCause().getMessage());
+    }
+    return obj == null ? null : new Seller(obj);
+  }
+
+  @Override
+  public Map<Integer, Seller> findByIds(Collection<Integer> ids) {
+    return delegate.findByIds(ids);
+  }
+
+  @Override
+  public List<Seller> findAll() {
+    return delegate.findAll();
+  }
+
+  @Override
+  public Stream<Seller> streamAll() {
+    return delegate.streamAll();
+  }
+
+  @Override
+  public SellerColumns findAllColumnar() {
+    return delegate.findAllColumnar();
+  }
+
+  @Override
+  public List<SellerPartition> partitionById(int partitions) {
+    return delegate.partitionById(partitions);
+  }
+
+  @Override
+  public List<SellerPartition> partitionByDepartment() {
+    return delegate.partitionByDepartment();
+  }
+
+  @Override
+  public List<Seller> findByPartition(SellerPartition partition) {
+    return delegate.findByPartition(partition);
+  }
+
+  @Override
+  public Stream<Seller> parallelScan(List<SellerPartition> partitions) {
+    return delegate.parallelScan(partitions);
+  }
+
+  @Override
+  public void scanPartitions(List<SellerPartition> partitions, int parallelism,
+                             BiConsumer<SellerPartition, List<Seller>> action) {
+    delegate.scanPartitions(partitions, parallelism, action);
+  }
+
+  @Override
+  public List<SalaryStats> salaryStatsByDepartment() {
+    return delegate.salaryStatsByDepartment();
+  }
+
+  @Override
+  public List<SalaryStats> salaryStatsByDepartment(int birthYearBucket) {
+    return delegate.salaryStatsByDepartment(birthYearBucket);
+  }
+
+  @Override
+  public List<Seller> findByDepartment(Department department) {
+    return delegate.findByDepartment(department);
+  }
+
+  @Override
+  public List<Seller> findPage(String afterName, Integer afterId, int limit) {
+    return delegate.findPage(afterName, afterId, limit);
+  }
+
+  @Override
+  public List<Seller> findByDepartment(Department department, String afterName, Integer afterId, int limit) {
+    return delegate.findByDepartment(department, afterName, afterId, limit);
+  }
+
+  private void forgetKnownIds(Collection<Seller> list) {
+    for (Seller obj : list) {
+      if (obj.getId() != null) {
+        loader.forget(obj.getId());
+      }
+    }
+  }
+}
@@ -7,11 +7,19 @@ import java.util.Objects;
 /**
  * Representa um departamento (Department) com atributos como ID e nome.
  * A classe implementa a interface Serializable para suportar serialização.
+ *
+ * Assim como em {@link Seller}, o setter do nome registra se ele mudou desde a última leitura ou
+ * gravação no banco, e objetos criados pelo programa começam marcados como alterados. A versão
+ * (coluna Version) também segue as mesmas regras de Seller.
  */
 public class Department implements Serializable {
+  public static final int NAME = 1;
+  public static final int ALL_FIELDS = NAME;
 
   private Integer id;
   private String name;
+  private Integer version;
+  private int dirtyFields = ALL_FIELDS;
 
   /**
    * Construtor padrão da classe Department.
@@ -31,6 +39,18 @@ public class Department implements Serializable {
     this.name = name;
   }
 
+  /**
+   * Construtor de cópia da classe Department. Copia também os campos marcados como alterados.
+   *
+   * @param other O departamento a ser copiado.
+   */
+  public Department(Department other) {
+    this.id = other.id;
+    this.name = other.name;
+    this.version = other.version;
+    this.dirtyFields = other.dirtyFields;
+  }
+
   public Integer getId() {
     return id;
   }
@@ -44,9 +64,45 @@ public class Department implements Serializable {
   }
 
   public void setName(String name) {
+    if (!Objects.equals(this.name, name)) {
+      dirtyFields |= NAME;
+    }
     this.name = name;
   }
 
+  public Integer getVersion() {
+    return version;
+  }
+
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
+
+  /**
+   * Retorna os campos alterados desde a última leitura ou gravação no banco.
+   *
+   * @return {@link #NAME} se o nome mudou; 0 se nada mudou.
+   */
+  public int getDirtyFields() {
+    return dirtyFields;
+  }
+
+  /**
+   * Indica se algum campo foi alterado desde a última leitura ou gravação no banco.
+   *
+   * @return true se há alterações a gravar.
+   */
+  public boolean isDirty() {
+    return dirtyFields != 0;
+  }
+
+  /**
+   * Marca todos os campos como gravados. Chamado pelos DAOs depois de ler ou gravar o departamento.
+   */
+  public void markClean() {
+    dirtyFields = 0;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -8,14 +8,32 @@ import java.util.Objects;
  * Representa um vendedor (Seller) com atributos como ID, nome, e-mail,
  * data de nascimento, salário base e departamento associado.
  * A classe implementa a interface Serializable para suportar serialização.
+ *
+ * Os setters registram quais campos mudaram desde a última leitura ou gravação no banco
+ * ({@link #getDirtyFields()}), para que o DAO atualize somente as colunas alteradas. Objetos
+ * criados pelo programa começam com todos os campos marcados; os DAOs chamam {@link #markClean()}
+ * nos objetos que leem ou gravam. Alterações feitas diretamente no Date da data de nascimento ou
+ * no ID do departamento associado não passam pelos setters e não são detectadas.
+ *
+ * A versão (coluna Version) é a lida do banco e é usada pelo DAO para detectar alterações
+ * concorrentes quando {@code dao.optimisticLocking=true}; null indica um objeto sem versão conhecida.
  */
 public class Seller implements Serializable {
+  public static final int NAME = 1;
+  public static final int EMAIL = 1 << 1;
+  public static final int BIRTH_DATE = 1 << 2;
+  public static final int BASE_SALARY = 1 << 3;
+  public static final int DEPARTMENT = 1 << 4;
+  public static final int ALL_FIELDS = NAME | EMAIL | BIRTH_DATE | BASE_SALARY | DEPARTMENT;
+
   private Integer id;
   private String name;
   private String email;
   private Date birthDate;
   private Double baseSalary;
   private Department department;
+  private Integer version;
+  private int dirtyFields = ALL_FIELDS;
 
   /**
    * Construtor padrão da classe Seller.
@@ -43,6 +61,23 @@ public class Seller implements Serializable {
     this.department = department;
   }
 
+  /**
+   * Construtor de cópia da classe Seller. Copia também a data, o departamento e os campos
+   * marcados como alterados.
+   *
+   * @param other O vendedor a ser copiado.
+   */
+  public Seller(Seller other) {
+    this.id = other.id;
+    this.name = other.name;
+    this.email = other.email;
+    this.birthDate = other.birthDate == null ? null : new Date(other.birthDate.getTime());
+    this.baseSalary = other.baseSalary;
+    this.department = other.department == null ? null : new Department(other.department);
+    this.version = other.version;
+    this.dirtyFields = other.dirtyFields;
+  }
+
   public Integer getId() {
     return id;
   }
@@ -56,6 +91,9 @@ public class Seller implements Serializable {
   }
 
   public void setName(String name) {
+    if (!Objects.equals(this.name, name)) {
+      dirtyFields |= NAME;
+    }
     this.name = name;
   }
 
@@ -64,6 +102,9 @@ public class Seller implements Serializable {
   }
 
   public void setEmail(String email) {
+    if (!Objects.equals(this.email, email)) {
+      dirtyFields |= EMAIL;
+    }
     this.email = email;
   }
 
@@ -72,6 +113,9 @@ public class Seller implements Serializable {
   }
 
   public void setBirthDate(Date birthDate) {
+    if (!Objects.equals(this.birthDate, birthDate)) {
+      dirtyFields |= BIRTH_DATE;
+    }
     this.birthDate = birthDate;
   }
 
@@ -80,6 +124,9 @@ public class Seller implements Serializable {
   }
 
   public void setBaseSalary(Double baseSalary) {
+    if (!Objects.equals(this.baseSalary, baseSalary)) {
+      dirtyFields |= BASE_SALARY;
+    }
     this.baseSalary = baseSalary;
   }
 
@@ -88,9 +135,48 @@ public class Seller implements Serializable {
   }
 
   public void setDepartment(Department department) {
+    Integer oldId = this.department == null ? null : this.department.getId();
+    Integer newId = department == null ? null : department.getId();
+    if (!Objects.equals(oldId, newId)) {
+      dirtyFields |= DEPARTMENT;
+    }
     this.department = department;
   }
 
+  public Integer getVersion() {
+    return version;
+  }
+
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
+
+  /**
+   * Retorna os campos alterados desde a última leitura ou gravação no banco.
+   *
+   * @return Uma combinação de {@link #NAME}, {@link #EMAIL}, {@link #BIRTH_DATE},
+   *         {@link #BASE_SALARY} e {@link #DEPARTMENT}; 0 se nada mudou.
+   */
+  public int getDirtyFields() {
+    return dirtyFields;
+  }
+
+  /**
+   * Indica se algum campo foi alterado desde a última leitura ou gravação no banco.
+   *
+   * @return true se há alterações a gravar.
+   */
+  public boolean isDirty() {
+    return dirtyFields != 0;
+  }
+
+  /**
+   * Marca todos os campos como gravados. Chamado pelos DAOs depois de ler ou gravar o vendedor.
+   */
+  public void markClean() {
+    dirtyFields = 0;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,142 @@
+package database;
+
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CyclicBarrier;
+
+public class ConnectionPoolTest extends TestCase {
+  private H2Database db;
+  private ConnectionPool pool;
+
+  @Override
+  protected void setUp() {
+    Properties props = new Properties();
+    props.setProperty("pool.maxSize", "1");
+    props.setProperty("pool.acquireTimeoutMs", "100");
+    db = H2Database.create(props);
+    pool = db.getPool();
+  }
+
+  @Override
+  protected void tearDown() {
+    db.close();
+  }
+
+  public void testGetConnectionTimesOutWhenPoolIsExhausted() throws Exception {
+    Connection held = pool.getConnection();
+    long start = System.nanoTime();
+    try {
+      pool.getConnection();
+      fail("Expected a timeout");
+    }
+    catch (DbException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Timeout after 100ms"));
+    }
+    assertTrue(System.nanoTime() - start >= 90_000_000L);
+    assertNull(pool.tryGetConnection(0));
+
+    held.close();
+    Connection next = pool.getConnection();
+    assertEquals(1, pool.getActiveConnections());
+    next.close();
+    assertEquals(0, pool.getActiveConnections());
+  }
+
+  public void testClosedConnectionIsReturnedToThePool() throws Exception {
+    Connection first = pool.getConnection();
+    Connection physical = first.unwrap(Connection.class);
+    first.close();
+    assertTrue(first.isClosed());
+
+    Connection second = pool.getConnection();
+    assertSame(physical, second.unwrap(Connection.class));
+    second.close();
+    assertEquals(1, pool.getIdleConnections());
+  }
+
+  public void testConcurrentClosesReturnTheConnectionOnce() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      Connection conn = pool.getConnection();
+      CyclicBarrier barrier = new CyclicBarrier(2);
+      Runnable close = () -> {
+        try {
+          barrier.await();
+          conn.close();
+        }
+        catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      };
+      Thread other = new Thread(close);
+      other.start();
+      close.run();
+      other.join();
+
+      // Uma devolução dupla liberaria duas permissões para um pool de tamanho 1.
+      Connection held = pool.getConnection();
+      assertNull(pool.tryGetConnection(0));
+      held.close();
+    }
+    assertEquals(1, pool.getIdleConnections());
+  }
+
+  public void testCachedStatementBelongsToTheCurrentLease() throws Exception {
+    Connection first = pool.getConnection();
+    PreparedStatement st = first.prepareStatement("SELECT COUNT(*) FROM seller");
+    assertSame(first, st.getConnection());
+    st.close();
+    try {
+      st.getConnection();
+      fail("Expected a closed statement");
+    }
+    catch (SQLException e) {
+      assertEquals("Statement is closed", e.getMessage());
+    }
+    first.close();
+
+    Connection second = pool.getConnection();
+    PreparedStatement again = second.prepareStatement("SELECT COUNT(*) FROM seller");
+    assertSame(st, again);
+    assertSame(second, again.getConnection());
+    again.close();
+    second.close();
+  }
+
+  public void testBrokenConnectionIsDiscardedOnReturn() throws Exception {
+    Connection conn = pool.getConnection();
+    Connection physical = conn.unwrap(Connection.class);
+    physical.close();
+    conn.close();
+    assertEquals(0, pool.getTotalConnections());
+    assertEquals(0, pool.getIdleConnections());
+
+    Connection fresh = pool.getConnection();
+    assertNotSame(physical, fresh.unwrap(Connection.class));
+    PreparedStatement st = fresh.prepareStatement("SELECT COUNT(*) FROM seller");
+    ResultSet rs = st.executeQuery();
+    assertTrue(rs.next());
+    assertEquals(0, rs.getInt(1));
+    DB.closeResultSet(rs);
+    DB.closeStatement(st);
+    fresh.close();
+  }
+
+  public void testUncommittedTransactionIsRolledBackOnReturn() throws Exception {
+    Connection conn = pool.getConnection();
+    conn.setAutoCommit(false);
+    conn.createStatement().executeUpdate("INSERT INTO department (Name) VALUES ('Lost')");
+    conn.close();
+
+    Connection next = pool.getConnection();
+    assertTrue(next.getAutoCommit());
+    ResultSet rs = next.createStatement().executeQuery("SELECT COUNT(*) FROM department");
+    assertTrue(rs.next());
+    assertEquals(0, rs.getInt(1));
+    next.close();
+  }
+}
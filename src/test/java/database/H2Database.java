@@ -0,0 +1,108 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Banco H2 em memória no modo MySQL para os testes dos DAOs, com as mesmas propriedades e o mesmo
+ * esquema de benchmark.BenchmarkDatabase (inclusive Version e uk_seller_email). Cada instância usa
+ * um banco novo e vazio.
+ */
+public final class H2Database implements AutoCloseable {
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  private final ConnectionPool pool;
+
+  private H2Database(ConnectionPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Cria um banco vazio com as tabelas department e seller.
+   *
+   * @return O banco, com um pool de até 4 conexões.
+   */
+  public static H2Database create() {
+    return create(new Properties());
+  }
+
+  /**
+   * Cria um banco vazio com as tabelas department e seller.
+   *
+   * @param overrides Chaves "pool.*" e "slowlog.*" que substituem as configurações padrão do teste.
+   * @return O banco.
+   */
+  public static H2Database create(Properties overrides) {
+    Properties props = new Properties();
+    props.setProperty("dburl", "jdbc:h2:mem:test" + COUNTER.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    props.setProperty("user", "sa");
+    props.setProperty("password", "");
+    props.setProperty("pool.minSize", "0");
+    props.setProperty("pool.maxSize", "4");
+    props.setProperty("pool.validateOnBorrow", "false");
+    props.putAll(overrides);
+    ConnectionPool pool = ConnectionPool.fromProperties(props);
+    execute(pool,
+        "CREATE TABLE department ("
+            + "Id int NOT NULL AUTO_INCREMENT, "
+            + "Name varchar(60) DEFAULT NULL, "
+            + "Version int NOT NULL DEFAULT 0, "
+            + "PRIMARY KEY (Id))",
+        "CREATE TABLE seller ("
+            + "Id int NOT NULL AUTO_INCREMENT, "
+            + "Name varchar(60) NOT NULL, "
+            + "Email varchar(100) NOT NULL, "
+            + "BirthDate datetime NOT NULL, "
+            + "BaseSalary double NOT NULL, "
+            + "DepartmentId int NOT NULL, "
+            + "Version int NOT NULL DEFAULT 0, "
+            + "PRIMARY KEY (Id), "
+            + "CONSTRAINT uk_seller_email UNIQUE (Email), "
+            + "FOREIGN KEY (DepartmentId) REFERENCES department (Id))",
+        "CREATE INDEX idx_department_name_id ON department (Name, Id)",
+        "CREATE INDEX idx_seller_name_id ON seller (Name, Id)",
+        "CREATE INDEX idx_seller_department_name_id ON seller (DepartmentId, Name, Id)");
+    return new H2Database(pool);
+  }
+
+  /**
+   * Executa comandos SQL avulsos, por exemplo para simular a escrita de outro processo.
+   *
+   * @param sql Os comandos, executados em ordem.
+   */
+  public void execute(String... sql) {
+    execute(pool, sql);
+  }
+
+  public ConnectionPool getPool() {
+    return pool;
+  }
+
+  @Override
+  public void close() {
+    execute(pool, "SHUTDOWN");
+    pool.close();
+  }
+
+  private static void execute(ConnectionPool pool, String... sql) {
+    Connection conn = null;
+    Statement st = null;
+    try {
+      conn = pool.getConnection();
+      st = conn.createStatement();
+      for (String command : sql) {
+        st.executeUpdate(command);
+      }
+    }
+    catch (SQLException e) {
+      throw new DbException(e.getMessage());
+    }
+    finally {
+      DB.closeStatement(st);
+      DB.closeConnection(conn);
+    }
+  }
+}
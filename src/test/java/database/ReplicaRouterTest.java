@@ -0,0 +1,98 @@
+package database;
+
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ReplicaRouterTest extends TestCase {
+  private H2Database primary;
+  private H2Database replica;
+  private ReplicaRouter router;
+  private String primaryUrl;
+  private ExecutorService threads;
+
+  @Override
+  protected void setUp() throws Exception {
+    primary = H2Database.create();
+    replica = H2Database.create();
+    Properties props = new Properties();
+    props.setProperty("replica.readYourWritesMs", "60000");
+    props.setProperty("replica.healthCheckIntervalMs", "60000");
+    router = new ReplicaRouter(primary.getPool(), List.of(replica.getPool()), props);
+    try (Connection conn = primary.getPool().getConnection()) {
+      primaryUrl = conn.getMetaData().getURL();
+    }
+    // Uma thread nova por tarefa: a marca de escrita de ReadYourWrites é por thread.
+    threads = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory());
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    threads.shutdownNow();
+    replica.close();
+    router.close();
+    primary.close();
+  }
+
+  private boolean readsFromPrimary() throws SQLException {
+    try (Connection conn = router.getReadConnection()) {
+      return conn.getMetaData().getURL().equals(primaryUrl);
+    }
+  }
+
+  private <T> T inNewThread(CheckedSupplier<T> work) throws Exception {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return work.get();
+      }
+      catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }, threads).get(5, TimeUnit.SECONDS);
+  }
+
+  public void testWriteIsRecordedWhenTheConnectionIsReturned() throws Exception {
+    assertTrue(inNewThread(() -> {
+      Connection conn = router.getConnection();
+      conn.setAutoCommit(false);
+      // Enquanto a transação não foi confirmada, a réplica continua atendendo as leituras.
+      assertFalse(readsFromPrimary());
+      conn.commit();
+      assertTrue(readsFromPrimary());
+      conn.close();
+      return true;
+    }));
+    assertTrue(inNewThread(() -> {
+      router.getConnection().close();
+      return readsFromPrimary();
+    }));
+  }
+
+  public void testWriteOnAnotherThreadIsReportedBack() throws Exception {
+    assertTrue(inNewThread(() -> {
+      CompletableFuture.supplyAsync(ReadYourWrites.propagateAndReport(() -> {
+        DB.closeConnection(router.getConnection());
+        return null;
+      }), threads).get(5, TimeUnit.SECONDS);
+      return readsFromPrimary();
+    }));
+    assertFalse(inNewThread(() -> {
+      CompletableFuture.supplyAsync(ReadYourWrites.propagate(() -> {
+        DB.closeConnection(router.getConnection());
+        return null;
+      }), threads).get(5, TimeUnit.SECONDS);
+      return readsFromPrimary();
+    }));
+  }
+
+  private interface CheckedSupplier<T> {
+    T get() throws Exception;
+  }
+}
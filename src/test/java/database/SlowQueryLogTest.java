@@ -0,0 +1,49 @@
+package database;
+
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Properties;
+
+public class SlowQueryLogTest extends TestCase {
+  private H2Database db;
+  private SlowQueryLog log;
+
+  @Override
+  protected void setUp() {
+    Properties props = new Properties();
+    props.setProperty("slowlog.thresholdMs", "0");
+    props.setProperty("slowlog.maxPerSecond", "1");
+    db = H2Database.create(props);
+    log = db.getPool().getSlowQueryLog();
+  }
+
+  @Override
+  protected void tearDown() {
+    db.close();
+  }
+
+  private void rename(int id, String name) throws Exception {
+    try (Connection conn = db.getPool().getConnection();
+         PreparedStatement st = conn.prepareStatement("UPDATE department SET Name = ? WHERE Id = ?")) {
+      st.setString(1, name);
+      st.setInt(2, id);
+      st.executeUpdate();
+    }
+  }
+
+  public void testSuppressedIsARunningTotal() throws Exception {
+    rename(1, "a");
+    rename(1, "b");
+    rename(1, "c");
+    assertEquals(1, log.getLogged());
+    assertEquals(2, log.getSuppressed());
+
+    // A janela seguinte resume e zera as supressões dela, mas não o total.
+    Thread.sleep(1_100);
+    rename(1, "d");
+    assertEquals(2, log.getLogged());
+    assertEquals(2, log.getSuppressed());
+  }
+}
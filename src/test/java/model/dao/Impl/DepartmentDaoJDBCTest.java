@@ -0,0 +1,114 @@
+package model.dao.Impl;
+
+import database.DbConcurrencyException;
+import database.H2Database;
+import junit.framework.TestCase;
+import model.dao.BatchResult;
+import model.entities.Department;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DepartmentDaoJDBCTest extends TestCase {
+  private H2Database db;
+  private DepartmentDaoJDBC dao;
+
+  @Override
+  protected void setUp() {
+    db = H2Database.create();
+    dao = new DepartmentDaoJDBC(db.getPool(), 2, true);
+  }
+
+  @Override
+  protected void tearDown() {
+    db.close();
+  }
+
+  private List<Department> insertDepartments(String... names) {
+    List<Department> departments = new ArrayList<>();
+    for (String name : names) {
+      departments.add(new Department(null, name));
+    }
+    assertTrue(dao.insertAll(departments).isSuccessful());
+    return departments;
+  }
+
+  private List<String> allPages(int limit) {
+    List<String> names = new ArrayList<>();
+    List<Department> page = dao.findPage(null, null, limit);
+    while (!page.isEmpty()) {
+      for (Department department : page) {
+        names.add(department.getName());
+      }
+      Department last = page.get(page.size() - 1);
+      page = dao.findPage(last.getName(), last.getId(), limit);
+    }
+    return names;
+  }
+
+  public void testFindPageWalksPastNullNames() {
+    insertDepartments(null, "Books", null, "Computers", null);
+
+    assertEquals(Arrays.asList(null, null, null, "Books", "Computers"), allPages(2));
+    assertEquals(Arrays.asList(null, null, null, "Books", "Computers"), allPages(1));
+  }
+
+  public void testFindPageAfterTheLastNullName() {
+    List<Department> departments = insertDepartments(null, "Books");
+
+    List<Department> page = dao.findPage(null, departments.get(0).getId(), 10);
+    assertEquals(1, page.size());
+    assertEquals("Books", page.get(0).getName());
+  }
+
+  public void testUpdateOfAStaleDepartmentThrows() {
+    Department department = insertDepartments("Books").get(0);
+    Department concurrent = dao.findById(department.getId());
+    concurrent.setName("Concurrent");
+    dao.update(concurrent);
+
+    department.setName("Stale");
+    try {
+      dao.update(department);
+      fail("Expected a version conflict");
+    }
+    catch (DbConcurrencyException e) {
+      assertEquals(List.of(department.getId()), e.getIds());
+    }
+    assertEquals("Concurrent", dao.findById(department.getId()).getName());
+  }
+
+  public void testUpdateWithoutVersionIsRejected() {
+    Department department = insertDepartments("Books").get(0);
+    department.setVersion(null);
+    department.setName("No version");
+    try {
+      dao.update(department);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("Books", dao.findById(department.getId()).getName());
+    }
+  }
+
+  public void testUpdateAllRecordsAConflictAsAFailedChunk() {
+    List<Department> departments = insertDepartments("A", "B", "C");
+    Department concurrent = dao.findById(departments.get(2).getId());
+    concurrent.setName("Concurrent");
+    dao.update(concurrent);
+    for (Department department : departments) {
+      department.setName(department.getName() + "!");
+    }
+
+    BatchResult result = dao.updateAll(departments);
+
+    assertEquals(2, result.getRowsAffected());
+    assertEquals(1, result.getFailures().size());
+    assertEquals(2, result.getFailures().get(0).getFromIndex());
+    assertEquals("40001", result.getFailures().get(0).getSqlState());
+    assertEquals("A!", dao.findById(departments.get(0).getId()).getName());
+    assertEquals("Concurrent", dao.findById(departments.get(2).getId()).getName());
+    assertTrue(departments.get(2).isDirty());
+  }
+}
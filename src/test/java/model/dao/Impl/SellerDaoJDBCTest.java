@@ -0,0 +1,313 @@
+package model.dao.Impl;
+
+import database.ConnectionProvider;
+import database.DbConcurrencyException;
+import database.H2Database;
+import database.metrics.DaoMetrics;
+import database.metrics.OperationMetrics;
+import junit.framework.TestCase;
+import model.dao.BatchResult;
+import model.dao.SellerPartition;
+import model.dao.UpsertResult;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class SellerDaoJDBCTest extends TestCase {
+  private H2Database db;
+  private Department department;
+  private SellerDaoJDBC dao;
+
+  @Override
+  protected void setUp() {
+    db = H2Database.create();
+    department = new Department(null, "Books");
+    new DepartmentDaoJDBC(db.getPool()).insert(department);
+    dao = new SellerDaoJDBC(db.getPool(), 2, 100, true);
+  }
+
+  @Override
+  protected void tearDown() {
+    db.close();
+  }
+
+  private Seller newSeller(String name) {
+    return new Seller(null, name, name.toLowerCase() + "@example.com", new Date(0), 1000.0, department);
+  }
+
+  private List<Seller> insertSellers(int count) {
+    List<Seller> sellers = new ArrayList<>();
+    for (int i = 1; i <= count; i++) {
+      sellers.add(newSeller("Seller" + i));
+    }
+    assertTrue(dao.insertAll(sellers).isSuccessful());
+    return sellers;
+  }
+
+  public void testUpdateIncrementsTheVersion() {
+    Seller seller = insertSellers(1).get(0);
+    assertEquals(Integer.valueOf(0), seller.getVersion());
+
+    seller.setBaseSalary(2000.0);
+    dao.update(seller);
+
+    assertEquals(Integer.valueOf(1), seller.getVersion());
+    assertFalse(seller.isDirty());
+    Seller stored = dao.findById(seller.getId());
+    assertEquals(Integer.valueOf(1), stored.getVersion());
+    assertEquals(2000.0, stored.getBaseSalary());
+  }
+
+  public void testUpdateOfAStaleSellerThrows() {
+    Seller seller = insertSellers(1).get(0);
+    Seller concurrent = dao.findById(seller.getId());
+    concurrent.setName("Concurrent");
+    dao.update(concurrent);
+
+    seller.setName("Stale");
+    OperationMetrics metrics = DaoMetrics.operation("SellerDao.update");
+    long errors = metrics.getErrors();
+    try {
+      dao.update(seller);
+      fail("Expected a version conflict");
+    }
+    catch (DbConcurrencyException e) {
+      assertEquals(List.of(seller.getId()), e.getIds());
+    }
+    assertEquals(errors + 1, metrics.getErrors());
+    assertEquals("Concurrent", dao.findById(seller.getId()).getName());
+    assertTrue(seller.isDirty());
+  }
+
+  public void testUpdateWithoutVersionIsRejected() {
+    Seller seller = insertSellers(1).get(0);
+    seller.setVersion(null);
+    seller.setName("No version");
+    try {
+      dao.update(seller);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("Seller1", dao.findById(seller.getId()).getName());
+    }
+  }
+
+  public void testUpdateAllWithoutVersionWritesNothing() {
+    List<Seller> sellers = insertSellers(2);
+    sellers.get(0).setName("First");
+    sellers.get(1).setName("Second");
+    sellers.get(1).setVersion(null);
+    try {
+      dao.updateAll(sellers);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("Seller1", dao.findById(sellers.get(0).getId()).getName());
+    }
+  }
+
+  public void testUpdateAllWritesOnlyTheColumnsEachSellerChanged() {
+    List<Seller> sellers = insertSellers(2);
+    Seller renamed = sellers.get(0);
+    Seller raised = sellers.get(1);
+    renamed.setName("Renamed");
+    raised.setBaseSalary(3000.0);
+    // Outro processo altera as colunas que nenhum dos dois mudou, sem passar pelo DAO.
+    db.execute("UPDATE seller SET BaseSalary = 5000 WHERE Id = " + renamed.getId(),
+        "UPDATE seller SET Name = 'Concurrent' WHERE Id = " + raised.getId());
+
+    assertTrue(dao.updateAll(sellers).isSuccessful());
+
+    Seller storedRenamed = dao.findById(renamed.getId());
+    assertEquals("Renamed", storedRenamed.getName());
+    assertEquals(5000.0, storedRenamed.getBaseSalary());
+    Seller storedRaised = dao.findById(raised.getId());
+    assertEquals("Concurrent", storedRaised.getName());
+    assertEquals(3000.0, storedRaised.getBaseSalary());
+    assertEquals(Integer.valueOf(1), storedRaised.getVersion());
+  }
+
+  public void testUpdateAllRecordsAConflictAsAFailedChunk() {
+    List<Seller> sellers = insertSellers(3);
+    Seller concurrent = dao.findById(sellers.get(1).getId());
+    concurrent.setName("Concurrent");
+    dao.update(concurrent);
+    for (Seller seller : sellers) {
+      seller.setName(seller.getName() + "!");
+    }
+
+    BatchResult result = dao.updateAll(sellers);
+
+    assertEquals(1, result.getFailures().size());
+    BatchResult.ChunkFailure failure = result.getFailures().get(0);
+    assertEquals(0, failure.getFromIndex());
+    assertEquals(2, failure.getToIndex());
+    assertEquals("40001", failure.getSqlState());
+    assertTrue(failure.getMessage(), failure.getMessage().contains("[" + sellers.get(1).getId() + "]"));
+    assertEquals(1, result.getRowsAffected());
+
+    // O bloco em conflito foi desfeito por inteiro; o bloco seguinte foi gravado.
+    assertEquals("Seller1", dao.findById(sellers.get(0).getId()).getName());
+    assertEquals("Concurrent", dao.findById(sellers.get(1).getId()).getName());
+    assertEquals("Seller3!", dao.findById(sellers.get(2).getId()).getName());
+    assertTrue(sellers.get(0).isDirty());
+    assertEquals(Integer.valueOf(0), sellers.get(0).getVersion());
+    assertFalse(sellers.get(2).isDirty());
+    assertEquals(Integer.valueOf(1), sellers.get(2).getVersion());
+  }
+
+  public void testUpdateAllThrowsAConflictInsideACallerTransaction() throws Exception {
+    List<Seller> sellers = insertSellers(2);
+    Seller concurrent = dao.findById(sellers.get(1).getId());
+    concurrent.setName("Concurrent");
+    dao.update(concurrent);
+    sellers.get(0).setName("First");
+    sellers.get(1).setName("Second");
+
+    Connection conn = db.getPool().getConnection();
+    try {
+      conn.setAutoCommit(false);
+      SellerDaoJDBC inTransaction = new SellerDaoJDBC(transaction(conn), 10, 100, true);
+      try {
+        inTransaction.updateAll(sellers);
+        fail("Expected a version conflict");
+      }
+      catch (DbConcurrencyException e) {
+        assertEquals(List.of(sellers.get(1).getId()), e.getIds());
+      }
+      conn.rollback();
+    }
+    finally {
+      conn.close();
+    }
+    assertEquals("Seller1", dao.findById(sellers.get(0).getId()).getName());
+  }
+
+  public void testUpsertOfAnExistingEmailReadsTheStoredVersion() {
+    Seller existing = insertSellers(1).get(0);
+    existing.setName("Renamed");
+    dao.update(existing);
+
+    Seller incoming = newSeller("Seller1");
+    incoming.setBaseSalary(3000.0);
+    assertFalse(dao.upsert(incoming));
+
+    assertEquals(existing.getId(), incoming.getId());
+    assertEquals(Integer.valueOf(2), incoming.getVersion());
+    assertFalse(incoming.isDirty());
+
+    incoming.setName("After upsert");
+    dao.update(incoming);
+    assertEquals(Integer.valueOf(3), dao.findById(existing.getId()).getVersion());
+  }
+
+  public void testUpsertOfANewEmailInserts() {
+    Seller seller = newSeller("Fresh");
+    assertTrue(dao.upsert(seller));
+    assertNotNull(seller.getId());
+    assertEquals(Integer.valueOf(0), seller.getVersion());
+    assertEquals("Fresh", dao.findById(seller.getId()).getName());
+  }
+
+  public void testUpsertAllInsertsAndUpdatesByEmail() {
+    Seller existing = insertSellers(1).get(0);
+    Seller incoming = newSeller("Seller1");
+    incoming.setBaseSalary(3000.0);
+
+    UpsertResult result = dao.upsertAll(List.of(incoming, newSeller("Fresh")));
+
+    assertTrue(result.isSuccessful());
+    assertEquals(1, result.getInserted());
+    assertEquals(1, result.getUpdated());
+    Seller stored = dao.findById(existing.getId());
+    assertEquals(3000.0, stored.getBaseSalary());
+    assertEquals(Integer.valueOf(1), stored.getVersion());
+  }
+
+  public void testRowAliasIsUsedFromMySql8019() throws Exception {
+    assertFalse(SellerDaoJDBC.supportsRowAlias(metaData("H2", "2.2.224 (2023-09-17)", 2, 2)));
+    assertFalse(SellerDaoJDBC.supportsRowAlias(metaData("MySQL", "5.7.44", 5, 7)));
+    assertFalse(SellerDaoJDBC.supportsRowAlias(metaData("MySQL", "8.0.18", 8, 0)));
+    assertTrue(SellerDaoJDBC.supportsRowAlias(metaData("MySQL", "8.0.19", 8, 0)));
+    assertTrue(SellerDaoJDBC.supportsRowAlias(metaData("MySQL", "8.0.36-0ubuntu0.22.04.1", 8, 0)));
+    assertTrue(SellerDaoJDBC.supportsRowAlias(metaData("MySQL", "8.4.0", 8, 4)));
+  }
+
+  public void testPartitionByIdCoversEveryRow() {
+    List<Seller> sellers = insertSellers(10);
+    List<SellerPartition> partitions = dao.partitionById(3);
+
+    assertEquals(3, partitions.size());
+    assertNull(partitions.get(partitions.size() - 1).toId());
+    int rows = 0;
+    for (SellerPartition partition : partitions) {
+      rows += dao.findByPartition(partition).size();
+    }
+    assertEquals(sellers.size(), rows);
+
+    // Linhas inseridas depois do particionamento caem na última partição, que fica aberta.
+    Seller late = newSeller("Late");
+    dao.insert(late);
+    List<Seller> last = dao.findByPartition(partitions.get(partitions.size() - 1));
+    assertEquals(late.getId(), last.get(last.size() - 1).getId());
+  }
+
+  public void testPartitionByIdOfAnEmptyTable() {
+    assertTrue(dao.partitionById(4).isEmpty());
+  }
+
+  public void testFindPageWalksEveryRowInNameOrder() {
+    insertSellers(5);
+    List<String> names = new ArrayList<>();
+    List<Seller> page = dao.findPage(null, null, 2);
+    while (!page.isEmpty()) {
+      for (Seller seller : page) {
+        names.add(seller.getName());
+      }
+      Seller last = page.get(page.size() - 1);
+      page = dao.findPage(last.getName(), last.getId(), 2);
+    }
+    assertEquals(List.of("Seller1", "Seller2", "Seller3", "Seller4", "Seller5"), names);
+  }
+
+  /**
+   * Metadados que informam apenas o produto e a versão do banco.
+   */
+  private static DatabaseMetaData metaData(String product, String version, int major, int minor) {
+    return (DatabaseMetaData) Proxy.newProxyInstance(DatabaseMetaData.class.getClassLoader(),
+        new Class<?>[] {DatabaseMetaData.class}, (proxy, method, args) -> switch (method.getName()) {
+          case "getDatabaseProductName" -> product;
+          case "getDatabaseProductVersion" -> version;
+          case "getDatabaseMajorVersion" -> major;
+          case "getDatabaseMinorVersion" -> minor;
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  /**
+   * Uma fonte de conexões que entrega sempre a mesma conexão, como em uma transação do chamador;
+   * fechar a conexão entregue não a devolve ao pool.
+   */
+  private static ConnectionProvider transaction(Connection conn) {
+    Connection unclosable = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+          if (method.getName().equals("close")) {
+            return null;
+          }
+          try {
+            return method.invoke(conn, args);
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+    return () -> unclosable;
+  }
+}
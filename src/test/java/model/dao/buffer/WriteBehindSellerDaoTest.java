@@ -0,0 +1,276 @@
+package model.dao.buffer;
+
+import database.DbException;
+import database.H2Database;
+import junit.framework.TestCase;
+import model.dao.BatchResult;
+import model.dao.SellerDao;
+import model.dao.Impl.DepartmentDaoJDBC;
+import model.dao.Impl.SellerDaoJDBC;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WriteBehindSellerDaoTest extends TestCase {
+  private H2Database db;
+  private Department department;
+  private SellerDaoJDBC jdbc;
+  private final List<List<Seller>> updateAllCalls = new CopyOnWriteArrayList<>();
+  /** Quantas chamadas seguintes de updateAll falham por inteiro. */
+  private final AtomicInteger outages = new AtomicInteger();
+  /** Com valor positivo, o ID do vendedor cujo bloco falha com um deadlock (SQLState 40001). */
+  private final AtomicInteger deadlockId = new AtomicInteger();
+  /** Quando definidos, updateAll avisa que começou e espera a liberação. */
+  private volatile CountDownLatch flushStarted;
+  private volatile CountDownLatch releaseFlush;
+  private WriteBehindSellerDao buffer;
+
+  @Override
+  protected void setUp() {
+    db = H2Database.create();
+    department = new Department(null, "Books");
+    new DepartmentDaoJDBC(db.getPool()).insert(department);
+    jdbc = new SellerDaoJDBC(db.getPool(), 100, 100, false);
+    // Intervalo longo: as gravações dos testes são feitas com flush().
+    buffer = WriteBehindSellerDao.start(delegate(), 100, 100, 60_000, 100);
+  }
+
+  @Override
+  protected void tearDown() {
+    buffer.close();
+    db.close();
+  }
+
+  /**
+   * O SellerDaoJDBC do banco de teste, registrando as chamadas de updateAll e simulando falhas.
+   */
+  @SuppressWarnings("unchecked")
+  private SellerDao delegate() {
+    return (SellerDao) Proxy.newProxyInstance(SellerDao.class.getClassLoader(), new Class<?>[] {SellerDao.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("updateAll")) {
+            List<Seller> batch = new ArrayList<>((Collection<Seller>) args[0]);
+            updateAllCalls.add(batch);
+            CountDownLatch release = releaseFlush;
+            if (release != null) {
+              flushStarted.countDown();
+              assertTrue(release.await(5, TimeUnit.SECONDS));
+            }
+            if (outages.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+              throw new DbException("Connection refused");
+            }
+            if (deadlockId.get() > 0 && batch.stream().anyMatch(s -> s.getId() == deadlockId.get())) {
+              deadlockId.set(0);
+              BatchResult result = new BatchResult(batch.size());
+              result.chunkFailed(0, 0, batch.size(), new SQLException("Deadlock found", "40001"));
+              return result;
+            }
+          }
+          try {
+            return method.invoke(jdbc, args);
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+
+  private List<Seller> insertSellers(int count) {
+    List<Seller> sellers = new ArrayList<>();
+    for (int i = 1; i <= count; i++) {
+      sellers.add(new Seller(null, "Seller" + i, "seller" + i + "@example.com", new Date(0), 1000.0, department));
+    }
+    assertTrue(jdbc.insertAll(sellers).isSuccessful());
+    return sellers;
+  }
+
+  public void testUpdatesOfTheSameSellerAreMergedIntoOneRow() {
+    Seller seller = insertSellers(1).get(0);
+    Seller otherCopy = jdbc.findById(seller.getId());
+
+    seller.setName("Renamed");
+    buffer.update(seller);
+    otherCopy.setBaseSalary(5000.0);
+    buffer.update(otherCopy);
+
+    assertEquals(1, buffer.getPending());
+    assertEquals(1, buffer.getCoalesced());
+    assertFalse(seller.isDirty());
+    Seller buffered = buffer.findById(seller.getId());
+    assertEquals("Renamed", buffered.getName());
+    assertEquals(5000.0, buffered.getBaseSalary());
+    assertEquals("Seller1", jdbc.findById(seller.getId()).getName());
+
+    buffer.flush();
+
+    assertEquals(1, updateAllCalls.size());
+    assertEquals(1, updateAllCalls.get(0).size());
+    Seller stored = jdbc.findById(seller.getId());
+    assertEquals("Renamed", stored.getName());
+    assertEquals(5000.0, stored.getBaseSalary());
+    assertEquals(Integer.valueOf(1), stored.getVersion());
+    assertEquals(0, buffer.getPending());
+  }
+
+  public void testFlushDoesNotRewriteUntouchedColumns() {
+    List<Seller> sellers = insertSellers(2);
+    Seller renamed = sellers.get(0);
+    Seller raised = sellers.get(1);
+    renamed.setName("Renamed");
+    buffer.update(renamed);
+    raised.setBaseSalary(4000.0);
+    buffer.update(raised);
+    // Outro processo altera, antes da gravação, as colunas que o buffer não mudou.
+    db.execute("UPDATE seller SET BaseSalary = 5000 WHERE Id = " + renamed.getId(),
+        "UPDATE seller SET Name = 'Concurrent' WHERE Id = " + raised.getId());
+
+    buffer.flush();
+
+    assertEquals(1, updateAllCalls.size());
+    Seller storedRenamed = jdbc.findById(renamed.getId());
+    assertEquals("Renamed", storedRenamed.getName());
+    assertEquals(5000.0, storedRenamed.getBaseSalary());
+    Seller storedRaised = jdbc.findById(raised.getId());
+    assertEquals("Concurrent", storedRaised.getName());
+    assertEquals(4000.0, storedRaised.getBaseSalary());
+  }
+
+  public void testUnchangedSellerIsNotBuffered() {
+    Seller seller = insertSellers(1).get(0);
+    buffer.update(seller);
+    assertEquals(0, buffer.getPending());
+  }
+
+  public void testFailedFlushRequeuesAndKeepsNewerChanges() {
+    Seller seller = insertSellers(1).get(0);
+    seller.setName("First");
+    buffer.update(seller);
+
+    outages.set(1);
+    try {
+      buffer.flush();
+      fail("Expected the outage");
+    }
+    catch (DbException e) {
+      assertEquals("Connection refused", e.getMessage());
+    }
+    assertEquals(1, buffer.getPending());
+
+    seller.setBaseSalary(7000.0);
+    buffer.update(seller);
+    buffer.flush();
+
+    Seller stored = jdbc.findById(seller.getId());
+    assertEquals("First", stored.getName());
+    assertEquals(7000.0, stored.getBaseSalary());
+    assertEquals(0, buffer.getPending());
+    assertEquals(0, buffer.getRejected());
+  }
+
+  public void testTransientChunkFailureIsRetried() {
+    Seller seller = insertSellers(1).get(0);
+    seller.setName("Retried");
+    buffer.update(seller);
+
+    deadlockId.set(seller.getId());
+    buffer.flush();
+    assertEquals(1, buffer.getPending());
+    assertEquals("Seller1", jdbc.findById(seller.getId()).getName());
+
+    buffer.flush();
+    assertEquals(0, buffer.getPending());
+    assertEquals("Retried", jdbc.findById(seller.getId()).getName());
+  }
+
+  public void testRejectedUpdateIsKeptForTheCaller() {
+    List<Seller> sellers = insertSellers(2);
+    Seller duplicate = sellers.get(1);
+    duplicate.setEmail(sellers.get(0).getEmail());
+    buffer.update(duplicate);
+
+    try {
+      buffer.flush();
+      fail("Expected the rejection");
+    }
+    catch (DbException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("1 buffered seller updates were rejected"));
+    }
+    assertEquals(0, buffer.getPending());
+    assertEquals(1, buffer.getFailedRows());
+
+    List<RejectedUpdate> rejected = buffer.drainRejected();
+    assertEquals(1, rejected.size());
+    assertEquals(duplicate.getId(), rejected.get(0).seller().getId());
+    assertEquals(sellers.get(0).getEmail(), rejected.get(0).seller().getEmail());
+    assertNotNull(rejected.get(0).sqlState());
+    assertTrue(buffer.drainRejected().isEmpty());
+  }
+
+  public void testFlushListenerRunsAfterEachFlush() {
+    AtomicInteger flushes = new AtomicInteger();
+    buffer.addFlushListener(flushes::incrementAndGet);
+    Seller seller = insertSellers(1).get(0);
+    seller.setName("Listened");
+    buffer.update(seller);
+
+    buffer.flush();
+    assertEquals(1, flushes.get());
+    buffer.flush();
+    assertEquals(1, flushes.get());
+  }
+
+  public void testWriteThroughDiscardsOlderBufferedState() {
+    Seller seller = insertSellers(1).get(0);
+    seller.setName("Buffered");
+    buffer.update(seller);
+
+    Seller direct = jdbc.findById(seller.getId());
+    direct.setName("Direct");
+    buffer.updateAll(List.of(direct));
+    assertEquals(0, buffer.getPending());
+
+    buffer.flush();
+    assertEquals("Direct", jdbc.findById(seller.getId()).getName());
+  }
+
+  public void testUpdateFailsWhenTheBufferStaysFull() throws Exception {
+    buffer.close();
+    buffer = WriteBehindSellerDao.start(delegate(), 1, 1, 60_000, 50);
+    List<Seller> sellers = insertSellers(3);
+    flushStarted = new CountDownLatch(1);
+    releaseFlush = new CountDownLatch(1);
+
+    // A primeira alteração enche o buffer e dispara uma gravação, que fica presa no banco.
+    sellers.get(0).setName("A");
+    buffer.update(sellers.get(0));
+    assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+    sellers.get(1).setName("B");
+    buffer.update(sellers.get(1));
+    sellers.get(2).setName("C");
+    try {
+      buffer.update(sellers.get(2));
+      fail("Expected a full buffer");
+    }
+    catch (DbException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Write-behind buffer is full"));
+    }
+    assertTrue(sellers.get(2).isDirty());
+
+    releaseFlush.countDown();
+    buffer.close();
+    assertEquals("A", jdbc.findById(sellers.get(0).getId()).getName());
+    assertEquals("B", jdbc.findById(sellers.get(1).getId()).getName());
+    assertEquals("Seller3", jdbc.findById(sellers.get(2).getId()).getName());
+  }
+}
@@ -0,0 +1,51 @@
+package model.dao.bulk;
+
+import database.H2Database;
+import junit.framework.TestCase;
+import model.dao.Impl.DepartmentDaoJDBC;
+import model.dao.Impl.SellerDaoJDBC;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BulkLoaderTest extends TestCase {
+  private H2Database db;
+  private Path dir;
+
+  @Override
+  protected void setUp() throws Exception {
+    db = H2Database.create();
+    dir = Files.createTempDirectory("bulk");
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    db.close();
+    try (var files = Files.list(dir)) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(dir);
+  }
+
+  public void testRejectedDepartmentKeepsItsSourceLine() throws Exception {
+    String tooLong = "x".repeat(61);
+    Path file = dir.resolve("departments.csv");
+    Files.write(file, List.of("name", "Books", "Games", "", tooLong), StandardCharsets.UTF_8);
+    Path rejectFile = dir.resolve("rejected.tsv");
+    BulkLoader loader = new BulkLoader(new SellerDaoJDBC(db.getPool()), new DepartmentDaoJDBC(db.getPool()),
+        db.getPool(), new BulkLoadOptions().batchSize(2).rejectFile(rejectFile));
+
+    BulkLoadResult result = loader.loadDepartments(file);
+
+    assertEquals(2, result.getLoaded());
+    assertEquals(1, result.getRejected());
+    List<String> rejected = Files.readAllLines(rejectFile, StandardCharsets.UTF_8);
+    assertEquals(1, rejected.size());
+    assertTrue(rejected.get(0), rejected.get(0).startsWith("5\t"));
+    assertTrue(rejected.get(0), rejected.get(0).endsWith("\t" + tooLong));
+  }
+}
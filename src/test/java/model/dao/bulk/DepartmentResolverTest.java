@@ -0,0 +1,77 @@
+package model.dao.bulk;
+
+import database.H2Database;
+import junit.framework.TestCase;
+import model.dao.DepartmentDao;
+import model.dao.Impl.DepartmentDaoJDBC;
+import model.entities.Department;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class DepartmentResolverTest extends TestCase {
+  private H2Database db;
+  private DepartmentDaoJDBC jdbc;
+
+  @Override
+  protected void setUp() {
+    db = H2Database.create();
+    jdbc = new DepartmentDaoJDBC(db.getPool());
+    jdbc.insert(new Department(null, "Books"));
+  }
+
+  @Override
+  protected void tearDown() {
+    db.close();
+  }
+
+  public void testExistingNamesAreMatchedIgnoringCaseAndSpaces() {
+    DepartmentResolver resolver = new DepartmentResolver(jdbc, false);
+    assertEquals(jdbc.findAll().get(0).getId().intValue(), resolver.resolve("  BOOKS "));
+    try {
+      resolver.resolve("Games");
+      fail("Expected an unknown department");
+    }
+    catch (IllegalArgumentException e) {
+      assertEquals("Unknown department 'Games'", e.getMessage());
+    }
+  }
+
+  public void testConcurrentCreationKeepsOneDepartment() throws Exception {
+    // Cada INSERT espera o da outra thread, para que as duas criem o departamento antes de registrá-lo.
+    CyclicBarrier barrier = new CyclicBarrier(2);
+    DepartmentDao dao = (DepartmentDao) Proxy.newProxyInstance(DepartmentDao.class.getClassLoader(),
+        new Class<?>[] {DepartmentDao.class}, (proxy, method, args) -> {
+          try {
+            Object result = method.invoke(jdbc, args);
+            if (method.getName().equals("insert")) {
+              barrier.await(5, TimeUnit.SECONDS);
+            }
+            return result;
+          }
+          catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+    DepartmentResolver resolver = new DepartmentResolver(dao, true);
+
+    ExecutorService threads = Executors.newFixedThreadPool(2);
+    try {
+      Future<Integer> first = threads.submit(() -> resolver.resolve("Games"));
+      Future<Integer> second = threads.submit(() -> resolver.resolve("Games"));
+
+      int id = first.get(5, TimeUnit.SECONDS);
+      assertEquals(id, second.get(5, TimeUnit.SECONDS).intValue());
+      assertEquals(2, jdbc.findAll().size());
+      assertEquals("Games", jdbc.findById(id).getName());
+    }
+    finally {
+      threads.shutdownNow();
+    }
+  }
+}
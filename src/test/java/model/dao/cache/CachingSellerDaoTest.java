@@ -0,0 +1,60 @@
+package model.dao.cache;
+
+import database.H2Database;
+import junit.framework.TestCase;
+import model.dao.Impl.DepartmentDaoJDBC;
+import model.dao.Impl.SellerDaoJDBC;
+import model.entities.Department;
+import model.entities.Seller;
+
+import java.util.Date;
+import java.util.List;
+
+public class CachingSellerDaoTest extends TestCase {
+  private H2Database db;
+  private Department department;
+  private CachingSellerDao dao;
+
+  @Override
+  protected void setUp() {
+    db = H2Database.create();
+    department = new Department(null, "Books");
+    new DepartmentDaoJDBC(db.getPool()).insert(department);
+    dao = new CachingSellerDao(new SellerDaoJDBC(db.getPool()), new EntityCache<>("test-sellers", 100, 0),
+        new QueryCache("test-queries", 1_000_000, 0));
+    dao.insert(new Seller(null, "Alice", "alice@example.com", new Date(0), 1000.0, department));
+  }
+
+  @Override
+  protected void tearDown() {
+    db.close();
+  }
+
+  public void testCachedListIsSharedAndUnmodifiable() {
+    List<Seller> first = dao.findByDepartment(department);
+    List<Seller> second = dao.findByDepartment(department);
+
+    assertSame(second, dao.findByDepartment(department));
+    assertSame(first.get(0), second.get(0));
+    try {
+      second.add(new Seller());
+      fail("Expected an unmodifiable list");
+    }
+    catch (UnsupportedOperationException e) {
+      assertEquals(1, dao.findByDepartment(department).size());
+    }
+  }
+
+  public void testWriteThroughACopyRefreshesTheCachedList() {
+    Seller cached = dao.findAll().get(0);
+    Seller copy = dao.findById(cached.getId());
+    assertNotSame(cached, copy);
+
+    copy.setName("Renamed");
+    dao.update(copy);
+
+    assertEquals("Alice", cached.getName());
+    assertEquals("Renamed", dao.findAll().get(0).getName());
+    assertEquals("Renamed", dao.findByDepartment(department).get(0).getName());
+  }
+}
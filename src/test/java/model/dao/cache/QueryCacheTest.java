@@ -0,0 +1,100 @@
+package model.dao.cache;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Set;
+
+public class QueryCacheTest extends TestCase {
+  private static final String TABLE = "seller";
+
+  /**
+   * Cada elemento pesa 100 bytes; um resultado de n elementos ocupa 64 + 108 * n bytes.
+   */
+  private static void put(QueryCache cache, String query, Object param, Integer departmentId, List<String> value,
+                          long loadGeneration) {
+    cache.put(query, param, TABLE, departmentId, value, element -> 100, loadGeneration);
+  }
+
+  public void testPutAndGet() {
+    QueryCache cache = new QueryCache("test", 10_000, 0);
+    assertNull(cache.get("findAll", null));
+    put(cache, "findAll", null, null, List.of("a", "b"), cache.generation());
+
+    assertEquals(List.of("a", "b"), cache.get("findAll", null));
+    assertNull(cache.get("findAll", 1));
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+    assertEquals(64 + 2 * 108, cache.getBytes());
+  }
+
+  public void testResultLoadedBeforeAnInvalidationIsNotCached() {
+    QueryCache cache = new QueryCache("test", 10_000, 0);
+    long loadGeneration = cache.generation();
+    cache.invalidateTable(TABLE);
+    put(cache, "findAll", null, null, List.of("stale"), loadGeneration);
+
+    assertNull(cache.get("findAll", null));
+    assertEquals(0, cache.size());
+
+    put(cache, "findAll", null, null, List.of("fresh"), cache.generation());
+    assertEquals(List.of("fresh"), cache.get("findAll", null));
+  }
+
+  public void testLeastRecentlyUsedResultIsEvictedOverTheMemoryLimit() {
+    QueryCache cache = new QueryCache("test", 2 * (64 + 108), 0);
+    put(cache, "q", 1, null, List.of("1"), cache.generation());
+    put(cache, "q", 2, null, List.of("2"), cache.generation());
+    assertNotNull(cache.get("q", 1));
+    put(cache, "q", 3, null, List.of("3"), cache.generation());
+
+    assertNotNull(cache.get("q", 1));
+    assertNull(cache.get("q", 2));
+    assertNotNull(cache.get("q", 3));
+    assertEquals(1, cache.getEvictions());
+    assertEquals(2 * (64 + 108), cache.getBytes());
+  }
+
+  public void testResultLargerThanTheLimitIsNotCached() {
+    QueryCache cache = new QueryCache("test", 100, 0);
+    put(cache, "q", null, null, List.of("too big"), cache.generation());
+    assertEquals(0, cache.size());
+  }
+
+  public void testInvalidateDepartmentsKeepsOtherDepartments() {
+    QueryCache cache = new QueryCache("test", 10_000, 0);
+    put(cache, "findAll", null, null, List.of("all"), cache.generation());
+    put(cache, "findByDepartment", 1, 1, List.of("d1"), cache.generation());
+    put(cache, "findByDepartment", 2, 2, List.of("d2"), cache.generation());
+    cache.put("DepartmentDao.findAll", null, "department", null, List.of("dep"), element -> 100, cache.generation());
+
+    cache.invalidateDepartments(TABLE, Set.of(1));
+
+    assertNull(cache.get("findAll", null));
+    assertNull(cache.get("findByDepartment", 1));
+    assertEquals(List.of("d2"), cache.get("findByDepartment", 2));
+    assertEquals(List.of("dep"), cache.get("DepartmentDao.findAll", null));
+    assertEquals(2, cache.size());
+
+    cache.invalidateTable(TABLE);
+    assertNull(cache.get("findByDepartment", 2));
+    assertEquals(1, cache.size());
+  }
+
+  public void testExpiredResultIsRemoved() throws Exception {
+    QueryCache cache = new QueryCache("test", 10_000, 20);
+    put(cache, "findAll", null, null, List.of("a"), cache.generation());
+    Thread.sleep(40);
+
+    assertNull(cache.get("findAll", null));
+    assertEquals(1, cache.getExpirations());
+    assertEquals(0, cache.getBytes());
+  }
+
+  public void testDisabledCacheStoresNothing() {
+    QueryCache cache = new QueryCache("test", 0, 0);
+    assertFalse(cache.isEnabled());
+    put(cache, "findAll", null, null, List.of("a"), cache.generation());
+    assertNull(cache.get("findAll", null));
+  }
+}
@@ -0,0 +1,116 @@
+package model.dao.loader;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class BatchLoaderTest extends TestCase {
+  private final List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+
+  /**
+   * Devolve "v" + chave para as chaves positivas; as demais não são encontradas.
+   */
+  private Map<Integer, String> lookup(Collection<Integer> keys) {
+    calls.add(new ArrayList<>(keys));
+    Map<Integer, String> values = new HashMap<>();
+    for (Integer key : keys) {
+      if (key > 0) {
+        values.put(key, "v" + key);
+      }
+    }
+    return values;
+  }
+
+  public void testKeysWithinTheWindowShareOneBatch() throws Exception {
+    BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::lookup, 50_000, 100);
+    CompletableFuture<String> first = loader.load(1);
+    CompletableFuture<String> again = loader.load(1);
+    CompletableFuture<String> second = loader.load(2);
+    CompletableFuture<String> missing = loader.load(-3);
+
+    assertSame(first, again);
+    assertEquals("v1", first.get(5, TimeUnit.SECONDS));
+    assertEquals("v2", second.get(5, TimeUnit.SECONDS));
+    assertNull(missing.get(5, TimeUnit.SECONDS));
+    assertEquals(List.of(List.of(1, 2, -3)), calls);
+    assertEquals(4, loader.getRequests());
+    assertEquals(1, loader.getCoalesced());
+    assertEquals(1, loader.getBatches());
+  }
+
+  public void testFullBatchIsDispatchedBeforeTheWindowEnds() throws Exception {
+    BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::lookup, 60_000_000, 2);
+    CompletableFuture<String> first = loader.load(1);
+    CompletableFuture<String> second = loader.load(2);
+
+    assertEquals("v1", first.get(5, TimeUnit.SECONDS));
+    assertEquals("v2", second.get(5, TimeUnit.SECONDS));
+    assertEquals(List.of(List.of(1, 2)), calls);
+  }
+
+  public void testKeyIsLoadedAgainAfterTheBatchCompletes() throws Exception {
+    BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::lookup, 0, 100);
+    assertEquals("v1", loader.load(1).get(5, TimeUnit.SECONDS));
+    assertEquals("v1", loader.load(1).get(5, TimeUnit.SECONDS));
+    assertEquals(2, calls.size());
+    assertEquals(0, loader.getCoalesced());
+  }
+
+  public void testForgetMakesTheNextRequestStartANewLoad() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    BatchLoader<Integer, String> loader = new BatchLoader<>("test", keys -> {
+      started.countDown();
+      await(release);
+      return lookup(keys);
+    }, 0, 100);
+    CompletableFuture<String> stale = loader.load(1);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertSame(stale, loader.load(1));
+
+    loader.forget(1);
+    CompletableFuture<String> fresh = loader.load(1);
+    release.countDown();
+
+    assertNotSame(stale, fresh);
+    assertEquals("v1", stale.get(5, TimeUnit.SECONDS));
+    assertEquals("v1", fresh.get(5, TimeUnit.SECONDS));
+    assertEquals(List.of(List.of(1), List.of(1)), calls);
+  }
+
+  public void testBatchFailureCompletesEveryFutureExceptionally() throws Exception {
+    BatchLoader<Integer, String> loader = new BatchLoader<>("test", keys -> {
+      throw new IllegalStateException("database down");
+    }, 1_000, 100);
+    CompletableFuture<String> first = loader.load(1);
+    CompletableFuture<String> second = loader.load(2);
+    for (CompletableFuture<String> future : List.of(first, second)) {
+      try {
+        future.get(5, TimeUnit.SECONDS);
+        fail("Expected the batch failure");
+      }
+      catch (ExecutionException e) {
+        assertEquals("database down", e.getCause().getMessage());
+      }
+    }
+    assertNotSame(first, loader.load(1));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}